@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.cluster;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.Invocation;
+
+/**
+ * A router declaring which inputs of the invocation its route result depends on.
+ * <p>
+ * Given the same invokers and refer url, two invocations with equal route keys must be routed to the same invokers,
+ * which lets the directory cache the route result per key, e.g. per method or per tag, and route again only when
+ * the invokers or the routers change.
+ *
+ * @see org.apache.dubbo.rpc.cluster.directory.AbstractDirectory#list(org.apache.dubbo.rpc.Invocation)
+ */
+public interface CacheableRouter extends Router {
+
+    /**
+     * get the route key, the part of the invocation the route result depends on. It should be an existing value of
+     * the invocation, e.g. the method name, and the number of distinct keys should be small.
+     *
+     * @param url        refer url
+     * @param invocation
+     * @return route key, null is a valid key
+     */
+    Object getRouteKey(URL url, Invocation invocation);
+
+}
@@ -21,9 +21,11 @@ import org.apache.dubbo.common.URL;
 import org.apache.dubbo.common.extension.ExtensionLoader;
 import org.apache.dubbo.common.logger.Logger;
 import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.utils.WeakIdentityMap;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.cluster.CacheableRouter;
 import org.apache.dubbo.rpc.cluster.Directory;
 import org.apache.dubbo.rpc.cluster.Router;
 import org.apache.dubbo.rpc.cluster.RouterFactory;
@@ -32,9 +34,16 @@ import org.apache.dubbo.rpc.cluster.router.MockInvokersSelector;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Abstract implementation of Directory: Invoker list returned from this Directory's list method have been filtered by Routers
+ * <p>
+ * The results of the leading {@link CacheableRouter}s are cached per invoker list returned by
+ * {@link #doList(Invocation)} and per route key until the routers change, only the routers after them run on every
+ * invocation. Implementations should therefore return a new list instead of modifying the listed one when their
+ * invokers change.
  *
  */
 public abstract class AbstractDirectory<T> implements Directory<T> {
@@ -50,6 +59,11 @@ public abstract class AbstractDirectory<T> implements Directory<T> {
 
     private volatile List<Router> routers;
 
+    /**
+     * listed invoker list -> route cache, one per list as a directory may list another one per method
+     */
+    private final WeakIdentityMap<List<Invoker<T>>, RouteCache<T>> routeCaches = new WeakIdentityMap<List<Invoker<T>>, RouteCache<T>>();
+
     public AbstractDirectory(URL url) {
         this(url, null);
     }
@@ -73,21 +87,51 @@ public abstract class AbstractDirectory<T> implements Directory<T> {
             throw new RpcException("Directory already destroyed .url: " + getUrl());
         }
         List<Invoker<T>> invokers = doList(invocation);
-        List<Router> localRouters = this.routers; // local reference
-        if (localRouters != null && !localRouters.isEmpty()) {
-            for (Router router : localRouters) {
-                try {
-                    if (router.getUrl() == null || router.getUrl().getParameter(Constants.RUNTIME_KEY, false)) {
-                        invokers = router.route(invokers, getConsumerUrl(), invocation);
-                    }
-                } catch (Throwable t) {
-                    logger.error("Failed to execute router: " + getUrl() + ", cause: " + t.getMessage(), t);
-                }
+        URL consumerUrl = getConsumerUrl();
+        RouteCache<T> cache = getRouteCache(invokers, consumerUrl);
+        List<CacheableRouter> cacheableRouters = cache.cacheableRouters;
+        RouteNode<T> node = cache.root;
+        int index = 0;
+        for (RouteNode<T> next; index < cacheableRouters.size(); index++, node = next) {
+            next = node.next(cacheableRouters.get(index), invokers, consumerUrl, invocation);
+            if (next == null) {
+                break;
             }
         }
+        invokers = node.getInvokers(invokers);
+        // route on without the cache if a result could not be cached
+        for (; index < cacheableRouters.size(); index++) {
+            invokers = route(cacheableRouters.get(index), invokers, consumerUrl, invocation);
+        }
+        for (Router router : cache.dynamicRouters) {
+            invokers = route(router, invokers, consumerUrl, invocation);
+        }
         return invokers;
     }
 
+    private RouteCache<T> getRouteCache(List<Invoker<T>> invokers, URL consumerUrl) {
+        List<Router> localRouters = this.routers; // local reference
+        if (invokers == null || invokers.isEmpty()) {
+            // nothing worth caching, and an empty list is usually a new one per call
+            return new RouteCache<T>(invokers, localRouters, consumerUrl);
+        }
+        RouteCache<T> cache = routeCaches.get(invokers);
+        if (cache == null || !cache.isCacheOf(invokers, localRouters, consumerUrl)) {
+            cache = new RouteCache<T>(invokers, localRouters, consumerUrl);
+            routeCaches.put(invokers, cache);
+        }
+        return cache;
+    }
+
+    private List<Invoker<T>> route(Router router, List<Invoker<T>> invokers, URL consumerUrl, Invocation invocation) {
+        try {
+            return router.route(invokers, consumerUrl, invocation);
+        } catch (Throwable t) {
+            logger.error("Failed to execute router: " + getUrl() + ", cause: " + t.getMessage(), t);
+            return invokers;
+        }
+    }
+
     @Override
     public URL getUrl() {
         return url;
@@ -127,8 +171,107 @@ public abstract class AbstractDirectory<T> implements Directory<T> {
     @Override
     public void destroy() {
         destroyed = true;
+        routeCaches.clear();
     }
 
     protected abstract List<Invoker<T>> doList(Invocation invocation) throws RpcException;
 
+    /**
+     * The routers to run on one listed invoker list, the leading cacheable ones and the remaining ones.
+     * It does not refer to the listed list, which keys it weakly.
+     */
+    private static final class RouteCache<T> {
+
+        private final int size;
+
+        private final List<Router> routers;
+
+        private final URL consumerUrl;
+
+        private final List<CacheableRouter> cacheableRouters = new ArrayList<CacheableRouter>();
+
+        private final List<Router> dynamicRouters = new ArrayList<Router>();
+
+        private final RouteNode<T> root;
+
+        RouteCache(List<Invoker<T>> invokers, List<Router> routers, URL consumerUrl) {
+            this.size = invokers == null ? 0 : invokers.size();
+            this.routers = routers;
+            this.consumerUrl = consumerUrl;
+            this.root = new RouteNode<T>(null);
+            if (routers != null) {
+                for (Router router : routers) {
+                    if (router.getUrl() == null || router.getUrl().getParameter(Constants.RUNTIME_KEY, false)) {
+                        if (router instanceof CacheableRouter && dynamicRouters.isEmpty()) {
+                            cacheableRouters.add((CacheableRouter) router);
+                        } else {
+                            dynamicRouters.add(router);
+                        }
+                    }
+                }
+            }
+        }
+
+        boolean isCacheOf(List<Invoker<T>> invokers, List<Router> routers, URL consumerUrl) {
+            return this.routers == routers && this.consumerUrl == consumerUrl
+                    && size == (invokers == null ? 0 : invokers.size());
+        }
+    }
+
+    /**
+     * The invokers left after some cacheable routers, with the results of the next router per route key.
+     * A node whose routers left the listed invokers as they were holds null instead of the listed list.
+     */
+    private static final class RouteNode<T> {
+
+        private static final int MAX_ROUTE_KEYS = 1024;
+
+        private static final Object NULL_KEY = new Object();
+
+        private final List<Invoker<T>> invokers;
+
+        private final ConcurrentMap<Object, RouteNode<T>> next = new ConcurrentHashMap<Object, RouteNode<T>>();
+
+        RouteNode(List<Invoker<T>> invokers) {
+            this.invokers = invokers;
+        }
+
+        List<Invoker<T>> getInvokers(List<Invoker<T>> listed) {
+            return invokers == null ? listed : invokers;
+        }
+
+        /**
+         * @return the node after the router, or null if its result can not be cached
+         */
+        RouteNode<T> next(CacheableRouter router, List<Invoker<T>> listed, URL consumerUrl, Invocation invocation) {
+            List<Invoker<T>> input = getInvokers(listed);
+            List<Invoker<T>> routed;
+            Object key;
+            try {
+                key = router.getRouteKey(consumerUrl, invocation);
+                key = key == null ? NULL_KEY : key;
+                RouteNode<T> node = next.get(key);
+                if (node != null) {
+                    return node;
+                }
+                if (next.size() >= MAX_ROUTE_KEYS) {
+                    return null;
+                }
+                routed = router.route(input, consumerUrl, invocation);
+            } catch (Throwable t) {
+                return null;
+            }
+            if (routed == null) {
+                return null;
+            }
+            if (routed == listed) {
+                routed = null;
+            } else if (routed != input) {
+                routed = Collections.unmodifiableList(routed);
+            }
+            RouteNode<T> node = next.putIfAbsent(key, new RouteNode<T>(routed));
+            return node == null ? next.get(key) : node;
+        }
+    }
+
 }
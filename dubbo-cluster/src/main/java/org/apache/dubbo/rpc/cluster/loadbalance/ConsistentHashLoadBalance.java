@@ -22,12 +22,13 @@ import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.support.RpcUtils;
 
-import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -38,6 +39,11 @@ import java.util.concurrent.ConcurrentMap;
 public class ConsistentHashLoadBalance extends AbstractLoadBalance {
     public static final String NAME = "consistenthash";
 
+    /**
+     * The hash function of the ring, md5 (default) or murmur3
+     */
+    public static final String HASH_FUNCTION = "hash.function";
+
     private final ConcurrentMap<String, ConsistentHashSelector<?>> selectors = new ConcurrentHashMap<String, ConsistentHashSelector<?>>();
 
     @SuppressWarnings("unchecked")
@@ -48,15 +54,31 @@ public class ConsistentHashLoadBalance extends AbstractLoadBalance {
         int identityHashCode = System.identityHashCode(invokers);
         ConsistentHashSelector<T> selector = (ConsistentHashSelector<T>) selectors.get(key);
         if (selector == null || selector.identityHashCode != identityHashCode) {
-            selectors.put(key, new ConsistentHashSelector<T>(invokers, methodName, identityHashCode));
+            selectors.put(key, new ConsistentHashSelector<T>(invokers, methodName, identityHashCode, selector));
             selector = (ConsistentHashSelector<T>) selectors.get(key);
         }
         return selector.select(invocation);
     }
 
+    /**
+     * The ring is one sorted long[], every virtual node packs its 32 bits hash above the 31 bits index of its invoker,
+     * so a selection is a binary search without boxing, and the ring of a changed invoker list reuses the nodes of the
+     * invokers which are still there, only hashing the new ones. Nodes of equal hash, from duplicate addresses or
+     * collisions, go to the last of their invokers in the list, as when the ring was a map filled in list order.
+     */
     private static final class ConsistentHashSelector<T> {
 
-        private final TreeMap<Long, Invoker<T>> virtualInvokers;
+        private static final int INDEX_BITS = 31;
+
+        private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+        private final Invoker<T>[] invokers;
+
+        private final String[] addresses;
+
+        private final long[] ring;
+
+        private final HashFunction hashFunction;
 
         private final int replicaNumber;
 
@@ -64,35 +86,106 @@ public class ConsistentHashLoadBalance extends AbstractLoadBalance {
 
         private final int[] argumentIndex;
 
-        ConsistentHashSelector(List<Invoker<T>> invokers, String methodName, int identityHashCode) {
-            this.virtualInvokers = new TreeMap<Long, Invoker<T>>();
+        @SuppressWarnings("unchecked")
+        ConsistentHashSelector(List<Invoker<T>> invokers, String methodName, int identityHashCode, ConsistentHashSelector<T> previous) {
+            this.invokers = invokers.toArray(new Invoker[invokers.size()]);
             this.identityHashCode = identityHashCode;
             URL url = invokers.get(0).getUrl();
             this.replicaNumber = url.getMethodParameter(methodName, "hash.nodes", 160);
+            this.hashFunction = HashFunction.of(url.getMethodParameter(methodName, HASH_FUNCTION, "md5"));
             String[] index = Constants.COMMA_SPLIT_PATTERN.split(url.getMethodParameter(methodName, "hash.arguments", "0"));
             argumentIndex = new int[index.length];
             for (int i = 0; i < index.length; i++) {
                 argumentIndex[i] = Integer.parseInt(index[i]);
             }
-            for (Invoker<T> invoker : invokers) {
-                String address = invoker.getUrl().getAddress();
-                for (int i = 0; i < replicaNumber / 4; i++) {
-                    byte[] digest = md5(address + i);
-                    for (int h = 0; h < 4; h++) {
-                        long m = hash(digest, h);
-                        virtualInvokers.put(m, invoker);
+            this.addresses = new String[this.invokers.length];
+            for (int i = 0; i < addresses.length; i++) {
+                addresses[i] = this.invokers[i].getUrl().getAddress();
+            }
+            long[] updated = null;
+            if (previous != null && previous.replicaNumber == replicaNumber && previous.hashFunction == hashFunction) {
+                updated = update(previous);
+            }
+            this.ring = updated != null ? updated : build(null);
+        }
+
+        /**
+         * @return the sorted nodes of the invokers which are not marked as kept
+         */
+        private long[] build(boolean[] kept) {
+            long[] nodes = new long[addresses.length * hashFunction.nodes(replicaNumber)];
+            int size = 0;
+            for (int i = 0; i < addresses.length; i++) {
+                if (kept == null || !kept[i]) {
+                    size = hashFunction.hashNodes(addresses[i], replicaNumber, i, nodes, size);
+                }
+            }
+            nodes = size == nodes.length ? nodes : Arrays.copyOf(nodes, size);
+            Arrays.sort(nodes);
+            return nodes;
+        }
+
+        /**
+         * @return the ring made of the previous one, or null when duplicate addresses need a full build
+         */
+        private long[] update(ConsistentHashSelector<T> previous) {
+            Map<String, Integer> indexes = new HashMap<String, Integer>(addresses.length * 4 / 3 + 1);
+            for (int i = 0; i < addresses.length; i++) {
+                if (indexes.put(addresses[i], i) != null) {
+                    return null;
+                }
+            }
+            // the new index of every previous invoker, -1 once removed
+            int[] remap = new int[previous.addresses.length];
+            boolean[] kept = new boolean[addresses.length];
+            for (int i = 0; i < remap.length; i++) {
+                Integer index = indexes.get(previous.addresses[i]);
+                remap[i] = index == null ? -1 : index;
+                if (index != null) {
+                    if (kept[index]) {
+                        return null;
                     }
+                    kept[index] = true;
+                }
+            }
+            long[] retained = new long[previous.ring.length];
+            int size = 0;
+            for (long node : previous.ring) {
+                int index = remap[(int) (node & INDEX_MASK)];
+                if (index >= 0) {
+                    retained[size++] = (node & ~INDEX_MASK) | index;
                 }
             }
+            long[] added = build(kept);
+            return merge(retained, size, added);
+        }
+
+        private static long[] merge(long[] left, int leftSize, long[] right) {
+            long[] merged = new long[leftSize + right.length];
+            int i = 0, j = 0, k = 0;
+            while (i < leftSize && j < right.length) {
+                // equal hashes of different invokers only need to stay next to each other
+                merged[k++] = (left[i] >>> INDEX_BITS) <= (right[j] >>> INDEX_BITS) ? left[i++] : right[j++];
+            }
+            while (i < leftSize) {
+                merged[k++] = left[i++];
+            }
+            while (j < right.length) {
+                merged[k++] = right[j++];
+            }
+            return merged;
         }
 
         public Invoker<T> select(Invocation invocation) {
             String key = toKey(invocation.getArguments());
-            byte[] digest = md5(key);
-            return selectForKey(hash(digest, 0));
+            return selectForKey(hashFunction.hashKey(key));
         }
 
         private String toKey(Object[] args) {
+            if (argumentIndex.length == 1) {
+                int i = argumentIndex[0];
+                return i >= 0 && i < args.length ? String.valueOf(args[i]) : "";
+            }
             StringBuilder buf = new StringBuilder();
             for (int i : argumentIndex) {
                 if (i >= 0 && i < args.length) {
@@ -103,39 +196,153 @@ public class ConsistentHashLoadBalance extends AbstractLoadBalance {
         }
 
         private Invoker<T> selectForKey(long hash) {
-            Map.Entry<Long, Invoker<T>> entry = virtualInvokers.ceilingEntry(hash);
-            if (entry == null) {
-                entry = virtualInvokers.firstEntry();
+            // the first node whose hash is not less than the key, whatever its index bits
+            int i = Arrays.binarySearch(ring, hash << INDEX_BITS);
+            if (i < 0) {
+                i = -i - 1;
+            }
+            if (i == ring.length) {
+                i = 0;
+            }
+            // the last invoker of the list among the nodes of the same hash, wherever the update put them
+            long hashBits = ring[i] >>> INDEX_BITS;
+            int index = (int) (ring[i] & INDEX_MASK);
+            for (int j = i + 1; j < ring.length && ring[j] >>> INDEX_BITS == hashBits; j++) {
+                index = Math.max(index, (int) (ring[j] & INDEX_MASK));
             }
-            return entry.getValue();
+            return invokers[index];
         }
 
-        private long hash(byte[] digest, int number) {
-            return (((long) (digest[3 + number * 4] & 0xFF) << 24)
-                    | ((long) (digest[2 + number * 4] & 0xFF) << 16)
-                    | ((long) (digest[1 + number * 4] & 0xFF) << 8)
-                    | (digest[number * 4] & 0xFF))
-                    & 0xFFFFFFFFL;
+    }
+
+    private enum HashFunction {
+
+        /**
+         * Four nodes out of the md5 digest of every <code>address + i</code>, the historical ring layout
+         */
+        MD5 {
+            private final ThreadLocal<MessageDigest> digests = new ThreadLocal<MessageDigest>() {
+                @Override
+                protected MessageDigest initialValue() {
+                    try {
+                        return MessageDigest.getInstance("MD5");
+                    } catch (NoSuchAlgorithmException e) {
+                        throw new IllegalStateException(e.getMessage(), e);
+                    }
+                }
+            };
+
+            @Override
+            int nodes(int replicaNumber) {
+                return replicaNumber / 4 * 4;
+            }
+
+            @Override
+            int hashNodes(String address, int replicaNumber, int index, long[] nodes, int size) {
+                for (int i = 0; i < replicaNumber / 4; i++) {
+                    byte[] digest = md5(address + i);
+                    for (int h = 0; h < 4; h++) {
+                        nodes[size++] = (hash(digest, h) << ConsistentHashSelector.INDEX_BITS) | index;
+                    }
+                }
+                return size;
+            }
+
+            @Override
+            long hashKey(String key) {
+                return hash(md5(key), 0);
+            }
+
+            private long hash(byte[] digest, int number) {
+                return (((long) (digest[3 + number * 4] & 0xFF) << 24)
+                        | ((long) (digest[2 + number * 4] & 0xFF) << 16)
+                        | ((long) (digest[1 + number * 4] & 0xFF) << 8)
+                        | (digest[number * 4] & 0xFF))
+                        & 0xFFFFFFFFL;
+            }
+
+            private byte[] md5(String value) {
+                MessageDigest md5 = digests.get();
+                md5.reset();
+                md5.update(value.getBytes(StandardCharsets.UTF_8));
+                return md5.digest();
+            }
+        },
+
+        /**
+         * One murmur3 node per replica, seeded by the replica number, much cheaper than md5 for both nodes and keys
+         */
+        MURMUR3 {
+            @Override
+            int nodes(int replicaNumber) {
+                return replicaNumber;
+            }
+
+            @Override
+            int hashNodes(String address, int replicaNumber, int index, long[] nodes, int size) {
+                for (int i = 0; i < replicaNumber; i++) {
+                    nodes[size++] = (murmur3(address, i) << ConsistentHashSelector.INDEX_BITS) | index;
+                }
+                return size;
+            }
+
+            @Override
+            long hashKey(String key) {
+                return murmur3(key, 0);
+            }
+        };
+
+        abstract int nodes(int replicaNumber);
+
+        /**
+         * Put the nodes of one invoker into the array from size on.
+         *
+         * @return the new size
+         */
+        abstract int hashNodes(String address, int replicaNumber, int index, long[] nodes, int size);
+
+        /**
+         * @return the unsigned 32 bits hash of the key
+         */
+        abstract long hashKey(String key);
+
+        static HashFunction of(String name) {
+            return "murmur3".equalsIgnoreCase(name) ? MURMUR3 : MD5;
+        }
+
+        /**
+         * murmur3_x86_32 over the UTF-16 chars of the value, two chars per block.
+         */
+        static long murmur3(CharSequence value, int seed) {
+            int h = seed;
+            int length = value.length();
+            for (int i = 1; i < length; i += 2) {
+                int k = value.charAt(i - 1) | (value.charAt(i) << 16);
+                h = mixH(h, mixK(k));
+            }
+            if ((length & 1) == 1) {
+                h ^= mixK(value.charAt(length - 1));
+            }
+            h ^= 2 * length;
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return h & 0xFFFFFFFFL;
         }
 
-        private byte[] md5(String value) {
-            MessageDigest md5;
-            try {
-                md5 = MessageDigest.getInstance("MD5");
-            } catch (NoSuchAlgorithmException e) {
-                throw new IllegalStateException(e.getMessage(), e);
-            }
-            md5.reset();
-            byte[] bytes;
-            try {
-                bytes = value.getBytes("UTF-8");
-            } catch (UnsupportedEncodingException e) {
-                throw new IllegalStateException(e.getMessage(), e);
-            }
-            md5.update(bytes);
-            return md5.digest();
+        private static int mixK(int k) {
+            k *= 0xcc9e2d51;
+            k = Integer.rotateLeft(k, 15);
+            return k * 0x1b873593;
         }
 
+        private static int mixH(int h, int k) {
+            h ^= k;
+            h = Integer.rotateLeft(h, 13);
+            return h * 5 + 0xe6546b64;
+        }
     }
 
 }
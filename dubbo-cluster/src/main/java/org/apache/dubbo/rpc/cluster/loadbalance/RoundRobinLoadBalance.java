@@ -16,138 +16,218 @@
  */
 package org.apache.dubbo.rpc.cluster.loadbalance;
 
+import org.apache.dubbo.common.Constants;
 import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.utils.WeakIdentityMap;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Round robin load balance.
+ * <p>
+ * Smooth weighted round robin: every selection adds the weight of each invoker to its current value, picks the
+ * invoker with the largest current value and subtracts the total weight from it. The current value of an invoker is
+ * kept per method in a {@link WeightedRoundRobin} of the invoker, shared by all the lists the invoker is selected
+ * from. Each list gets a {@link RoundRobinSnapshot} mapping its positions to those states, so a selection builds no
+ * strings and looks nothing up per invoker, and a new list only needs that remap, built without locking.
  */
 public class RoundRobinLoadBalance extends AbstractLoadBalance {
     public static final String NAME = "roundrobin";
-    
-    private static int RECYCLE_PERIOD = 60000;
-    
-    protected static class WeightedRoundRobin {
-        private int weight;
-        private AtomicLong current = new AtomicLong(0);
-        private long lastUpdate;
-        public int getWeight() {
-            return weight;
-        }
-        public void setWeight(int weight) {
-            this.weight = weight;
-            current.set(0);
-        }
-        public long increaseCurrent() {
-            return current.addAndGet(weight);
-        }
-        public void sel(int total) {
-            current.addAndGet(-1 * total);
-        }
-        public long getLastUpdate() {
-            return lastUpdate;
-        }
-        public void setLastUpdate(long lastUpdate) {
-            this.lastUpdate = lastUpdate;
-        }
-    }
 
-    private ConcurrentMap<String, ConcurrentMap<String, WeightedRoundRobin>> methodWeightMap = new ConcurrentHashMap<String, ConcurrentMap<String, WeightedRoundRobin>>();
-    private AtomicBoolean updateLock = new AtomicBoolean();
-    
+    /**
+     * method name -> round robin state of the method
+     */
+    private final ConcurrentMap<String, MethodState> methodStates = new ConcurrentHashMap<String, MethodState>();
+
     /**
      * get invoker addr list cached for specified invocation
      * <p>
      * <b>for unit test only</b>
-     * 
+     *
      * @param invokers
      * @param invocation
      * @return
      */
     protected <T> Collection<String> getInvokerAddrList(List<Invoker<T>> invokers, Invocation invocation) {
-        String key = invokers.get(0).getUrl().getServiceKey() + "." + invocation.getMethodName();
-        Map<String, WeightedRoundRobin> map = methodWeightMap.get(key);
-        if (map != null) {
-            return map.keySet();
+        MethodState state = methodStates.get(getMethodKey(invocation));
+        if (state == null) {
+            return null;
         }
-        return null;
+        RoundRobinSnapshot snapshot = state.byInvokers.get(invokers);
+        if (snapshot == null) {
+            return null;
+        }
+        List<String> addresses = new ArrayList<String>(snapshot.invokers.length);
+        for (Invoker<?> invoker : snapshot.invokers) {
+            addresses.add(invoker.getUrl().toIdentityString());
+        }
+        return addresses;
     }
-    
+
     @Override
+    @SuppressWarnings("unchecked")
     protected <T> Invoker<T> doSelect(List<Invoker<T>> invokers, URL url, Invocation invocation) {
-        String key = invokers.get(0).getUrl().getServiceKey() + "." + invocation.getMethodName();
-        ConcurrentMap<String, WeightedRoundRobin> map = methodWeightMap.get(key);
-        if (map == null) {
-            methodWeightMap.putIfAbsent(key, new ConcurrentHashMap<String, WeightedRoundRobin>());
-            map = methodWeightMap.get(key);
+        String methodKey = getMethodKey(invocation);
+        MethodState state = methodStates.get(methodKey);
+        if (state == null) {
+            methodStates.putIfAbsent(methodKey, new MethodState());
+            state = methodStates.get(methodKey);
         }
-        int totalWeight = 0;
-        long maxCurrent = Long.MIN_VALUE;
-        long now = System.currentTimeMillis();
-        Invoker<T> selectedInvoker = null;
-        WeightedRoundRobin selectedWRR = null;
-        for (Invoker<T> invoker : invokers) {
-            String identifyString = invoker.getUrl().toIdentityString();
-            WeightedRoundRobin weightedRoundRobin = map.get(identifyString);
-            int weight = getWeight(invoker, invocation);
-            if (weight < 0) {
-                weight = 0;
+        RoundRobinSnapshot snapshot = state.byInvokers.get(invokers);
+        for (; ; ) {
+            if (snapshot != null) {
+                Invoker<?> selected = snapshot.select(invokers, invocation);
+                if (selected != null) {
+                    return (Invoker<T>) selected;
+                }
             }
-            if (weightedRoundRobin == null) {
-                weightedRoundRobin = new WeightedRoundRobin();
-                weightedRoundRobin.setWeight(weight);
-                map.putIfAbsent(identifyString, weightedRoundRobin);
-                weightedRoundRobin = map.get(identifyString);
+            // a new list, or one changed in place
+            snapshot = new RoundRobinSnapshot(invokers, invocation, state.byInvoker);
+            state.byInvokers.put(invokers, snapshot);
+        }
+    }
+
+    private static String getMethodKey(Invocation invocation) {
+        String methodName = invocation.getMethodName();
+        return methodName == null ? "" : methodName;
+    }
+
+    /**
+     * The state of one method name: the round robin state of every invoker of its services, and the snapshot of
+     * every invoker list it was selected from, so lists alternating between calls (per method lists, routed subsets,
+     * reselections) each keep theirs.
+     */
+    private static final class MethodState {
+
+        private final WeakIdentityMap<Invoker<?>, WeightedRoundRobin> byInvoker = new WeakIdentityMap<Invoker<?>, WeightedRoundRobin>();
+
+        private final WeakIdentityMap<List<?>, RoundRobinSnapshot> byInvokers = new WeakIdentityMap<List<?>, RoundRobinSnapshot>();
+    }
+
+    /**
+     * The current value of an invoker for one method. It does not refer to the invoker, which keys it weakly.
+     */
+    private static final class WeightedRoundRobin {
+
+        private final AtomicLong current = new AtomicLong();
+
+        private volatile int weight;
+
+        WeightedRoundRobin(int weight) {
+            this.weight = weight;
+        }
+
+        void setWeight(int weight) {
+            if (this.weight != weight) {
+                // the weight changed, start over
+                this.weight = weight;
+                current.set(0);
             }
-            if (weight != weightedRoundRobin.getWeight()) {
-                //weight changed
-                weightedRoundRobin.setWeight(weight);
+        }
+    }
+
+    /**
+     * Immutable view of an invoker list for one method: its invokers and their states by position. The weights come
+     * from {@link #getWeight(Invoker, Invocation)} when the snapshot is built, and on every selection as long as one
+     * of its invokers warms up.
+     */
+    private final class RoundRobinSnapshot {
+
+        private final Invoker<?>[] invokers;
+
+        private final WeightedRoundRobin[] states;
+
+        private volatile int[] weights;
+
+        /**
+         * time after which no invoker of this snapshot is warming up any more
+         */
+        private final long warmupDeadline;
+
+        private volatile boolean warmingUp;
+
+        RoundRobinSnapshot(List<? extends Invoker<?>> invokers, Invocation invocation,
+                           WeakIdentityMap<Invoker<?>, WeightedRoundRobin> byInvoker) {
+            int size = invokers.size();
+            this.invokers = invokers.toArray(new Invoker<?>[size]);
+            this.states = new WeightedRoundRobin[size];
+            this.weights = weights(invocation);
+            long deadline = 0L;
+            for (int i = 0; i < size; i++) {
+                URL url = this.invokers[i].getUrl();
+                long timestamp = url.getParameter(Constants.REMOTE_TIMESTAMP_KEY, 0L);
+                if (timestamp > 0L) {
+                    deadline = Math.max(deadline, timestamp + url.getParameter(Constants.WARMUP_KEY, Constants.DEFAULT_WARMUP));
+                }
+                WeightedRoundRobin state = byInvoker.get(this.invokers[i]);
+                if (state == null) {
+                    state = new WeightedRoundRobin(weights[i]);
+                    WeightedRoundRobin existing = byInvoker.putIfAbsent(this.invokers[i], state);
+                    if (existing != null) {
+                        state = existing;
+                    }
+                }
+                state.setWeight(weights[i]);
+                states[i] = state;
             }
-            long cur = weightedRoundRobin.increaseCurrent();
-            weightedRoundRobin.setLastUpdate(now);
-            if (cur > maxCurrent) {
-                maxCurrent = cur;
-                selectedInvoker = invoker;
-                selectedWRR = weightedRoundRobin;
+            this.warmupDeadline = deadline;
+            this.warmingUp = deadline > System.currentTimeMillis();
+        }
+
+        private int[] weights(Invocation invocation) {
+            int[] weights = new int[invokers.length];
+            for (int i = 0; i < invokers.length; i++) {
+                weights[i] = Math.max(0, getWeight(invokers[i], invocation));
             }
-            totalWeight += weight;
+            return weights;
         }
-        if (!updateLock.get() && invokers.size() != map.size()) {
-            if (updateLock.compareAndSet(false, true)) {
-                try {
-                    // copy -> modify -> update reference
-                    ConcurrentMap<String, WeightedRoundRobin> newMap = new ConcurrentHashMap<String, WeightedRoundRobin>();
-                    newMap.putAll(map);
-                    Iterator<Entry<String, WeightedRoundRobin>> it = newMap.entrySet().iterator();
-                    while (it.hasNext()) {
-                        Entry<String, WeightedRoundRobin> item = it.next();
-                        if (now - item.getValue().getLastUpdate() > RECYCLE_PERIOD) {
-                            it.remove();
-                        }
+
+        /**
+         * @return the selected invoker, or null if the list is not the one of this snapshot any more
+         */
+        Invoker<?> select(List<? extends Invoker<?>> list, Invocation invocation) {
+            if (list.size() != invokers.length) {
+                return null;
+            }
+            int[] weights = this.weights;
+            if (warmingUp) {
+                boolean warmedUp = System.currentTimeMillis() >= warmupDeadline;
+                weights = weights(invocation);
+                if (warmedUp) {
+                    // warmed up, keep the full weights
+                    this.weights = weights;
+                    warmingUp = false;
+                }
+            }
+            long totalWeight = 0;
+            long maxCurrent = Long.MIN_VALUE;
+            int selected = 0;
+            for (int i = 0; i < invokers.length; i++) {
+                int weight = weights[i];
+                if (list.get(i) != invokers[i]) {
+                    // the list was changed in place, take back what this selection added so far
+                    for (int j = 0; j < i; j++) {
+                        states[j].current.addAndGet(-weights[j]);
                     }
-                    methodWeightMap.put(key, newMap);
-                } finally {
-                    updateLock.set(false);
+                    return null;
+                }
+                long cur = states[i].current.addAndGet(weight);
+                if (cur > maxCurrent) {
+                    maxCurrent = cur;
+                    selected = i;
                 }
+                totalWeight += weight;
             }
+            states[selected].current.addAndGet(-totalWeight);
+            return invokers[selected];
         }
-        if (selectedInvoker != null) {
-            selectedWRR.sel(totalWeight);
-            return selectedInvoker;
-        }
-        // should not happen here
-        return invokers.get(0);
     }
 
 }
@@ -21,6 +21,7 @@ import org.apache.dubbo.common.URL;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.cluster.CacheableRouter;
 import org.apache.dubbo.rpc.cluster.Router;
 
 import java.util.ArrayList;
@@ -31,7 +32,7 @@ import java.util.List;
  * If a request is configured to use mock, then this router guarantees that only the invokers with protocol MOCK appear in final the invoker list, all other invokers will be excluded.
  *
  */
-public class MockInvokersSelector implements Router {
+public class MockInvokersSelector implements CacheableRouter {
 
     @Override
     public <T> List<Invoker<T>> route(final List<Invoker<T>> invokers,
@@ -49,6 +50,18 @@ public class MockInvokersSelector implements Router {
         return invokers;
     }
 
+    @Override
+    public Object getRouteKey(URL url, Invocation invocation) {
+        if (invocation.getAttachments() == null) {
+            return null;
+        }
+        String value = invocation.getAttachments().get(Constants.INVOCATION_NEED_MOCK);
+        if (value == null) {
+            return null;
+        }
+        return Boolean.TRUE.toString().equalsIgnoreCase(value) ? Boolean.TRUE : Boolean.FALSE;
+    }
+
     private <T> List<Invoker<T>> getMockedInvokers(final List<Invoker<T>> invokers) {
         if (!hasMockProviders(invokers)) {
             return null;
@@ -26,6 +26,7 @@ import org.apache.dubbo.common.utils.UrlUtils;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.cluster.CacheableRouter;
 import org.apache.dubbo.rpc.cluster.Router;
 
 import java.text.ParseException;
@@ -42,15 +43,19 @@ import java.util.regex.Pattern;
  * ConditionRouter
  *
  */
-public class ConditionRouter implements Router, Comparable<Router> {
+public class ConditionRouter implements CacheableRouter, Comparable<Router> {
 
     private static final Logger logger = LoggerFactory.getLogger(ConditionRouter.class);
     private static Pattern ROUTE_PATTERN = Pattern.compile("([&!=,]*)\\s*([^&!=,\\s]+)");
     private final URL url;
     private final int priority;
     private final boolean force;
-    private final Map<String, MatchPair> whenCondition;
-    private final Map<String, MatchPair> thenCondition;
+    private final Condition whenCondition;
+    private final Condition thenCondition;
+    /**
+     * whether the when condition matches the invoked method, the only input of the invocation it reads
+     */
+    private final boolean methodCondition;
 
     public ConditionRouter(URL url) {
         this.url = url;
@@ -68,8 +73,9 @@ public class ConditionRouter implements Router, Comparable<Router> {
             Map<String, MatchPair> when = StringUtils.isBlank(whenRule) || "true".equals(whenRule) ? new HashMap<String, MatchPair>() : parseRule(whenRule);
             Map<String, MatchPair> then = StringUtils.isBlank(thenRule) || "false".equals(thenRule) ? null : parseRule(thenRule);
             // NOTE: It should be determined on the business level whether the `When condition` can be empty or not.
-            this.whenCondition = when;
-            this.thenCondition = then;
+            this.whenCondition = Condition.compile(when);
+            this.thenCondition = then == null ? null : Condition.compile(then);
+            this.methodCondition = whenCondition.containsKey(Constants.METHOD_KEY) || whenCondition.containsKey(Constants.METHODS_KEY);
         } catch (ParseException e) {
             throw new IllegalStateException(e.getMessage(), e);
         }
@@ -182,6 +188,11 @@ public class ConditionRouter implements Router, Comparable<Router> {
         return url;
     }
 
+    @Override
+    public Object getRouteKey(URL url, Invocation invocation) {
+        return methodCondition ? invocation.getMethodName() : null;
+    }
+
     @Override
     public int compareTo(Router o) {
         if (o == null || o.getClass() != ConditionRouter.class) {
@@ -192,84 +203,221 @@ public class ConditionRouter implements Router, Comparable<Router> {
     }
 
     boolean matchWhen(URL url, Invocation invocation) {
-        return whenCondition == null || whenCondition.isEmpty() || matchCondition(whenCondition, url, null, invocation);
+        return whenCondition == null || whenCondition.isEmpty() || whenCondition.match(url, null, invocation);
     }
 
     private boolean matchThen(URL url, URL param) {
-        return !(thenCondition == null || thenCondition.isEmpty()) && matchCondition(thenCondition, url, param, null);
+        return !(thenCondition == null || thenCondition.isEmpty()) && thenCondition.match(url, param, null);
     }
 
-    private boolean matchCondition(Map<String, MatchPair> condition, URL url, URL param, Invocation invocation) {
-        Map<String, String> sample = url.toMap();
-        boolean result = false;
-        for (Map.Entry<String, MatchPair> matchPair : condition.entrySet()) {
-            String key = matchPair.getKey();
-            String sampleValue;
-            //get real invoked method name from invocation
-            if (invocation != null && (Constants.METHOD_KEY.equals(key) || Constants.METHODS_KEY.equals(key))) {
-                sampleValue = invocation.getMethodName();
-            } else {
-                sampleValue = sample.get(key);
-                if (sampleValue == null) {
-                    sampleValue = sample.get(Constants.DEFAULT_KEY_PREFIX + key);
+    private static final class MatchPair {
+        final Set<String> matches = new HashSet<String>();
+        final Set<String> mismatches = new HashSet<String>();
+    }
+
+    /**
+     * A parsed rule compiled for matching: one {@link KeyMatcher} per key, reading the key straight from the url
+     * instead of converting the url to a map, with its glob patterns split into prefix and suffix once.
+     */
+    private static final class Condition {
+
+        private final KeyMatcher[] matchers;
+
+        private Condition(KeyMatcher[] matchers) {
+            this.matchers = matchers;
+        }
+
+        static Condition compile(Map<String, MatchPair> condition) {
+            List<KeyMatcher> matchers = new ArrayList<KeyMatcher>(condition.size());
+            for (Map.Entry<String, MatchPair> entry : condition.entrySet()) {
+                matchers.add(new KeyMatcher(entry.getKey(), entry.getValue()));
+            }
+            return new Condition(matchers.toArray(new KeyMatcher[0]));
+        }
+
+        boolean isEmpty() {
+            return matchers.length == 0;
+        }
+
+        boolean containsKey(String key) {
+            for (KeyMatcher matcher : matchers) {
+                if (matcher.key.equals(key)) {
+                    return true;
                 }
             }
-            if (sampleValue != null) {
-                if (!matchPair.getValue().isMatch(sampleValue, param)) {
-                    return false;
+            return false;
+        }
+
+        boolean match(URL url, URL param, Invocation invocation) {
+            boolean result = false;
+            for (KeyMatcher matcher : matchers) {
+                String sampleValue;
+                //get real invoked method name from invocation
+                if (invocation != null && matcher.method) {
+                    sampleValue = invocation.getMethodName();
                 } else {
-                    result = true;
+                    sampleValue = matcher.getValue(url);
                 }
-            } else {
-                //not pass the condition
-                if (!matchPair.getValue().matches.isEmpty()) {
-                    return false;
+                if (sampleValue != null) {
+                    if (!matcher.isMatch(sampleValue, param)) {
+                        return false;
+                    }
+                    result = true;
                 } else {
+                    //not pass the condition
+                    if (matcher.matches.length > 0) {
+                        return false;
+                    }
                     result = true;
                 }
             }
+            return result;
         }
-        return result;
     }
 
-    private static final class MatchPair {
-        final Set<String> matches = new HashSet<String>();
-        final Set<String> mismatches = new HashSet<String>();
+    private static final class KeyMatcher {
 
-        private boolean isMatch(String value, URL param) {
-            if (!matches.isEmpty() && mismatches.isEmpty()) {
-                for (String match : matches) {
-                    if (UrlUtils.isMatchGlobPattern(match, value, param)) {
-                        return true;
-                    }
-                }
-                return false;
+        private static final int PARAMETER = 0, PROTOCOL = 1, USERNAME = 2, PASSWORD = 3, HOST = 4, PORT = 5, PATH = 6;
+
+        private final String key;
+
+        private final String defaultKey;
+
+        private final int source;
+
+        private final boolean method;
+
+        private final GlobPattern[] matches;
+
+        private final GlobPattern[] mismatches;
+
+        KeyMatcher(String key, MatchPair pair) {
+            this.key = key;
+            this.defaultKey = Constants.DEFAULT_KEY_PREFIX + key;
+            this.method = Constants.METHOD_KEY.equals(key) || Constants.METHODS_KEY.equals(key);
+            if ("protocol".equals(key)) {
+                this.source = PROTOCOL;
+            } else if ("username".equals(key)) {
+                this.source = USERNAME;
+            } else if ("password".equals(key)) {
+                this.source = PASSWORD;
+            } else if ("host".equals(key)) {
+                this.source = HOST;
+            } else if ("port".equals(key)) {
+                this.source = PORT;
+            } else if ("path".equals(key)) {
+                this.source = PATH;
+            } else {
+                this.source = PARAMETER;
             }
+            this.matches = GlobPattern.compile(pair.matches);
+            this.mismatches = GlobPattern.compile(pair.mismatches);
+        }
 
-            if (!mismatches.isEmpty() && matches.isEmpty()) {
-                for (String mismatch : mismatches) {
-                    if (UrlUtils.isMatchGlobPattern(mismatch, value, param)) {
-                        return false;
-                    }
-                }
-                return true;
+        /**
+         * same as looking the key and then the default key up in {@link URL#toMap()}
+         */
+        String getValue(URL url) {
+            String value = null;
+            switch (source) {
+                case PROTOCOL:
+                    value = url.getProtocol();
+                    break;
+                case USERNAME:
+                    value = url.getUsername();
+                    break;
+                case PASSWORD:
+                    value = url.getPassword();
+                    break;
+                case HOST:
+                    value = url.getHost();
+                    break;
+                case PORT:
+                    value = url.getPort() > 0 ? String.valueOf(url.getPort()) : null;
+                    break;
+                case PATH:
+                    value = url.getPath();
+                    break;
+                default:
+                    break;
             }
+            if (value != null) {
+                return value;
+            }
+            Map<String, String> parameters = url.getParameters();
+            value = parameters.get(key);
+            return value != null ? value : parameters.get(defaultKey);
+        }
 
-            if (!matches.isEmpty() && !mismatches.isEmpty()) {
-                //when both mismatches and matches contain the same value, then using mismatches first
-                for (String mismatch : mismatches) {
-                    if (UrlUtils.isMatchGlobPattern(mismatch, value, param)) {
-                        return false;
-                    }
+        boolean isMatch(String value, URL param) {
+            //when both mismatches and matches contain the same value, then using mismatches first
+            for (GlobPattern mismatch : mismatches) {
+                if (mismatch.isMatch(value, param)) {
+                    return false;
                 }
-                for (String match : matches) {
-                    if (UrlUtils.isMatchGlobPattern(match, value, param)) {
-                        return true;
-                    }
+            }
+            if (matches.length == 0) {
+                return mismatches.length > 0;
+            }
+            for (GlobPattern match : matches) {
+                if (match.isMatch(value, param)) {
+                    return true;
                 }
-                return false;
             }
             return false;
         }
     }
+
+    /**
+     * A glob pattern of {@link UrlUtils#isMatchGlobPattern(String, String, URL)} with its prefix and suffix cut out.
+     */
+    private static final class GlobPattern {
+
+        private final String pattern;
+
+        /**
+         * name of the refer url parameter holding the pattern, for patterns starting with '$'
+         */
+        private final String reference;
+
+        private final boolean any;
+
+        private final String prefix;
+
+        private final String suffix;
+
+        GlobPattern(String pattern) {
+            this.pattern = pattern;
+            this.reference = pattern.startsWith("$") ? pattern.substring(1) : null;
+            this.any = "*".equals(pattern);
+            int i = pattern.lastIndexOf('*');
+            this.prefix = i < 0 ? null : pattern.substring(0, i);
+            this.suffix = i < 0 ? null : pattern.substring(i + 1);
+        }
+
+        static GlobPattern[] compile(Set<String> patterns) {
+            GlobPattern[] compiled = new GlobPattern[patterns.size()];
+            int i = 0;
+            for (String pattern : patterns) {
+                compiled[i++] = new GlobPattern(pattern);
+            }
+            return compiled;
+        }
+
+        boolean isMatch(String value, URL param) {
+            if (param != null && reference != null) {
+                return UrlUtils.isMatchGlobPattern(param.getRawParameter(reference), value);
+            }
+            if (any) {
+                return true;
+            }
+            if (value == null || value.length() == 0) {
+                return false;
+            }
+            if (prefix == null) {
+                return value.equals(pattern);
+            }
+            return value.startsWith(prefix) && value.endsWith(suffix);
+        }
+    }
 }
@@ -22,24 +22,33 @@ import org.apache.dubbo.common.URL;
 import org.apache.dubbo.common.logger.Logger;
 import org.apache.dubbo.common.logger.LoggerFactory;
 import org.apache.dubbo.common.utils.StringUtils;
+import org.apache.dubbo.common.utils.WeakIdentityMap;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.RpcContext;
 import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.cluster.CacheableRouter;
 import org.apache.dubbo.rpc.cluster.Router;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * TagRouter
  */
-public class TagRouter implements Router, Comparable<Router> {
+public class TagRouter implements CacheableRouter, Comparable<Router> {
 
     private static final Logger logger = LoggerFactory.getLogger(TagRouter.class);
 
     private final int priority;
     private final URL url;
+    /**
+     * routed invoker list -> its index, the lists stay the same until the directory refreshes
+     */
+    private final WeakIdentityMap<List<?>, TagIndex<?>> indexes = new WeakIdentityMap<List<?>, TagIndex<?>>();
 
     public static final URL ROUTER_URL = new URL("tag", Constants.ANYHOST_VALUE, 0, Constants.ANY_VALUE).addParameters(Constants.RUNTIME_KEY, "true");
 
@@ -60,37 +69,20 @@ public class TagRouter implements Router, Comparable<Router> {
 
     @Override
     public <T> List<Invoker<T>> route(List<Invoker<T>> invokers, URL url, Invocation invocation) throws RpcException {
-        // filter
-        List<Invoker<T>> result = new ArrayList<>();
         try {
             // Dynamic param
             String tag = RpcContext.getContext().getAttachment(Constants.REQUEST_TAG_KEY);
+            TagIndex<T> localIndex = getIndex(invokers);
             // Tag request
             if (!StringUtils.isEmpty(tag)) {
-                // Select tag invokers first
-                for (Invoker<T> invoker : invokers) {
-                    if (tag.equals(invoker.getUrl().getParameter(Constants.TAG_KEY))) {
-                        result.add(invoker);
-                    }
-                }
+                List<Invoker<T>> result = localIndex.taggedInvokers.get(tag);
                 // If no invoker be selected, downgrade to normal invokers
-                if (result.isEmpty()) {
-                    for (Invoker<T> invoker : invokers) {
-                        if (StringUtils.isEmpty(invoker.getUrl().getParameter(Constants.TAG_KEY))) {
-                            result.add(invoker);
-                        }
-                    }
-                }
+                return result != null ? result : localIndex.normalInvokers;
             // Normal request
             } else {
-                for (Invoker<T> invoker : invokers) {
-                    // Can't access tag invoker,only normal invoker should be selected
-                    if (StringUtils.isEmpty(invoker.getUrl().getParameter(Constants.TAG_KEY))) {
-                        result.add(invoker);
-                    }
-                }
+                // Can't access tag invoker,only normal invoker should be selected
+                return localIndex.normalInvokers;
             }
-            return result;
         } catch (Exception e) {
             logger.error("Route by tag error,return all invokers.", e);
         }
@@ -98,6 +90,21 @@ public class TagRouter implements Router, Comparable<Router> {
         return invokers;
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> TagIndex<T> getIndex(List<Invoker<T>> invokers) {
+        TagIndex<?> localIndex = indexes.get(invokers);
+        if (localIndex == null || !localIndex.isIndexOf(invokers)) {
+            localIndex = new TagIndex<T>(invokers);
+            indexes.put(invokers, localIndex);
+        }
+        return (TagIndex<T>) localIndex;
+    }
+
+    @Override
+    public Object getRouteKey(URL url, Invocation invocation) {
+        return RpcContext.getContext().getAttachment(Constants.REQUEST_TAG_KEY);
+    }
+
     @Override
     public int compareTo(Router o) {
         if (o == null || o.getClass() != TagRouter.class) {
@@ -106,4 +113,53 @@ public class TagRouter implements Router, Comparable<Router> {
         TagRouter c = (TagRouter) o;
         return this.priority == c.priority ? url.toFullString().compareTo(c.url.toFullString()) : (this.priority > c.priority ? 1 : -1);
     }
+
+    /**
+     * The invokers of each tag and the untagged invokers, grouped once per invoker list so that routing a request is
+     * a lookup. The groups are unmodifiable and shared by all requests. It does not refer to the indexed list, which
+     * keys it weakly, but to a copy of its elements.
+     */
+    private static final class TagIndex<T> {
+
+        private final Invoker<?>[] invokers;
+
+        private final Map<String, List<Invoker<T>>> taggedInvokers = new HashMap<>();
+
+        private final List<Invoker<T>> normalInvokers;
+
+        TagIndex(List<Invoker<T>> invokers) {
+            this.invokers = invokers.toArray(new Invoker<?>[0]);
+            List<Invoker<T>> normal = new ArrayList<>();
+            for (Invoker<T> invoker : invokers) {
+                String tag = invoker.getUrl().getParameter(Constants.TAG_KEY);
+                if (StringUtils.isEmpty(tag)) {
+                    normal.add(invoker);
+                } else {
+                    List<Invoker<T>> tagged = taggedInvokers.get(tag);
+                    if (tagged == null) {
+                        tagged = new ArrayList<>();
+                        taggedInvokers.put(tag, tagged);
+                    }
+                    tagged.add(invoker);
+                }
+            }
+            for (Map.Entry<String, List<Invoker<T>>> entry : taggedInvokers.entrySet()) {
+                entry.setValue(Collections.unmodifiableList(entry.getValue()));
+            }
+            this.normalInvokers = Collections.unmodifiableList(normal);
+        }
+
+        boolean isIndexOf(List<? extends Invoker<?>> list) {
+            // a list may also have been changed in place
+            if (list.size() != invokers.length) {
+                return false;
+            }
+            for (int i = 0; i < invokers.length; i++) {
+                if (list.get(i) != invokers[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
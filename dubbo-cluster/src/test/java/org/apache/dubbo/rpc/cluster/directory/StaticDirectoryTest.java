@@ -19,8 +19,11 @@ package org.apache.dubbo.rpc.cluster.directory;
 import org.apache.dubbo.common.Constants;
 import org.apache.dubbo.common.URL;
 import org.apache.dubbo.common.utils.NetUtils;
+import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.RpcException;
 import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.cluster.CacheableRouter;
 import org.apache.dubbo.rpc.cluster.Router;
 import org.apache.dubbo.rpc.cluster.router.MockInvoker;
 import org.apache.dubbo.rpc.cluster.router.condition.ConditionRouterFactory;
@@ -30,6 +33,7 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * StaticDirectory Test
@@ -62,4 +66,89 @@ public class StaticDirectoryTest {
         staticDirectory.destroy();
         Assert.assertTrue(newInvokers.size() == 0);
     }
+
+    @Test
+    public void testCachedRouteResult() {
+        MethodRouter methodRouter = new MethodRouter(0);
+        CountingRouter dynamicRouter = new CountingRouter(0);
+        List<Router> routers = new ArrayList<Router>();
+        routers.add(methodRouter);
+        routers.add(dynamicRouter);
+        List<Invoker<String>> invokers = new ArrayList<Invoker<String>>();
+        invokers.add(new MockInvoker<String>(URL.valueOf("dubbo://10.20.3.3:20880/com.foo.BarService")));
+        invokers.add(new MockInvoker<String>(URL.valueOf("dubbo://10.20.3.4:20880/com.foo.BarService")));
+        StaticDirectory<String> staticDirectory = new StaticDirectory<String>(invokers, routers);
+
+        List<Invoker<String>> first = staticDirectory.list(new RpcInvocation("sayHello", new Class<?>[0], new Object[0]));
+        List<Invoker<String>> second = staticDirectory.list(new RpcInvocation("sayHello", new Class<?>[0], new Object[0]));
+        Assert.assertEquals(1, first.size());
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, methodRouter.count.get());
+        Assert.assertEquals(2, dynamicRouter.count.get());
+
+        staticDirectory.list(new RpcInvocation("sayBye", new Class<?>[0], new Object[0]));
+        Assert.assertEquals(2, methodRouter.count.get());
+        Assert.assertEquals(3, dynamicRouter.count.get());
+    }
+
+    @Test
+    public void testRoutersAfterDynamicRouterNotCached() {
+        CountingRouter dynamicRouter = new CountingRouter(0);
+        MethodRouter methodRouter = new MethodRouter(1);
+        List<Router> routers = new ArrayList<Router>();
+        routers.add(dynamicRouter);
+        routers.add(methodRouter);
+        List<Invoker<String>> invokers = new ArrayList<Invoker<String>>();
+        invokers.add(new MockInvoker<String>(URL.valueOf("dubbo://10.20.3.3:20880/com.foo.BarService")));
+        StaticDirectory<String> staticDirectory = new StaticDirectory<String>(invokers, routers);
+
+        staticDirectory.list(new RpcInvocation("sayHello", new Class<?>[0], new Object[0]));
+        staticDirectory.list(new RpcInvocation("sayHello", new Class<?>[0], new Object[0]));
+        Assert.assertEquals(2, methodRouter.count.get());
+    }
+
+    private static class CountingRouter implements Router {
+
+        final AtomicInteger count = new AtomicInteger();
+
+        private final int priority;
+
+        CountingRouter(int priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public URL getUrl() {
+            return null;
+        }
+
+        @Override
+        public <T> List<Invoker<T>> route(List<Invoker<T>> invokers, URL url, Invocation invocation) throws RpcException {
+            count.incrementAndGet();
+            return invokers;
+        }
+
+        @Override
+        public int compareTo(Router o) {
+            return o instanceof CountingRouter ? priority - ((CountingRouter) o).priority : -1;
+        }
+    }
+
+    private static class MethodRouter extends CountingRouter implements CacheableRouter {
+
+        MethodRouter(int priority) {
+            super(priority);
+        }
+
+        @Override
+        public <T> List<Invoker<T>> route(List<Invoker<T>> invokers, URL url, Invocation invocation) throws RpcException {
+            count.incrementAndGet();
+            return new ArrayList<Invoker<T>>(invokers.subList(0, 1));
+        }
+
+        @Override
+        public Object getRouteKey(URL url, Invocation invocation) {
+            return invocation.getMethodName();
+        }
+    }
 }
@@ -16,12 +16,18 @@
  */
 package org.apache.dubbo.rpc.cluster.loadbalance;
 
+import org.apache.dubbo.common.URL;
 import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.cluster.router.MockInvoker;
 
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -37,4 +43,79 @@ public class ConsistentHashLoadBalanceTest extends LoadBalanceBaseTest {
         }
     }
 
+    @Test
+    public void testIncrementalRingSelectsLikeFullRing() {
+        for (String hashFunction : new String[]{"md5", "murmur3"}) {
+            List<Invoker<ConsistentHashLoadBalanceTest>> before = createInvokers(0, 500, hashFunction);
+            List<Invoker<ConsistentHashLoadBalanceTest>> after = new ArrayList<Invoker<ConsistentHashLoadBalanceTest>>(before.subList(5, 500));
+            after.addAll(createInvokers(500, 505, hashFunction));
+
+            ConsistentHashLoadBalance incremental = new ConsistentHashLoadBalance();
+            incremental.select(before, before.get(0).getUrl(), invocation("warmup"));
+            ConsistentHashLoadBalance full = new ConsistentHashLoadBalance();
+            for (int i = 0; i < 2000; i++) {
+                RpcInvocation invocation = invocation("key" + i);
+                Assert.assertSame(full.select(after, after.get(0).getUrl(), invocation),
+                        incremental.select(after, after.get(0).getUrl(), invocation));
+            }
+        }
+    }
+
+    @Test
+    public void testMurmur3Distribution() {
+        List<Invoker<ConsistentHashLoadBalanceTest>> invokers = createInvokers(0, 10, "murmur3");
+        ConsistentHashLoadBalance lb = new ConsistentHashLoadBalance();
+        Map<Invoker<?>, Integer> counts = new HashMap<Invoker<?>, Integer>();
+        for (int i = 0; i < 10000; i++) {
+            RpcInvocation invocation = invocation("key" + i);
+            Invoker<?> selected = lb.select(invokers, invokers.get(0).getUrl(), invocation);
+            Assert.assertSame(selected, lb.select(invokers, invokers.get(0).getUrl(), invocation));
+            Integer count = counts.get(selected);
+            counts.put(selected, count == null ? 1 : count + 1);
+        }
+        Assert.assertEquals(10, counts.size());
+        for (Integer count : counts.values()) {
+            Assert.assertTrue("abs diff should < avg / 2", Math.abs(count - 1000) < 500);
+        }
+    }
+
+    @Test
+    public void testDuplicateAddressesSelectTheLastInvoker() {
+        for (String hashFunction : new String[]{"md5", "murmur3"}) {
+            List<Invoker<ConsistentHashLoadBalanceTest>> before = createInvokers(0, 10, hashFunction);
+            Invoker<ConsistentHashLoadBalanceTest> duplicate = createInvokers(3, 4, hashFunction).get(0);
+            List<Invoker<ConsistentHashLoadBalanceTest>> after = new ArrayList<Invoker<ConsistentHashLoadBalanceTest>>(before);
+            after.add(duplicate);
+
+            ConsistentHashLoadBalance incremental = new ConsistentHashLoadBalance();
+            incremental.select(before, before.get(0).getUrl(), invocation("warmup"));
+            ConsistentHashLoadBalance full = new ConsistentHashLoadBalance();
+            for (int i = 0; i < 2000; i++) {
+                RpcInvocation invocation = invocation("key" + i);
+                Invoker<?> selected = full.select(after, after.get(0).getUrl(), invocation);
+                Assert.assertNotSame(before.get(3), selected);
+                Assert.assertSame(selected, incremental.select(after, after.get(0).getUrl(), invocation));
+            }
+            // and back to a single invoker of that address
+            for (int i = 0; i < 2000; i++) {
+                RpcInvocation invocation = invocation("key" + i);
+                Assert.assertSame(full.select(before, before.get(0).getUrl(), invocation),
+                        incremental.select(before, before.get(0).getUrl(), invocation));
+            }
+        }
+    }
+
+    private static List<Invoker<ConsistentHashLoadBalanceTest>> createInvokers(int from, int to, String hashFunction) {
+        List<Invoker<ConsistentHashLoadBalanceTest>> invokers = new ArrayList<Invoker<ConsistentHashLoadBalanceTest>>();
+        for (int i = from; i < to; i++) {
+            invokers.add(new MockInvoker<ConsistentHashLoadBalanceTest>(URL.valueOf("test://10.0." + (i / 250) + "." + (i % 250)
+                    + ":20880/DemoService?" + ConsistentHashLoadBalance.HASH_FUNCTION + "=" + hashFunction)));
+        }
+        return invokers;
+    }
+
+    private static RpcInvocation invocation(String key) {
+        return new RpcInvocation("method1", new Class<?>[]{String.class}, new Object[]{key});
+    }
+
 }
@@ -16,12 +16,15 @@
  */
 package org.apache.dubbo.rpc.cluster.loadbalance;
 
+import org.apache.dubbo.common.URL;
 import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.cluster.router.MockInvoker;
 import org.junit.Assert;
 import org.junit.Test;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -98,71 +101,83 @@ public class RoundRobinLoadBalanceTest extends LoadBalanceBaseTest {
     }
     
     @Test
-    public void testNodeCacheShouldNotRecycle() {
+    public void testNodeCacheFollowsInvokers() {
         int loop = 10000;
         //tmperately add a new invoker
         weightInvokers.add(weightInvokerTmp);
         try {
             Map<Invoker, InvokeResult> resultMap = getWeightedInvokeResult(loop, RoundRobinLoadBalance.NAME);
             assertStrictWRRResult(loop, resultMap);
-            
+
             // inner nodes cache judgement
             RoundRobinLoadBalance lb = (RoundRobinLoadBalance)getLoadBalance(RoundRobinLoadBalance.NAME);
             Assert.assertEquals(weightInvokers.size(), lb.getInvokerAddrList(weightInvokers, weightTestInvocation).size());
-            
+
             weightInvokers.remove(weightInvokerTmp);
-            
+
             resultMap = getWeightedInvokeResult(loop, RoundRobinLoadBalance.NAME);
             assertStrictWRRResult(loop, resultMap);
-            
-            Assert.assertNotEquals(weightInvokers.size(), lb.getInvokerAddrList(weightInvokers, weightTestInvocation).size());
+
+            // the snapshot is rebuilt as soon as the invoker list changes
+            Assert.assertEquals(weightInvokers.size(), lb.getInvokerAddrList(weightInvokers, weightTestInvocation).size());
         } finally {
             //prevent other UT's failure
             weightInvokers.remove(weightInvokerTmp);
         }
     }
-    
+
     @Test
-    public void testNodeCacheShouldRecycle() {
-        {
-            Field recycleTimeField = null;
-            try {
-                //change recycle time to 1 ms
-                recycleTimeField = RoundRobinLoadBalance.class.getDeclaredField("RECYCLE_PERIOD");
-                recycleTimeField.setAccessible(true);
-                recycleTimeField.setInt(RoundRobinLoadBalance.class, 10);
-            } catch (NoSuchFieldException e) {
-                Assert.assertTrue("getField failed", true);
-            } catch (SecurityException e) {
-                Assert.assertTrue("getField failed", true);
-            } catch (IllegalArgumentException e) {
-                Assert.assertTrue("getField failed", true);
-            } catch (IllegalAccessException e) {
-                Assert.assertTrue("getField failed", true);
+    public void testAlternatingInvokerLists() {
+        RoundRobinLoadBalance lb = new RoundRobinLoadBalance();
+        RpcInvocation invocation = new RpcInvocation("method1", new Class<?>[0], new Object[0]);
+        List<Invoker<RoundRobinLoadBalanceTest>> all = new ArrayList<Invoker<RoundRobinLoadBalanceTest>>();
+        for (int i = 0; i < 4; i++) {
+            all.add(new MockInvoker<RoundRobinLoadBalanceTest>(URL.valueOf("test://127.0.0." + i + ":20880/DemoService")));
+        }
+        List<Invoker<RoundRobinLoadBalanceTest>> first = new ArrayList<Invoker<RoundRobinLoadBalanceTest>>(all.subList(0, 2));
+        List<Invoker<RoundRobinLoadBalanceTest>> second = new ArrayList<Invoker<RoundRobinLoadBalanceTest>>(all.subList(2, 4));
+        Map<Invoker<?>, Integer> counts = new HashMap<Invoker<?>, Integer>();
+        for (int i = 0; i < 100; i++) {
+            for (List<Invoker<RoundRobinLoadBalanceTest>> invokers : Arrays.asList(first, second)) {
+                Invoker<?> selected = lb.select(invokers, invokers.get(0).getUrl(), invocation);
+                Assert.assertTrue(invokers.contains(selected));
+                Integer count = counts.get(selected);
+                counts.put(selected, count == null ? 1 : count + 1);
             }
         }
-        
-        int loop = 10000;
-        //tmperately add a new invoker
-        weightInvokers.add(weightInvokerTmp);
-        try {
-            Map<Invoker, InvokeResult> resultMap = getWeightedInvokeResult(loop, RoundRobinLoadBalance.NAME);
-            assertStrictWRRResult(loop, resultMap);
-            
-            // inner nodes cache judgement
-            RoundRobinLoadBalance lb = (RoundRobinLoadBalance)getLoadBalance(RoundRobinLoadBalance.NAME);
-            Assert.assertEquals(weightInvokers.size(), lb.getInvokerAddrList(weightInvokers, weightTestInvocation).size());
-            
-            weightInvokers.remove(weightInvokerTmp);
-            
-            resultMap = getWeightedInvokeResult(loop, RoundRobinLoadBalance.NAME);
-            assertStrictWRRResult(loop, resultMap);
-            
-            Assert.assertEquals(weightInvokers.size(), lb.getInvokerAddrList(weightInvokers, weightTestInvocation).size());
-        } finally {
-            //prevent other UT's failure
-            weightInvokers.remove(weightInvokerTmp);
+        // each list keeps its own round, so alternating them still spreads the calls evenly
+        for (Invoker<RoundRobinLoadBalanceTest> invoker : all) {
+            Assert.assertEquals(Integer.valueOf(50), counts.get(invoker));
         }
     }
-    
+
+    @Test
+    public void testNewListsKeepTheRound() {
+        RoundRobinLoadBalance lb = new RoundRobinLoadBalance();
+        RpcInvocation invocation = new RpcInvocation("method1", new Class<?>[0], new Object[0]);
+        List<Invoker<RoundRobinLoadBalanceTest>> all = new ArrayList<Invoker<RoundRobinLoadBalanceTest>>();
+        for (int i = 0; i < 4; i++) {
+            all.add(new MockInvoker<RoundRobinLoadBalanceTest>(URL.valueOf("test://127.0.0." + i + ":20880/DemoService")));
+        }
+        Map<Invoker<?>, Integer> counts = new HashMap<Invoker<?>, Integer>();
+        for (int i = 0; i < 100; i++) {
+            // every call comes with another list of the same invokers, as after each refresh of a directory
+            List<Invoker<RoundRobinLoadBalanceTest>> invokers = new ArrayList<Invoker<RoundRobinLoadBalanceTest>>(all);
+            Invoker<?> selected = lb.select(invokers, invokers.get(0).getUrl(), invocation);
+            Integer count = counts.get(selected);
+            counts.put(selected, count == null ? 1 : count + 1);
+        }
+        for (Invoker<RoundRobinLoadBalanceTest> invoker : all) {
+            Assert.assertEquals(Integer.valueOf(25), counts.get(invoker));
+        }
+    }
+
+    @Test
+    public void testSelectWithoutMethodName() {
+        RoundRobinLoadBalance lb = new RoundRobinLoadBalance();
+        RpcInvocation invocation = new RpcInvocation();
+        Invoker<?> selected = lb.select(invokers, invokers.get(0).getUrl(), invocation);
+        Assert.assertTrue(invokers.contains(selected));
+    }
+
 }
@@ -305,4 +305,45 @@ public class ConditionRouterTest {
         Assert.assertEquals(0, filteredInvokers.size());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testRoute_UrlFieldsAndDefaultKey() {
+        Router router = new ConditionRouterFactory().getRouter(getRouteUrl("=> protocol = dubbo & port = 20880 & timeout = 1000"));
+        List<Invoker<String>> invokers = new ArrayList<Invoker<String>>();
+        Invoker<String> invoker1 = new MockInvoker<String>(URL.valueOf("dubbo://10.20.3.3:20880/com.foo.BarService?default.timeout=1000"));
+        Invoker<String> invoker2 = new MockInvoker<String>(URL.valueOf("dubbo://10.20.3.4:20881/com.foo.BarService?timeout=1000"));
+        Invoker<String> invoker3 = new MockInvoker<String>(URL.valueOf("rmi://10.20.3.5:20880/com.foo.BarService?timeout=1000"));
+        invokers.add(invoker1);
+        invokers.add(invoker2);
+        invokers.add(invoker3);
+        List<Invoker<String>> filteredInvokers = router.route(invokers, URL.valueOf("consumer://" + NetUtils.getLocalHost() + "/com.foo.BarService"), new RpcInvocation());
+        Assert.assertEquals(1, filteredInvokers.size());
+        Assert.assertEquals(invoker1, filteredInvokers.get(0));
+    }
+
+    @Test
+    public void testRoute_ManyClausesManyInvokers() {
+        StringBuilder rule = new StringBuilder("method = getFoo => host = 10.20.* & port = 20880 & protocol = dubbo");
+        for (int i = 3; i < 20; i++) {
+            rule.append(" & k").append(i).append(" = v").append(i).append("*");
+        }
+        Router router = new ConditionRouterFactory().getRouter(getRouteUrl(rule.toString()));
+        List<Invoker<String>> invokers = new ArrayList<Invoker<String>>();
+        for (int i = 0; i < 1000; i++) {
+            StringBuilder url = new StringBuilder("dubbo://10.20." + (i / 250) + "." + (i % 250) + ":20880/com.foo.BarService?application=foo");
+            for (int k = 3; k < 20; k++) {
+                url.append("&k").append(k).append("=").append(k == 19 && i % 2 == 1 ? "x" : "v" + k + "." + i);
+            }
+            invokers.add(new MockInvoker<String>(URL.valueOf(url.toString())));
+        }
+        URL consumer = URL.valueOf("consumer://" + NetUtils.getLocalHost() + "/com.foo.BarService");
+        Invocation invocation = new RpcInvocation("getFoo", new Class<?>[0], new Object[0]);
+        List<Invoker<String>> filteredInvokers = router.route(invokers, consumer, invocation);
+        Assert.assertEquals(500, filteredInvokers.size());
+        for (int i = 0; i < filteredInvokers.size(); i++) {
+            Assert.assertSame(invokers.get(i * 2), filteredInvokers.get(i));
+        }
+        // the when condition does not match other methods
+        Assert.assertEquals(1000, router.route(invokers, consumer, new RpcInvocation("getBar", new Class<?>[0], new Object[0])).size());
+    }
+
+}
@@ -157,6 +157,45 @@ public class TagRouterTest {
         Assert.assertEquals(0, filteredInvokers.size());
     }
 
+    @Test
+    public void testRoute_indexFollowsInvokers() {
+        List<Invoker<String>> invokers = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            invokers.add(new MockInvoker<>(URL.valueOf(
+                    "dubbo://10.20.3." + (i % 250) + ":" + (20880 + i / 250) + "/com.foo.BarService" + (i % 3 == 0 ? "?tag=gray" : ""))));
+        }
+        URL consumer = URL.valueOf("consumer://" + NetUtils.getLocalHost() + "/com.foo.BarService");
+        Router tagRouter = new TagRouterFactory().getRouter(tagUrl);
+
+        RpcContext.getContext().setAttachment(Constants.REQUEST_TAG_KEY, "gray");
+        List<Invoker<String>> grayInvokers = tagRouter.route(invokers, consumer, new RpcInvocation());
+        Assert.assertEquals(100, grayInvokers.size());
+        // routing the same list again shares the result
+        Assert.assertSame(grayInvokers, tagRouter.route(invokers, consumer, new RpcInvocation()));
+        try {
+            grayInvokers.clear();
+            Assert.fail();
+        } catch (UnsupportedOperationException expected) {
+            // the result is shared
+        }
+
+        RpcContext.getContext().setAttachment(Constants.REQUEST_TAG_KEY, "");
+        Assert.assertEquals(200, tagRouter.route(invokers, consumer, new RpcInvocation()).size());
+
+        // lists alternating between calls each keep their index
+        List<Invoker<String>> other = new ArrayList<>(invokers.subList(0, 150));
+        RpcContext.getContext().setAttachment(Constants.REQUEST_TAG_KEY, "gray");
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(50, tagRouter.route(other, consumer, new RpcInvocation()).size());
+            Assert.assertEquals(100, tagRouter.route(invokers, consumer, new RpcInvocation()).size());
+        }
+
+        // the list changed in place, keeping its size
+        invokers.set(0, new MockInvoker<String>(URL.valueOf("dubbo://10.20.3.0:20881/com.foo.BarService")));
+        Assert.assertEquals(99, tagRouter.route(invokers, consumer, new RpcInvocation()).size());
+        RpcContext.getContext().removeAttachment(Constants.REQUEST_TAG_KEY);
+    }
+
     @Test
     public void testRoute_createBySpi() {
         URL zkProvider = URL.valueOf("zookeeper://10.20.3.1:20880/com.foo.BarService?router=tag");
@@ -56,6 +56,16 @@ public class Constants {
 
     public static final String CACHE_KEY = "cache";
 
+    /**
+     * Name of the cache key generator extension of a cached method, "hash" by default
+     */
+    public static final String CACHE_KEY_GENERATOR_KEY = "cache.key.generator";
+
+    /**
+     * Comma separated indexes of the arguments the cache key of a method is built of, all of them by default
+     */
+    public static final String CACHE_KEY_ARGUMENTS_KEY = "cache.key.arguments";
+
     public static final String DYNAMIC_KEY = "dynamic";
 
     public static final String DUBBO_PROPERTIES_KEY = "dubbo.properties.file";
@@ -218,6 +228,14 @@ public class Constants {
 
     public static final String QUEUES_KEY = "queues";
 
+    /**
+     * Size of the dedicated thread pool a provider runs the requests of a service in, or of a method as
+     * &lt;method&gt;.isolated.threads, instead of the shared pool of the server
+     */
+    public static final String ISOLATED_THREADS_KEY = "isolated.threads";
+
+    public static final String ISOLATED_QUEUES_KEY = "isolated.queues";
+
     public static final String ALIVE_KEY = "alive";
 
     public static final String EXECUTES_KEY = "executes";
@@ -280,6 +298,12 @@ public class Constants {
 
     public static final String ASYNC_KEY = "async";
 
+    /**
+     * Whether a synchronous call waits for its response in threadless mode: the calling thread decodes and delivers
+     * the response itself, instead of a thread of the consumer pool handing it over
+     */
+    public static final String THREADLESS_KEY = "threadless";
+
     public static final String FUTURE_GENERATED_KEY = "future_generated";
     public static final String FUTURE_RETURNTYPE_KEY = "future_returntype";
 
@@ -380,6 +404,11 @@ public class Constants {
 
     public static final int DEFAULT_CONNECT_QUEUE_WARNING_SIZE = 1000;
 
+    /**
+     * Number of serial queues the channels of the ordered dispatcher are spread over, the threads of the pool by default
+     */
+    public static final String DISPATCHER_QUEUES_KEY = "dispatcher.queues";
+
     public static final String CHANNEL_ATTRIBUTE_READONLY_KEY = "channel.readonly";
 
     public static final String CHANNEL_READONLYEVENT_SENT_KEY = "channel.readonly.sent";
@@ -464,6 +493,15 @@ public class Constants {
      */
     public static final String REGISTRY_FILESAVE_SYNC_KEY = "save.file";
 
+    /**
+     * Format of the registry cache file, "properties" or "binary", files of either format are loaded whatever it is
+     */
+    public static final String REGISTRY_FILE_FORMAT_KEY = "file.format";
+
+    public static final String REGISTRY_FILE_FORMAT_PROPERTIES = "properties";
+
+    public static final String REGISTRY_FILE_FORMAT_BINARY = "binary";
+
     /**
      * Period of registry center's retry interval
      */
@@ -481,10 +519,29 @@ public class Constants {
 
     public static final int DEFAULT_REGISTRY_RECONNECT_PERIOD = 3 * 1000;
 
+    /**
+     * Window in milliseconds within which the notifications of a subscription are merged into one,
+     * the default value 0 notifies every change right away
+     */
+    public static final String REGISTRY_NOTIFY_DELAY_KEY = "notify.delay";
+
+    /**
+     * Longest time in milliseconds a notification may be delayed by merging, however often the subscription changes
+     */
+    public static final String REGISTRY_NOTIFY_MAX_DELAY_KEY = "notify.max.delay";
+
+    public static final int DEFAULT_REGISTRY_NOTIFY_MAX_DELAY = 3 * 1000;
+
     public static final String SESSION_TIMEOUT_KEY = "session";
 
     public static final int DEFAULT_SESSION_TIMEOUT = 60 * 1000;
 
+    /**
+     * To decide whether the registry directory of a reference refreshes only the changed provider urls,
+     * the default value is false
+     */
+    public static final String INCREMENTAL_REFRESH_KEY = "incremental.refresh";
+
     /**
      * The key name for export URL in register center
      */
@@ -597,6 +654,27 @@ public class Constants {
 
     public static final long DEFAULT_TPS_LIMIT_INTERVAL = 60 * 1000;
 
+    public static final String TPS_LIMITER_KEY = "tps.limiter";
+
+    public static final String DEFAULT_TPS_LIMITER = "default";
+
+    /**
+     * Algorithm adapting the concurrency limit of a provider method to its measured latency, aimd or gradient
+     */
+    public static final String ADAPTIVE_LIMIT_KEY = "adaptive.limit";
+
+    public static final String ADAPTIVE_LIMIT_AIMD = "aimd";
+
+    public static final String ADAPTIVE_LIMIT_GRADIENT = "gradient";
+
+    public static final String ADAPTIVE_LIMIT_INITIAL_KEY = "adaptive.limit.initial";
+
+    public static final int DEFAULT_ADAPTIVE_LIMIT_INITIAL = 20;
+
+    public static final String ADAPTIVE_LIMIT_MAX_KEY = "adaptive.limit.max";
+
+    public static final int DEFAULT_ADAPTIVE_LIMIT_MAX = 1000;
+
     public static final String DECODE_IN_IO_THREAD_KEY = "decode.in.io";
 
     public static final boolean DEFAULT_DECODE_IN_IO_THREAD = true;
@@ -647,6 +725,64 @@ public class Constants {
 
     public static final String REQUEST_TAG_KEY = "request.tag";
 
+    /**
+     * The max number of writes consolidated into one flush by the netty4 transport, 0 means flush every write
+     */
+    public static final String FLUSH_CONSOLIDATION_KEY = "flush.consolidation";
+
+    public static final int DEFAULT_FLUSH_CONSOLIDATION = 0;
+
+    /**
+     * Use the native epoll transport of netty4 when it is available on the current platform, otherwise fall back to nio
+     */
+    public static final String NETTY_EPOLL_KEY = "netty.epoll";
+
+    public static final boolean DEFAULT_NETTY_EPOLL = false;
+
+    /**
+     * The number of acceptor threads of the netty4 server, more than one is only honored by epoll through SO_REUSEPORT
+     */
+    public static final String BOSS_THREADS_KEY = "bossthreads";
+
+    public static final int DEFAULT_BOSS_THREADS = 1;
+
+    /**
+     * Run the netty4 server on the process-wide event loops which are also used by all netty4 clients
+     */
+    public static final String NETTY_SHARED_EVENT_LOOP_KEY = "netty.shared.eventloop";
+
+    public static final boolean DEFAULT_NETTY_SHARED_EVENT_LOOP = false;
+
+    /**
+     * System property sizing the process-wide netty4 worker event loop group
+     */
+    public static final String SHARED_IO_THREADS_KEY = "dubbo.netty.shared.iothreads";
+
+    /**
+     * System property sizing the process-wide netty4 boss event loop group
+     */
+    public static final String SHARED_BOSS_THREADS_KEY = "dubbo.netty.shared.bossthreads";
+
+    /**
+     * The max connections of the connection pool to one provider, the pool starts with {@link #CONNECTIONS_KEY}
+     * connections and sends every request through the least busy one
+     */
+    public static final String CONNECTIONS_MAX_KEY = "connections.max";
+
+    /**
+     * The requests in flight on the least busy pooled connection at which the pool opens another connection
+     */
+    public static final String CONNECTIONS_GROW_THRESHOLD_KEY = "connections.grow.threshold";
+
+    public static final int DEFAULT_CONNECTIONS_GROW_THRESHOLD = 64;
+
+    /**
+     * The period in milliseconds at which an underused connection pool closes its newest connection
+     */
+    public static final String CONNECTIONS_SHRINK_PERIOD_KEY = "connections.shrink.period";
+
+    public static final int DEFAULT_CONNECTIONS_SHRINK_PERIOD = 60 * 1000;
+
     /*
      * private Constants(){ }
      */
@@ -121,6 +121,8 @@ public /**final**/ class URL implements Serializable {
 
     private volatile transient String string;
 
+    private volatile transient int hashCode;
+
     protected URL() {
         this.protocol = null;
         this.username = null;
@@ -1392,8 +1394,12 @@ public /**final**/ class URL implements Serializable {
 
     @Override
     public int hashCode() {
+        int result = hashCode;
+        if (result != 0) {
+            return result;
+        }
         final int prime = 31;
-        int result = 1;
+        result = 1;
         result = prime * result + ((host == null) ? 0 : host.hashCode());
         result = prime * result + ((parameters == null) ? 0 : parameters.hashCode());
         result = prime * result + ((password == null) ? 0 : password.hashCode());
@@ -1401,6 +1407,7 @@ public /**final**/ class URL implements Serializable {
         result = prime * result + port;
         result = prime * result + ((protocol == null) ? 0 : protocol.hashCode());
         result = prime * result + ((username == null) ? 0 : username.hashCode());
+        hashCode = result;
         return result;
     }
 
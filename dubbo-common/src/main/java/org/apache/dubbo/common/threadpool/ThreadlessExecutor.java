@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.threadpool;
+
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Executor without a thread of its own, the tasks submitted to it are run by the thread waiting in
+ * {@link #waitAndDrain(BooleanSupplier, long)}. Once that thread stops waiting, tasks are rejected and the submitter
+ * has to run them elsewhere.
+ * <p>
+ * It lets a caller blocked on a response handle the response itself, rather than have a pool thread handle it and
+ * then wake the caller up.
+ */
+public class ThreadlessExecutor implements Executor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadlessExecutor.class);
+
+    private static final Runnable WAKE_UP = new Runnable() {
+        @Override
+        public void run() {
+        }
+    };
+
+    private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<Runnable>();
+
+    private final Object lock = new Object();
+
+    // guarded by lock
+    private boolean waiting = true;
+
+    @Override
+    public void execute(Runnable command) {
+        synchronized (lock) {
+            if (!waiting) {
+                throw new RejectedExecutionException("The thread of the threadless executor is not waiting any more");
+            }
+            queue.add(command);
+        }
+    }
+
+    /**
+     * Wakes the waiting thread up so that it checks its condition again, does nothing if it is not waiting any more.
+     */
+    public void wakeUp() {
+        try {
+            execute(WAKE_UP);
+        } catch (RejectedExecutionException e) {
+            // not waiting
+        }
+    }
+
+    public boolean isWaiting() {
+        synchronized (lock) {
+            return waiting;
+        }
+    }
+
+    /**
+     * Runs the submitted tasks on the calling thread until the condition holds or the deadline passes. The tasks
+     * submitted before it returns are all run, the later ones are rejected.
+     *
+     * @param condition checked after every task
+     * @param deadline  in milliseconds, as {@link System#currentTimeMillis()}
+     */
+    public void waitAndDrain(BooleanSupplier condition, long deadline) throws InterruptedException {
+        try {
+            while (!condition.getAsBoolean()) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    break;
+                }
+                Runnable task = queue.poll(remaining, TimeUnit.MILLISECONDS);
+                if (task != null) {
+                    run(task);
+                }
+            }
+        } finally {
+            synchronized (lock) {
+                waiting = false;
+            }
+            Runnable task;
+            while ((task = queue.poll()) != null) {
+                run(task);
+            }
+        }
+    }
+
+    private void run(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable t) {
+            logger.warn("Failed to run task of threadless executor, cause: " + t.getMessage(), t);
+        }
+    }
+
+}
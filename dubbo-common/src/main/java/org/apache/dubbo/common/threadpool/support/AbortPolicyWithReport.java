@@ -31,6 +31,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Abort Policy.
@@ -44,6 +45,8 @@ public class AbortPolicyWithReport extends ThreadPoolExecutor.AbortPolicy {
 
     private final URL url;
 
+    private final AtomicLong rejectedCount = new AtomicLong();
+
     private static volatile long lastPrintTime = 0;
 
     private static Semaphore guard = new Semaphore(1);
@@ -55,6 +58,7 @@ public class AbortPolicyWithReport extends ThreadPoolExecutor.AbortPolicy {
 
     @Override
     public void rejectedExecution(Runnable r, ThreadPoolExecutor e) {
+        rejectedCount.incrementAndGet();
         String msg = String.format("Thread pool is EXHAUSTED!" +
                         " Thread Name: %s, Pool Size: %d (active: %d, core: %d, max: %d, largest: %d), Task: %d (completed: %d)," +
                         " Executor status:(isShutdown:%s, isTerminated:%s, isTerminating:%s), in %s://%s:%d!",
@@ -66,6 +70,13 @@ public class AbortPolicyWithReport extends ThreadPoolExecutor.AbortPolicy {
         throw new RejectedExecutionException(msg);
     }
 
+    /**
+     * @return the number of tasks rejected by the pool so far
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
     private void dumpJStack() {
         long now = System.currentTimeMillis();
 
@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.threadpool.support.virtual;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Executor starting a new thread per task instead of keeping a pool, meant for the cheap threads of a virtual thread
+ * factory. At most <code>limit</code> threads run at a time, a thread finishing its task goes on with the queued ones
+ * before it ends. A task is rejected when the limit is reached and the queue is full, a queue size of 0 disables
+ * queuing, a negative one makes it unbounded.
+ */
+public class VirtualThreadExecutor extends AbstractExecutorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadExecutor.class);
+
+    private final String name;
+
+    private final int limit;
+
+    private final int queues;
+
+    private final ThreadFactory threadFactory;
+
+    private final URL url;
+
+    private final BlockingQueue<Runnable> queue;
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    private final Set<Thread> workers = ConcurrentHashMap.newKeySet();
+
+    private final ReentrantLock terminationLock = new ReentrantLock();
+
+    private final Condition termination = terminationLock.newCondition();
+
+    private volatile boolean shutdown;
+
+    public VirtualThreadExecutor(String name, int limit, int queues, ThreadFactory threadFactory, URL url) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit <= 0");
+        }
+        this.name = name;
+        this.limit = limit;
+        this.queues = queues;
+        this.threadFactory = threadFactory;
+        this.url = url;
+        this.queue = new LinkedBlockingQueue<Runnable>(queues <= 0 ? Integer.MAX_VALUE : queues);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException();
+        }
+        if (shutdown) {
+            reject();
+        }
+        if (acquire()) {
+            start(command);
+            return;
+        }
+        if (queues != 0 && queue.offer(command)) {
+            // the last running thread may have ended before the task got queued
+            if (acquire()) {
+                start(null);
+            }
+            return;
+        }
+        reject();
+    }
+
+    private boolean acquire() {
+        for (; ; ) {
+            int current = running.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (running.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void start(final Runnable first) {
+        try {
+            threadFactory.newThread(new Runnable() {
+                @Override
+                public void run() {
+                    work(first);
+                }
+            }).start();
+        } catch (Throwable t) {
+            release();
+            throw new RejectedExecutionException("Failed to start a thread of " + name, t);
+        }
+    }
+
+    private void work(Runnable task) {
+        Thread thread = Thread.currentThread();
+        workers.add(thread);
+        try {
+            for (; ; ) {
+                while (task != null) {
+                    try {
+                        task.run();
+                    } catch (Throwable t) {
+                        logger.warn("Task of thread pool " + name + " failed: " + t.getMessage(), t);
+                    }
+                    task = queue.poll();
+                }
+                release();
+                // a task may have been queued while the limit was still reached
+                if (queue.isEmpty() || !acquire()) {
+                    return;
+                }
+                task = queue.poll();
+            }
+        } finally {
+            workers.remove(thread);
+        }
+    }
+
+    private void release() {
+        if (running.decrementAndGet() == 0 && shutdown) {
+            terminationLock.lock();
+            try {
+                termination.signalAll();
+            } finally {
+                terminationLock.unlock();
+            }
+        }
+    }
+
+    private void reject() {
+        rejectedCount.incrementAndGet();
+        String msg = String.format("Thread pool is EXHAUSTED!" +
+                        " Thread Name: %s, Running: %d (limit: %d), Queued: %d, Executor status:(isShutdown:%s), in %s://%s:%d!",
+                name, running.get(), limit, queue.size(), shutdown,
+                url.getProtocol(), url.getIp(), url.getPort());
+        logger.warn(msg);
+        throw new RejectedExecutionException(msg);
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        if (running.get() == 0) {
+            terminationLock.lock();
+            try {
+                termination.signalAll();
+            } finally {
+                terminationLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        List<Runnable> tasks = new ArrayList<Runnable>();
+        queue.drainTo(tasks);
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        return tasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && running.get() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        terminationLock.lock();
+        try {
+            while (!isTerminated()) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = termination.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            terminationLock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return the number of threads running tasks
+     */
+    public int getActiveCount() {
+        return running.get();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.threadpool.support.virtual;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.threadlocal.NamedInternalThreadFactory;
+import org.apache.dubbo.common.threadpool.ThreadPool;
+import org.apache.dubbo.common.threadpool.support.AbortPolicyWithReport;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every task on a virtual thread, so blocking tasks cost no platform thread each. At most <code>threads</code>
+ * tasks run at a time, further ones wait in a queue of <code>queues</code> tasks and are rejected beyond.
+ * <p>
+ * Virtual threads are looked up by reflection. On jdks without them this pool falls back to platform threads with the
+ * same limits, which end after being idle for <code>alive</code> milliseconds.
+ *
+ * @see VirtualThreadExecutor
+ */
+public class VirtualThreadPool implements ThreadPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPool.class);
+
+    @Override
+    public Executor getExecutor(URL url) {
+        String name = url.getParameter(Constants.THREAD_NAME_KEY, Constants.DEFAULT_THREAD_NAME);
+        int threads = url.getParameter(Constants.THREADS_KEY, Constants.DEFAULT_THREADS);
+        int queues = url.getParameter(Constants.QUEUES_KEY, Constants.DEFAULT_QUEUES);
+        ThreadFactory threadFactory = newVirtualThreadFactory(name);
+        if (threadFactory == null) {
+            logger.warn("Virtual threads are not supported by java " + System.getProperty("java.version")
+                    + ", thread pool " + name + " uses platform threads instead.");
+            int alive = url.getParameter(Constants.ALIVE_KEY, Constants.DEFAULT_ALIVE);
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, alive, TimeUnit.MILLISECONDS,
+                    queues == 0 ? new SynchronousQueue<Runnable>() :
+                            (queues < 0 ? new LinkedBlockingQueue<Runnable>()
+                                    : new LinkedBlockingQueue<Runnable>(queues)),
+                    new NamedInternalThreadFactory(name, true), new AbortPolicyWithReport(name, url));
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+        return new VirtualThreadExecutor(name, threads, queues, threadFactory, url);
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        return newVirtualThreadFactory(Constants.DEFAULT_THREAD_NAME) != null;
+    }
+
+    /**
+     * @return <code>Thread.ofVirtual().name(name + "-virtual-", 1).factory()</code>, null if the jdk has no virtual
+     * threads
+     */
+    static ThreadFactory newVirtualThreadFactory(String name) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Method nameMethod = builderClass.getMethod("name", String.class, long.class);
+            builder = nameMethod.invoke(builder, name + "-virtual-", 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+}
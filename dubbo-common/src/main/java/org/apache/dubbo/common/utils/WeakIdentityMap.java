@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.utils;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Map which compares its keys by identity and holds them weakly, for keeping state derived from objects that live
+ * as long as their owner keeps them, like the invokers or the invoker lists of a directory.
+ * <p>
+ * Reads are lock free and do not allocate; writes synchronize and drop the entries whose key was collected.
+ */
+public class WeakIdentityMap<K, V> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ReferenceQueue<K> queue = new ReferenceQueue<K>();
+
+    // chains of immutable entries, so a reader always walks a consistent chain
+    private volatile AtomicReferenceArray<Entry<K, V>> table = new AtomicReferenceArray<Entry<K, V>>(INITIAL_CAPACITY);
+
+    // guarded by this
+    private int size;
+
+    public V get(K key) {
+        int hash = System.identityHashCode(key);
+        AtomicReferenceArray<Entry<K, V>> tab = table;
+        for (Entry<K, V> e = tab.get(hash & (tab.length() - 1)); e != null; e = e.next) {
+            if (e.hash == hash && e.get() == key) {
+                return e.value;
+            }
+        }
+        return null;
+    }
+
+    public synchronized void put(K key, V value) {
+        expungeStaleEntries();
+        int hash = System.identityHashCode(key);
+        AtomicReferenceArray<Entry<K, V>> tab = table;
+        int index = hash & (tab.length() - 1);
+        tab.set(index, new Entry<K, V>(key, value, hash, unlink(tab.get(index), key), queue));
+        size++;
+        if (size > tab.length() * 3 / 4) {
+            resize(tab);
+        }
+    }
+
+    /**
+     * @return the value already mapped to the key, or null if the value was put
+     */
+    public synchronized V putIfAbsent(K key, V value) {
+        V existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        put(key, value);
+        return null;
+    }
+
+    public synchronized V remove(K key) {
+        expungeStaleEntries();
+        int hash = System.identityHashCode(key);
+        AtomicReferenceArray<Entry<K, V>> tab = table;
+        int index = hash & (tab.length() - 1);
+        Entry<K, V> head = tab.get(index);
+        for (Entry<K, V> e = head; e != null; e = e.next) {
+            if (e.get() == key) {
+                tab.set(index, unlink(head, key));
+                return e.value;
+            }
+        }
+        return null;
+    }
+
+    public synchronized void clear() {
+        table = new AtomicReferenceArray<Entry<K, V>>(INITIAL_CAPACITY);
+        size = 0;
+        while (queue.poll() != null) {
+            // the old table is dropped as a whole
+        }
+    }
+
+    /**
+     * @return the number of entries, including the ones whose key was collected but not dropped yet
+     */
+    public synchronized int size() {
+        expungeStaleEntries();
+        return size;
+    }
+
+    /**
+     * @return a copy of the chain without the entry of the key and without the entries whose key was collected
+     */
+    private Entry<K, V> unlink(Entry<K, V> head, Object key) {
+        Entry<K, V> rebuilt = null;
+        for (Entry<K, V> e = head; e != null; e = e.next) {
+            K k = e.get();
+            if (k == null || k == key) {
+                size--;
+            } else {
+                rebuilt = new Entry<K, V>(k, e.value, e.hash, rebuilt, queue);
+            }
+        }
+        return rebuilt;
+    }
+
+    private void expungeStaleEntries() {
+        AtomicReferenceArray<Entry<K, V>> tab = table;
+        Object stale;
+        while ((stale = queue.poll()) != null) {
+            int index = ((Entry<?, ?>) stale).hash & (tab.length() - 1);
+            tab.set(index, unlink(tab.get(index), null));
+        }
+    }
+
+    private void resize(AtomicReferenceArray<Entry<K, V>> tab) {
+        AtomicReferenceArray<Entry<K, V>> resized = new AtomicReferenceArray<Entry<K, V>>(tab.length() * 2);
+        int live = 0;
+        for (int i = 0; i < tab.length(); i++) {
+            for (Entry<K, V> e = tab.get(i); e != null; e = e.next) {
+                K key = e.get();
+                if (key != null) {
+                    int index = e.hash & (resized.length() - 1);
+                    resized.set(index, new Entry<K, V>(key, e.value, e.hash, resized.get(index), queue));
+                    live++;
+                }
+            }
+        }
+        size = live;
+        table = resized;
+    }
+
+    private static final class Entry<K, V> extends WeakReference<K> {
+
+        private final V value;
+
+        private final int hash;
+
+        private final Entry<K, V> next;
+
+        Entry(K key, V value, int hash, Entry<K, V> next, ReferenceQueue<K> queue) {
+            super(key, queue);
+            this.value = value;
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.threadpool;
+
+import org.junit.Test;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ThreadlessExecutorTest {
+
+    @Test
+    public void testTasksRunOnWaitingThread() throws Exception {
+        final ThreadlessExecutor executor = new ThreadlessExecutor();
+        final AtomicReference<Thread> runOn = new AtomicReference<>();
+        new Thread(() -> executor.execute(() -> runOn.set(Thread.currentThread()))).start();
+        executor.waitAndDrain(() -> runOn.get() != null, System.currentTimeMillis() + 3000);
+        assertThat(runOn.get(), sameInstance(Thread.currentThread()));
+        assertThat(executor.isWaiting(), is(false));
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testRejectedWhenNotWaiting() throws Exception {
+        ThreadlessExecutor executor = new ThreadlessExecutor();
+        executor.waitAndDrain(() -> true, System.currentTimeMillis() + 3000);
+        executor.execute(() -> {
+        });
+    }
+
+    @Test
+    public void testQueuedTasksRunBeforeReturn() throws Exception {
+        ThreadlessExecutor executor = new ThreadlessExecutor();
+        AtomicInteger count = new AtomicInteger();
+        executor.execute(count::incrementAndGet);
+        executor.execute(count::incrementAndGet);
+        executor.waitAndDrain(() -> true, System.currentTimeMillis() + 3000);
+        assertThat(count.get(), is(2));
+    }
+
+    @Test
+    public void testDeadline() throws Exception {
+        ThreadlessExecutor executor = new ThreadlessExecutor();
+        long start = System.currentTimeMillis();
+        executor.waitAndDrain(() -> false, start + 100);
+        assertTrue(System.currentTimeMillis() - start >= 100);
+        // waking up an executor not waiting is ignored
+        executor.wakeUp();
+    }
+}
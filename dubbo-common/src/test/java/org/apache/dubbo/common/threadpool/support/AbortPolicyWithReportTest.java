@@ -18,6 +18,7 @@ package org.apache.dubbo.common.threadpool.support;
 
 import org.apache.dubbo.common.URL;
 import org.apache.dubbo.common.threadpool.support.AbortPolicyWithReport;
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.concurrent.Executors;
@@ -40,6 +41,7 @@ public class AbortPolicyWithReportTest {
         } catch (RejectedExecutionException rj) {
             // ignore
         }
+        Assert.assertEquals(1, abortPolicyWithReport.getRejectedCount());
 
         Thread.sleep(1000);
 
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.threadpool.support.virtual;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.common.threadpool.ThreadPool;
+import org.apache.dubbo.common.utils.NamedThreadFactory;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class VirtualThreadPoolTest {
+
+    private static final URL URL = org.apache.dubbo.common.URL.valueOf("dubbo://10.20.130.230:20880/context/path?"
+            + Constants.THREAD_NAME_KEY + "=demo");
+
+    @Test
+    public void getExecutor() throws Exception {
+        assertThat(ExtensionLoader.getExtensionLoader(ThreadPool.class).getExtension("virtual"), instanceOf(VirtualThreadPool.class));
+        ExecutorService executor = (ExecutorService) new VirtualThreadPool().getExecutor(URL);
+        if (VirtualThreadPool.isVirtualThreadSupported()) {
+            assertThat(executor, instanceOf(VirtualThreadExecutor.class));
+            assertThat(((VirtualThreadExecutor) executor).getLimit(), is(Constants.DEFAULT_THREADS));
+        } else {
+            assertThat(executor, instanceOf(ThreadPoolExecutor.class));
+            assertThat(((ThreadPoolExecutor) executor).getMaximumPoolSize(), is(Constants.DEFAULT_THREADS));
+        }
+        final CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                assertThat(Thread.currentThread().getName(), startsWith("demo"));
+                latch.countDown();
+            }
+        });
+        assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+        executor.shutdown();
+    }
+
+    @Test
+    public void testLimitAndQueue() throws Exception {
+        VirtualThreadExecutor executor = new VirtualThreadExecutor("demo", 2, 1, new NamedThreadFactory("demo", true), URL);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(3);
+        final AtomicInteger concurrency = new AtomicInteger();
+        final AtomicInteger maxConcurrency = new AtomicInteger();
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                int current = concurrency.incrementAndGet();
+                maxConcurrency.set(Math.max(maxConcurrency.get(), current));
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                concurrency.decrementAndGet();
+                done.countDown();
+            }
+        };
+        executor.execute(task);
+        executor.execute(task);
+        executor.execute(task);
+        assertThat(executor.getQueueSize(), is(1));
+        try {
+            executor.execute(task);
+            fail();
+        } catch (RejectedExecutionException expected) {
+            assertThat(executor.getRejectedCount(), is(1L));
+        }
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(maxConcurrency.get(), is(2));
+
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS), is(true));
+        assertThat(executor.getActiveCount(), is(0));
+        try {
+            executor.execute(task);
+            fail();
+        } catch (RejectedExecutionException expected) {
+            // shut down
+        }
+    }
+
+    @Test
+    public void testShutdownNow() throws Exception {
+        VirtualThreadExecutor executor = new VirtualThreadExecutor("demo", 1, -1, new NamedThreadFactory("demo", true), URL);
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicInteger interrupted = new AtomicInteger();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    Thread.sleep(10000);
+                } catch (InterruptedException e) {
+                    interrupted.incrementAndGet();
+                }
+            }
+        });
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+            }
+        });
+        started.await();
+        List<Runnable> pending = executor.shutdownNow();
+        assertThat(pending.size(), is(1));
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS), is(true));
+        assertThat(interrupted.get(), is(1));
+    }
+
+    /**
+     * Tasks blocking all of their time do not hold each other back up to the limit, on jdks without virtual threads
+     * the pool falls back to platform threads.
+     */
+    @Test
+    public void testBlockingWorkload() throws Exception {
+        ExecutorService executor = (ExecutorService) new VirtualThreadPool().getExecutor(URL.addParameter(Constants.QUEUES_KEY, -1)
+                .addParameter(Constants.THREADS_KEY, 1000));
+        final CountDownLatch started = new CountDownLatch(200);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(200);
+        for (int i = 0; i < 200; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    done.countDown();
+                }
+            });
+        }
+        // all of them block at the same time
+        assertThat(started.await(10, TimeUnit.SECONDS), is(true));
+        release.countDown();
+        assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS), is(true));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+public class WeakIdentityMapTest {
+
+    @Test
+    public void testIdentityKeys() {
+        WeakIdentityMap<List<String>, String> map = new WeakIdentityMap<List<String>, String>();
+        List<String> first = new ArrayList<String>();
+        List<String> second = new ArrayList<String>();
+        map.put(first, "first");
+        // equal but not the same key
+        assertNull(map.get(second));
+        map.put(second, "second");
+        assertEquals("first", map.get(first));
+        assertEquals("second", map.get(second));
+
+        map.put(first, "replaced");
+        assertEquals("replaced", map.get(first));
+        assertEquals(2, map.size());
+
+        assertEquals("second", map.remove(second));
+        assertNull(map.get(second));
+        assertEquals(1, map.size());
+
+        map.clear();
+        assertNull(map.get(first));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testPutIfAbsent() {
+        WeakIdentityMap<Object, String> map = new WeakIdentityMap<Object, String>();
+        Object key = new Object();
+        assertNull(map.putIfAbsent(key, "first"));
+        assertEquals("first", map.putIfAbsent(key, "second"));
+        assertEquals("first", map.get(key));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testResize() {
+        WeakIdentityMap<Object, Integer> map = new WeakIdentityMap<Object, Integer>();
+        List<Object> keys = new ArrayList<Object>();
+        for (int i = 0; i < 1000; i++) {
+            Object key = new Object();
+            keys.add(key);
+            map.put(key, i);
+        }
+        assertEquals(1000, map.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(Integer.valueOf(i), map.get(keys.get(i)));
+        }
+    }
+
+    @Test
+    public void testDropCollectedKeys() throws Exception {
+        WeakIdentityMap<Object, Integer> map = new WeakIdentityMap<Object, Integer>();
+        Object kept = new Object();
+        map.put(kept, -1);
+        for (int i = 0; i < 100; i++) {
+            map.put(new Object(), i);
+        }
+        for (int i = 0; i < 50 && map.size() > 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(map.size(), lessThan(101));
+        assertEquals(Integer.valueOf(-1), map.get(kept));
+    }
+
+}
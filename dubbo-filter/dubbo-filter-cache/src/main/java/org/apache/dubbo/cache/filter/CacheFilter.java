@@ -20,8 +20,11 @@ import java.io.Serializable;
 
 import org.apache.dubbo.cache.Cache;
 import org.apache.dubbo.cache.CacheFactory;
+import org.apache.dubbo.cache.CacheKeyGenerator;
 import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
 import org.apache.dubbo.common.extension.Activate;
+import org.apache.dubbo.common.extension.ExtensionLoader;
 import org.apache.dubbo.common.utils.ConfigUtils;
 import org.apache.dubbo.common.utils.StringUtils;
 import org.apache.dubbo.rpc.Filter;
@@ -48,7 +51,8 @@ public class CacheFilter implements Filter {
         if (cacheFactory != null && ConfigUtils.isNotEmpty(invoker.getUrl().getMethodParameter(invocation.getMethodName(), Constants.CACHE_KEY))) {
             Cache cache = cacheFactory.getCache(invoker.getUrl(), invocation);
             if (cache != null) {
-                String key = StringUtils.toArgumentString(invocation.getArguments());
+                URL url = invoker.getUrl();
+                Object key = getCacheKeyGenerator(url, invocation).generateKey(url, invocation);
                 Object value = cache.get(key);
                 if (value != null) {
                     if (value instanceof ValueWrapper) {
@@ -66,6 +70,12 @@ public class CacheFilter implements Filter {
         }
         return invoker.invoke(invocation);
     }
+
+    private CacheKeyGenerator getCacheKeyGenerator(URL url, Invocation invocation) {
+        ExtensionLoader<CacheKeyGenerator> loader = ExtensionLoader.getExtensionLoader(CacheKeyGenerator.class);
+        String name = url.getMethodParameter(invocation.getMethodName(), Constants.CACHE_KEY_GENERATOR_KEY);
+        return StringUtils.isEmpty(name) ? loader.getDefaultExtension() : loader.getExtension(name);
+    }
     
     static class ValueWrapper implements Serializable{
 
@@ -32,9 +32,27 @@ public abstract class AbstractCacheFactory implements CacheFactory {
 
     private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<String, Cache>();
 
+    // url -> method name -> cache, spares building the full url string on every invocation
+    private final ConcurrentMap<URL, ConcurrentMap<String, Cache>> methodCaches = new ConcurrentHashMap<URL, ConcurrentMap<String, Cache>>();
+
     @Override
     public Cache getCache(URL url, Invocation invocation) {
-        url = url.addParameter(Constants.METHOD_KEY, invocation.getMethodName());
+        ConcurrentMap<String, Cache> urlCaches = methodCaches.get(url);
+        if (urlCaches == null) {
+            methodCaches.putIfAbsent(url, new ConcurrentHashMap<String, Cache>());
+            urlCaches = methodCaches.get(url);
+        }
+        String methodName = invocation.getMethodName() == null ? "" : invocation.getMethodName();
+        Cache cache = urlCaches.get(methodName);
+        if (cache == null) {
+            urlCaches.putIfAbsent(methodName, getCache(url, invocation.getMethodName()));
+            cache = urlCaches.get(methodName);
+        }
+        return cache;
+    }
+
+    private Cache getCache(URL url, String methodName) {
+        url = url.addParameter(Constants.METHOD_KEY, methodName);
         String key = url.toFullString();
         Cache cache = caches.get(key);
         if (cache == null) {
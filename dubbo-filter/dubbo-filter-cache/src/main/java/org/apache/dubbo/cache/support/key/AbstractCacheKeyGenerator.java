@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.key;
+
+import org.apache.dubbo.cache.CacheKeyGenerator;
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.utils.StringUtils;
+import org.apache.dubbo.rpc.Invocation;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * AbstractCacheKeyGenerator, selects the arguments configured by "cache.key.arguments" before building the key.
+ */
+public abstract class AbstractCacheKeyGenerator implements CacheKeyGenerator {
+
+    private static final Object[] EMPTY_ARGUMENTS = new Object[0];
+
+    private final ConcurrentMap<String, int[]> argumentIndexes = new ConcurrentHashMap<String, int[]>();
+
+    @Override
+    public Object generateKey(URL url, Invocation invocation) {
+        Object[] arguments = invocation.getArguments();
+        if (arguments == null) {
+            arguments = EMPTY_ARGUMENTS;
+        }
+        String indexes = url.getMethodParameter(invocation.getMethodName(), Constants.CACHE_KEY_ARGUMENTS_KEY);
+        if (StringUtils.isEmpty(indexes)) {
+            return generateKey(arguments);
+        }
+        int[] selected = argumentIndexes.get(indexes);
+        if (selected == null) {
+            selected = parseIndexes(indexes);
+            argumentIndexes.putIfAbsent(indexes, selected);
+        }
+        Object[] selectedArguments = new Object[selected.length];
+        for (int i = 0; i < selected.length; i++) {
+            if (selected[i] >= arguments.length) {
+                throw new IllegalArgumentException("Invalid " + Constants.CACHE_KEY_ARGUMENTS_KEY + " " + indexes
+                        + " of method " + invocation.getMethodName() + ", it has " + arguments.length + " arguments");
+            }
+            selectedArguments[i] = arguments[selected[i]];
+        }
+        return generateKey(selectedArguments);
+    }
+
+    protected abstract Object generateKey(Object[] arguments);
+
+    private static int[] parseIndexes(String value) {
+        String[] parts = Constants.COMMA_SPLIT_PATTERN.split(value.trim());
+        int[] indexes = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                indexes[i] = Integer.parseInt(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + Constants.CACHE_KEY_ARGUMENTS_KEY + " " + value, e);
+            }
+            if (indexes[i] < 0) {
+                throw new IllegalArgumentException("Invalid " + Constants.CACHE_KEY_ARGUMENTS_KEY + " " + value);
+            }
+        }
+        return indexes;
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.key;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * CompositeCacheKey, compares its values element by element and computes its hash code once.
+ */
+public final class CompositeCacheKey implements Serializable {
+
+    private static final long serialVersionUID = 3536238120358217826L;
+
+    private final Object[] values;
+
+    private final int hash;
+
+    public CompositeCacheKey(Object[] values) {
+        this.values = values;
+        this.hash = Arrays.deepHashCode(values);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CompositeCacheKey)) {
+            return false;
+        }
+        CompositeCacheKey other = (CompositeCacheKey) obj;
+        return hash == other.hash && Arrays.deepEquals(values, other.values);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.deepToString(values);
+    }
+
+}
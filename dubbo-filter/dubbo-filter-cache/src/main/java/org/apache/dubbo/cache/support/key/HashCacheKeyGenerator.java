@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.key;
+
+import org.apache.dubbo.common.utils.StringUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+
+/**
+ * HashCacheKeyGenerator, the key is a {@link CompositeCacheKey} over the arguments.
+ * <p>
+ * Immutable values (strings, boxed primitives, big numbers and enums) are taken as they are, dates by their time and
+ * arrays of primitives by a copy of their content. Any other argument is written out as JSON, as the string keys do,
+ * so that arguments without a value based equals, or changed after the call, still find their entry.
+ */
+public class HashCacheKeyGenerator extends AbstractCacheKeyGenerator {
+
+    public static final String NAME = "hash";
+
+    @Override
+    protected Object generateKey(Object[] arguments) {
+        Object[] values = new Object[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            values[i] = toKeyValue(arguments[i]);
+        }
+        return new CompositeCacheKey(values);
+    }
+
+    private static Object toKeyValue(Object arg) {
+        if (arg == null) {
+            return null;
+        }
+        Class<?> cls = arg.getClass();
+        if (cls == String.class || cls == Integer.class || cls == Long.class || cls == Boolean.class
+                || cls == Short.class || cls == Byte.class || cls == Character.class || cls == Double.class
+                || cls == Float.class || cls == BigInteger.class || cls == BigDecimal.class || arg instanceof Enum) {
+            return arg;
+        }
+        if (arg instanceof Date) {
+            return ((Date) arg).getTime();
+        }
+        if (cls.isArray() && cls.getComponentType().isPrimitive()) {
+            return copyOf(arg);
+        }
+        return StringUtils.toArgumentString(new Object[]{arg});
+    }
+
+    private static Object copyOf(Object array) {
+        if (array instanceof int[]) {
+            return ((int[]) array).clone();
+        } else if (array instanceof long[]) {
+            return ((long[]) array).clone();
+        } else if (array instanceof byte[]) {
+            return ((byte[]) array).clone();
+        } else if (array instanceof char[]) {
+            return ((char[]) array).clone();
+        } else if (array instanceof boolean[]) {
+            return ((boolean[]) array).clone();
+        } else if (array instanceof short[]) {
+            return ((short[]) array).clone();
+        } else if (array instanceof float[]) {
+            return ((float[]) array).clone();
+        }
+        return ((double[]) array).clone();
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.tinylfu;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Lossy buffer of the reads of a cache, so that a read records its access without taking the lock of the cache.
+ * <p>
+ * A read is offered to one of a few ring buffers picked by its thread, so concurrent reads rarely contend on one.
+ * An element is dropped when its ring is full or another thread claims the same slot first, which only loses
+ * some of the accesses of popular entries. The rings are drained by the owner of the lock of the cache, which
+ * replays the accesses in the order each ring received them.
+ */
+final class ReadBuffer<E> {
+
+    private static final int STRIPES = ceilingPowerOfTwo(Math.min(4 * Runtime.getRuntime().availableProcessors(), 64));
+
+    private static final int STRIPE_MASK = STRIPES - 1;
+
+    private static final int RING_SIZE = 16;
+
+    private static final int RING_MASK = RING_SIZE - 1;
+
+    private final Ring<E>[] rings;
+
+    @SuppressWarnings("unchecked")
+    ReadBuffer() {
+        rings = new Ring[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            rings[i] = new Ring<E>();
+        }
+    }
+
+    /**
+     * @return whether the ring of the element is full now and should be drained
+     */
+    boolean offer(E e) {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return rings[(hash >>> 16) & STRIPE_MASK].offer(e);
+    }
+
+    /**
+     * Hands every buffered element to the consumer, called under the lock of the cache only.
+     */
+    void drainTo(Consumer<E> consumer) {
+        for (Ring<E> ring : rings) {
+            ring.drainTo(consumer);
+        }
+    }
+
+    private static int ceilingPowerOfTwo(int x) {
+        return x <= 1 ? 1 : Integer.highestOneBit(x - 1) << 1;
+    }
+
+    private static final class Ring<E> {
+
+        private final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<E>(RING_SIZE);
+
+        private final AtomicLong writeCounter = new AtomicLong();
+
+        // written by the drainer only
+        private volatile long readCounter;
+
+        boolean offer(E e) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            long size = tail - head;
+            if (size >= RING_SIZE) {
+                return true;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet((int) (tail & RING_MASK), e);
+                return size + 1 >= RING_SIZE;
+            }
+            // another reader claimed the slot, drop the element
+            return false;
+        }
+
+        void drainTo(Consumer<E> consumer) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            for (; head != tail; head++) {
+                int index = (int) (head & RING_MASK);
+                E e = buffer.get(index);
+                if (e == null) {
+                    // claimed but not written yet, the next drain takes it
+                    break;
+                }
+                buffer.lazySet(index, null);
+                consumer.accept(e);
+            }
+            readCounter = head;
+        }
+    }
+}
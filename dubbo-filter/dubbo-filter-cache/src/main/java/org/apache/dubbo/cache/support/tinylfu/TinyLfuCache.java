@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.tinylfu;
+
+import org.apache.dubbo.cache.Cache;
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * TinyLfuCache - A bounded cache admitting entries by their frequency (W-TinyLFU).
+ * <p>
+ * Entries are kept in a {@link ConcurrentHashMap}, so a read takes no lock. New entries enter a small LRU window, an
+ * entry leaving the window is admitted into the main segmented LRU only if the {@link FrequencySketch} estimates it more
+ * popular than the entry the main space would evict instead, so a scan of keys used once does not flush the popular
+ * ones. A read records its access in a lossy {@link ReadBuffer} instead of taking the eviction lock, the accesses are
+ * replayed under the lock when a ring of the buffer fills up and before every write.
+ * <p>
+ * The size ("cache.size", 1000 by default) and the time to live ("cache.seconds", by default entries do not expire)
+ * may be configured per method.
+ */
+public class TinyLfuCache implements Cache {
+
+    private static final byte NONE = 0;
+
+    private static final byte WINDOW = 1;
+
+    private static final byte PROBATION = 2;
+
+    private static final byte PROTECTED = 3;
+
+    private final ConcurrentMap<Object, Node> store = new ConcurrentHashMap<Object, Node>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final AccessOrderDeque window = new AccessOrderDeque(WINDOW);
+
+    private final AccessOrderDeque probation = new AccessOrderDeque(PROBATION);
+
+    private final AccessOrderDeque protectedSegment = new AccessOrderDeque(PROTECTED);
+
+    private final FrequencySketch sketch;
+
+    private final ReadBuffer<Node> readBuffer = new ReadBuffer<Node>();
+
+    private final Consumer<Node> onAccess = this::onAccess;
+
+    private final int windowMaximum;
+
+    private final int mainMaximum;
+
+    private final int protectedMaximum;
+
+    private final long expireNanos;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public TinyLfuCache(URL url) {
+        String method = url.getParameter(Constants.METHOD_KEY, "");
+        int maximumSize = Math.max(1, url.getMethodParameter(method, "cache.size", 1000));
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.mainMaximum = maximumSize - windowMaximum;
+        this.protectedMaximum = mainMaximum * 4 / 5;
+        this.expireNanos = TimeUnit.SECONDS.toNanos(Math.max(0, url.getMethodParameter(method, "cache.seconds", 0)));
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Node node = new Node(key, value, expireNanos > 0 ? System.nanoTime() + expireNanos : 0L);
+        Node old = store.put(key, node);
+        evictionLock.lock();
+        try {
+            readBuffer.drainTo(onAccess);
+            if (old != null) {
+                unlink(old);
+            }
+            // a concurrent put of the same key may have replaced the node already
+            if (store.get(key) == node) {
+                sketch.increment(key);
+                window.addLast(node);
+                evict();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public Object get(Object key) {
+        Node node = store.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        if (node.expireAt != 0L && node.expireAt - System.nanoTime() <= 0L) {
+            misses.increment();
+            if (store.remove(key, node)) {
+                evictionLock.lock();
+                try {
+                    unlink(node);
+                } finally {
+                    evictionLock.unlock();
+                }
+            }
+            return null;
+        }
+        hits.increment();
+        if (readBuffer.offer(node) && evictionLock.tryLock()) {
+            try {
+                readBuffer.drainTo(onAccess);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        return node.value;
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long requestCount = hitCount + misses.sum();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return "TinyLfuCache(size: " + size() + ", hits: " + getHitCount() + ", misses: " + getMissCount()
+                + ", evictions: " + getEvictionCount() + ")";
+    }
+
+    private void onAccess(Node node) {
+        switch (node.queue) {
+            case WINDOW:
+                sketch.increment(node.key);
+                window.moveToBack(node);
+                break;
+            case PROBATION:
+                sketch.increment(node.key);
+                probation.remove(node);
+                protectedSegment.addLast(node);
+                while (protectedSegment.size > protectedMaximum) {
+                    probation.addLast(protectedSegment.pollFirst());
+                }
+                break;
+            case PROTECTED:
+                sketch.increment(node.key);
+                protectedSegment.moveToBack(node);
+                break;
+            default:
+                // removed meanwhile
+        }
+    }
+
+    /**
+     * Moves the entries overflowing the window into the main space, each of them either takes the place of the
+     * entry the main space would evict or is evicted itself, whichever is used less often.
+     */
+    private void evict() {
+        while (window.size > windowMaximum) {
+            Node candidate = window.pollFirst();
+            if (probation.size + protectedSegment.size < mainMaximum) {
+                probation.addLast(candidate);
+                continue;
+            }
+            Node victim = probation.head != null ? probation.head : protectedSegment.head;
+            if (victim != null && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                evict(victim);
+                probation.addLast(candidate);
+            } else {
+                store.remove(candidate.key, candidate);
+                evictions.increment();
+            }
+        }
+    }
+
+    private void evict(Node node) {
+        unlink(node);
+        store.remove(node.key, node);
+        evictions.increment();
+    }
+
+    private void unlink(Node node) {
+        switch (node.queue) {
+            case WINDOW:
+                window.remove(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                break;
+            case PROTECTED:
+                protectedSegment.remove(node);
+                break;
+            default:
+                // not linked
+        }
+    }
+
+    private static final class Node {
+
+        private final Object key;
+
+        private final Object value;
+
+        private final long expireAt;
+
+        // the links are guarded by the eviction lock
+        private Node prev;
+
+        private Node next;
+
+        private byte queue = NONE;
+
+        Node(Object key, Object value, long expireAt) {
+            this.key = key;
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+
+    /**
+     * Doubly linked list through the nodes, least recently used first.
+     */
+    private static final class AccessOrderDeque {
+
+        private final byte id;
+
+        private Node head;
+
+        private Node tail;
+
+        private int size;
+
+        AccessOrderDeque(byte id) {
+            this.id = id;
+        }
+
+        void addLast(Node node) {
+            node.queue = id;
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            size++;
+        }
+
+        Node pollFirst() {
+            Node node = head;
+            if (node != null) {
+                remove(node);
+            }
+            return node;
+        }
+
+        void remove(Node node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            node.queue = NONE;
+            size--;
+        }
+
+        void moveToBack(Node node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+    }
+
+}
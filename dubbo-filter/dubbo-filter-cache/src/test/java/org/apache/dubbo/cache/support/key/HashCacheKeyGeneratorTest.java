@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.key;
+
+import org.apache.dubbo.cache.Cache;
+import org.apache.dubbo.cache.CacheKeyGenerator;
+import org.apache.dubbo.cache.support.AbstractCacheFactory;
+import org.apache.dubbo.cache.support.lru.LruCacheFactory;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+public class HashCacheKeyGeneratorTest {
+
+    private final URL url = URL.valueOf("test://test:11/test?cache=lru");
+
+    private final CacheKeyGenerator generator = new HashCacheKeyGenerator();
+
+    @Test
+    public void testEqualArguments() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("name", "dubbo");
+        Object key = generator.generateKey(url, invocation("arg", 1, new int[]{1, 2}, new Date(1000L), map, null));
+
+        map.put("name", "dubbo");
+        Object same = generator.generateKey(url, invocation("arg", 1, new int[]{1, 2}, new Date(1000L), new HashMap<>(map), null));
+        assertEquals(key, same);
+        assertEquals(key.hashCode(), same.hashCode());
+
+        map.put("name", "apache");
+        assertNotEquals(key, generator.generateKey(url, invocation("arg", 1, new int[]{1, 2}, new Date(1000L), map, null)));
+        assertNotEquals(key, generator.generateKey(url, invocation("arg", 1, new int[]{1, 3}, new Date(1000L), map, null)));
+    }
+
+    @Test
+    public void testArgumentChangedAfterCall() {
+        int[] array = new int[]{1, 2};
+        Object key = generator.generateKey(url, invocation(array));
+        array[0] = 3;
+        assertEquals(key, generator.generateKey(url, invocation(new int[]{1, 2})));
+    }
+
+    @Test
+    public void testArgumentIndexes() {
+        URL indexed = url.addParameter("echo.cache.key.arguments", "0,2");
+        Object key = generator.generateKey(indexed, invocation("a", "b", "c"));
+        assertEquals(key, generator.generateKey(indexed, invocation("a", "other", "c")));
+        assertNotEquals(key, generator.generateKey(indexed, invocation("a", "b", "other")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidArgumentIndex() {
+        generator.generateKey(url.addParameter("cache.key.arguments", "3"), invocation("a"));
+    }
+
+    @Test
+    public void testArgumentStringKey() {
+        Object key = new ArgumentStringCacheKeyGenerator().generateKey(url.addParameter("cache.key.arguments", "1"), invocation("a", 2));
+        assertThat(key, is((Object) "2"));
+    }
+
+    @Test
+    public void testCacheLookedUpOnce() {
+        AbstractCacheFactory factory = new LruCacheFactory();
+        Cache cache = factory.getCache(url, invocation("a"));
+        assertSame(cache, factory.getCache(URL.valueOf(url.toFullString()), invocation("b")));
+        RpcInvocation other = invocation("a");
+        other.setMethodName("other");
+        assertNotEquals(cache, factory.getCache(url, other));
+    }
+
+    @Test
+    public void testCacheHitWithEachGenerator() {
+        URL serviceUrl = URL.valueOf("dubbo://10.20.30.40:20880/org.apache.dubbo.demo.DemoService?anyhost=true&application=demo"
+                + "&cache=lru&interface=org.apache.dubbo.demo.DemoService&methods=echo,sayHello&side=provider");
+        Map<String, Object> map = new HashMap<>();
+        map.put("name", "dubbo");
+        map.put("id", 1);
+        for (CacheKeyGenerator keyGenerator : new CacheKeyGenerator[]{new HashCacheKeyGenerator(), new ArgumentStringCacheKeyGenerator()}) {
+            AbstractCacheFactory factory = new LruCacheFactory();
+            RpcInvocation invocation = invocation("arg", 1L, map);
+            factory.getCache(serviceUrl, invocation).put(keyGenerator.generateKey(serviceUrl, invocation), "value");
+
+            // equal arguments of another invocation hit the same entry
+            RpcInvocation same = invocation("arg", 1L, new HashMap<>(map));
+            Cache cache = factory.getCache(URL.valueOf(serviceUrl.toFullString()), same);
+            assertThat(cache.get(keyGenerator.generateKey(serviceUrl, same)), is((Object) "value"));
+            assertNull(cache.get(keyGenerator.generateKey(serviceUrl, invocation("arg", 2L, map))));
+        }
+    }
+
+    private static RpcInvocation invocation(Object... arguments) {
+        RpcInvocation invocation = new RpcInvocation();
+        invocation.setMethodName("echo");
+        invocation.setArguments(arguments);
+        return invocation;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.tinylfu;
+
+import org.apache.dubbo.common.URL;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class TinyLfuCacheTest {
+
+    @Test
+    public void testBounded() {
+        TinyLfuCache cache = new TinyLfuCache(URL.valueOf("test://test:11/test?cache.size=100"));
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+        assertThat(cache.size(), is(100));
+        assertThat(cache.getEvictionCount(), is(900L));
+    }
+
+    @Test
+    public void testFrequentEntriesSurviveScan() {
+        TinyLfuCache cache = new TinyLfuCache(URL.valueOf("test://test:11/test?cache.size=100"));
+        for (int i = 0; i < 50; i++) {
+            cache.put("hot" + i, i);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                cache.get("hot" + i);
+            }
+        }
+        // keys used once, many more than the cache holds, while the hot keys are still in use
+        for (int i = 0; i < 10000; i++) {
+            cache.put("scan" + i, i);
+            if (i % 100 == 0) {
+                for (int j = 0; j < 50; j++) {
+                    cache.get("hot" + j);
+                }
+            }
+        }
+        for (int i = 0; i < 50; i++) {
+            assertThat(cache.get("hot" + i), is((Object) i));
+        }
+    }
+
+    @Test
+    public void testHitsRecordedWhileLocked() throws Exception {
+        final TinyLfuCache cache = new TinyLfuCache(URL.valueOf("test://test:11/test?cache.size=100"));
+        for (int i = 0; i < 8; i++) {
+            cache.put("hot" + i, i);
+        }
+        Field field = TinyLfuCache.class.getDeclaredField("evictionLock");
+        field.setAccessible(true);
+        final Lock lock = (Lock) field.get(cache);
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            lock.lock();
+            try {
+                locked.countDown();
+                release.await();
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        });
+        holder.start();
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+        // as many hits as one ring of the read buffer holds
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 8; i++) {
+                assertThat(cache.get("hot" + i), is((Object) i));
+            }
+        }
+        release.countDown();
+        holder.join();
+        // the hits made while the lock was held are replayed, so the hot keys outlive a scan
+        for (int i = 0; i < 500; i++) {
+            cache.put("scan" + i, i);
+        }
+        for (int i = 0; i < 8; i++) {
+            assertThat(cache.get("hot" + i), is((Object) i));
+        }
+    }
+
+    @Test
+    public void testMethodTimeToLive() throws Exception {
+        URL url = URL.valueOf("test://test:11/test?method=sayHello&sayHello.cache.seconds=1");
+        TinyLfuCache cache = new TinyLfuCache(url);
+        cache.put("key", "value");
+        assertThat(cache.get("key"), is((Object) "value"));
+        Thread.sleep(1100);
+        assertNull(cache.get("key"));
+        assertThat(cache.size(), is(0));
+
+        cache = new TinyLfuCache(url.addParameter("method", "sayBye"));
+        cache.put("key", "value");
+        Thread.sleep(1100);
+        assertThat(cache.get("key"), is((Object) "value"));
+    }
+
+    @Test
+    public void testStats() {
+        TinyLfuCache cache = new TinyLfuCache(URL.valueOf("test://test:11/test"));
+        cache.put("a", 1);
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+        assertThat(cache.getHitCount(), is(2L));
+        assertThat(cache.getMissCount(), is(1L));
+        assertTrue(Math.abs(cache.getHitRate() - 2.0 / 3) < 1e-9);
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final TinyLfuCache cache = new TinyLfuCache(URL.valueOf("test://test:11/test?cache.size=1000"));
+        final int threads = 4;
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        for (int t = 0; t < threads; t++) {
+            final int index = t;
+            new Thread(() -> {
+                Random random = new Random(index);
+                try {
+                    start.await();
+                    for (int i = 0; i < 20000; i++) {
+                        // skewed towards small keys, out of 10000 keys
+                        int key = (int) (10000 * Math.pow(random.nextDouble(), 4));
+                        Object value = cache.get(key);
+                        if (value == null) {
+                            cache.put(key, key);
+                        } else {
+                            assertThat(value, is((Object) key));
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        assertNull(failure.get());
+        assertTrue(cache.size() <= 1000);
+        assertTrue(cache.getHitCount() > 0);
+    }
+}
@@ -43,7 +43,6 @@ import org.apache.dubbo.rpc.protocol.InvokerWrapper;
 import org.apache.dubbo.rpc.support.RpcUtils;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -71,6 +70,7 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
     private final URL directoryUrl; // Initialization at construction time, assertion not null, and always assign non null value
     private final String[] serviceMethods;
     private final boolean multiGroup;
+    private final boolean incrementalRefresh;
     private Protocol protocol; // Initialization at the time of injection, the assertion is not null
     private Registry registry; // Initialization at the time of injection, the assertion is not null
     private volatile boolean forbidden = false;
@@ -94,6 +94,19 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
     // Set<invokerUrls> cache invokeUrls to invokers mapping.
     private volatile Set<URL> cachedInvokerUrls; // The initial value is null and the midway may be assigned to null, please use the local variable reference
 
+    // Map<providerUrl, key of urlInvokerMap> cache the provider urls the invokers are referred from, for incremental refresh.
+    private volatile Map<URL, String> providerUrlKeys;
+
+    // The configurators at the last refresh, the provider urls already referred are reused only while they are unchanged.
+    private volatile List<Configurator> refreshedConfigurators;
+
+    // refresh metrics
+    private volatile long refreshCount;
+    private volatile long refreshElapsed;
+    private volatile long lastRefreshElapsed;
+    private volatile int lastRefreshAdded;
+    private volatile int lastRefreshRemoved;
+
     public RegistryDirectory(Class<T> serviceType, URL url) {
         super(url);
         if (serviceType == null) {
@@ -110,6 +123,7 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
         this.multiGroup = group != null && ("*".equals(group) || group.contains(","));
         String methods = queryMap.get(Constants.METHODS_KEY);
         this.serviceMethods = methods == null ? null : Constants.COMMA_SPLIT_PATTERN.split(methods);
+        this.incrementalRefresh = directoryUrl.getParameter(Constants.INCREMENTAL_REFRESH_KEY, false);
     }
 
     /**
@@ -229,6 +243,7 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
      * 1.If URL has been converted to invoker, it is no longer re-referenced and obtained directly from the cache, and notice that any parameter changes in the URL will be re-referenced.
      * 2.If the incoming invoker list is not empty, it means that it is the latest invoker list
      * 3.If the list of incoming invokerUrl is empty, It means that the rule is only a override rule or a route rule, which needs to be re-contrasted to decide whether to re-reference.
+     * 4.With incremental.refresh=true and unchanged configurators, the provider urls already referred are not merged again, only the added urls are.
      *
      * @param invokerUrls this parameter can't be null
      */
@@ -251,7 +266,9 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
             if (invokerUrls.isEmpty()) {
                 return;
             }
-            Map<String, Invoker<T>> newUrlInvokerMap = toInvokers(invokerUrls);// Translate url list to Invoker map
+            long start = System.nanoTime();
+            Map<URL, String> newProviderUrlKeys = new HashMap<URL, String>();
+            Map<String, Invoker<T>> newUrlInvokerMap = toInvokers(invokerUrls, newProviderUrlKeys);// Translate url list to Invoker map
             Map<String, List<Invoker<T>>> newMethodInvokerMap = toMethodInvokers(newUrlInvokerMap); // Change method name to map Invoker Map
             // state change
             // If the calculation is wrong, it is not processed.
@@ -259,13 +276,45 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
                 logger.error(new IllegalStateException("urls to invokers error .invokerUrls.size :" + invokerUrls.size() + ", invoker.size :0. urls :" + invokerUrls.toString()));
                 return;
             }
+            // Merge the provider side parameters, the combination of directoryUrl and override is done by notify before
+            URL localOverrideDirectoryUrl = this.overrideDirectoryUrl;
+            for (URL providerUrl : invokerUrls) {
+                String key = newProviderUrlKeys.get(providerUrl);
+                Invoker<T> invoker = key == null ? null : newUrlInvokerMap.get(key);
+                if (invoker != null) {
+                    localOverrideDirectoryUrl = localOverrideDirectoryUrl.addParametersIfAbsent(invoker.getUrl().getParameters());
+                }
+            }
+            this.overrideDirectoryUrl = localOverrideDirectoryUrl;
             this.methodInvokerMap = multiGroup ? toMergeMethodInvokerMap(newMethodInvokerMap) : newMethodInvokerMap;
             this.urlInvokerMap = newUrlInvokerMap;
+            this.providerUrlKeys = newProviderUrlKeys;
+            this.refreshedConfigurators = this.configurators;
+            int added = 0;
+            for (String key : newUrlInvokerMap.keySet()) {
+                if (oldUrlInvokerMap == null || !oldUrlInvokerMap.containsKey(key)) {
+                    added++;
+                }
+            }
+            int removed = oldUrlInvokerMap == null ? 0 : oldUrlInvokerMap.size() - (newUrlInvokerMap.size() - added);
             try {
                 destroyUnusedInvokers(oldUrlInvokerMap, newUrlInvokerMap); // Close the unused Invoker
             } catch (Exception e) {
                 logger.warn("destroyUnusedInvokers error. ", e);
             }
+            updateRefreshMetrics(newUrlInvokerMap.size(), added, removed, System.nanoTime() - start);
+        }
+    }
+
+    private void updateRefreshMetrics(int size, int added, int removed, long elapsed) {
+        this.lastRefreshElapsed = elapsed / 1000000;
+        this.lastRefreshAdded = added;
+        this.lastRefreshRemoved = removed;
+        this.refreshElapsed += lastRefreshElapsed;
+        this.refreshCount++;
+        if (logger.isDebugEnabled()) {
+            logger.debug("Refreshed " + size + " invokers of service " + serviceKey + " in " + lastRefreshElapsed
+                    + "ms, added " + added + ", removed " + removed);
         }
     }
 
@@ -335,16 +384,32 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
      * Turn urls into invokers, and if url has been refer, will not re-reference.
      *
      * @param urls
+     * @param newProviderUrlKeys the provider urls mapped to the keys of their invokers
      * @return invokers
      */
-    private Map<String, Invoker<T>> toInvokers(List<URL> urls) {
+    private Map<String, Invoker<T>> toInvokers(List<URL> urls, Map<URL, String> newProviderUrlKeys) {
         Map<String, Invoker<T>> newUrlInvokerMap = new HashMap<String, Invoker<T>>();
         if (urls == null || urls.isEmpty()) {
             return newUrlInvokerMap;
         }
         Set<String> keys = new HashSet<String>();
         String queryProtocols = this.queryMap.get(Constants.PROTOCOL_KEY);
+        Map<URL, String> localProviderUrlKeys = this.providerUrlKeys; // local reference
+        // the merged urls only change with the configurators, otherwise the provider urls already referred are reused as they are
+        boolean incremental = incrementalRefresh && localProviderUrlKeys != null && this.configurators == this.refreshedConfigurators;
         for (URL providerUrl : urls) {
+            if (incremental) {
+                String key = localProviderUrlKeys.get(providerUrl);
+                Map<String, Invoker<T>> localUrlInvokerMap = this.urlInvokerMap; // local reference
+                Invoker<T> invoker = key == null || localUrlInvokerMap == null ? null : localUrlInvokerMap.get(key);
+                if (invoker != null) {
+                    newProviderUrlKeys.put(providerUrl, key);
+                    if (keys.add(key)) {
+                        newUrlInvokerMap.put(key, invoker);
+                    }
+                    continue;
+                }
+            }
             // If protocol is configured at the reference side, only the matching protocol is selected
             if (queryProtocols != null && queryProtocols.length() > 0) {
                 boolean accept = false;
@@ -393,9 +458,11 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
                 }
                 if (invoker != null) { // Put new invoker in cache
                     newUrlInvokerMap.put(key, invoker);
+                    newProviderUrlKeys.put(providerUrl, key);
                 }
             } else {
                 newUrlInvokerMap.put(key, invoker);
+                newProviderUrlKeys.put(providerUrl, key);
             }
         }
         keys.clear();
@@ -420,9 +487,6 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
 
         providerUrl = providerUrl.addParameter(Constants.CHECK_KEY, String.valueOf(false)); // Do not check whether the connection is successful or not, always create Invoker!
 
-        // The combination of directoryUrl and override is at the end of notify, which can't be handled here
-        this.overrideDirectoryUrl = this.overrideDirectoryUrl.addParametersIfAbsent(providerUrl.getParameters()); // Merge the provider side parameters
-
         if ((providerUrl.getPath() == null || providerUrl.getPath().length() == 0)
                 && "dubbo".equals(providerUrl.getProtocol())) { // Compatible version 1.0
             //fix by tony.chenl DUBBO-44
@@ -541,7 +605,7 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
         // check deleted invoker
         List<String> deleted = null;
         if (oldUrlInvokerMap != null) {
-            Collection<Invoker<T>> newInvokers = newUrlInvokerMap.values();
+            Set<Invoker<T>> newInvokers = new HashSet<Invoker<T>>(newUrlInvokerMap.values());
             for (Map.Entry<String, Invoker<T>> entry : oldUrlInvokerMap.entrySet()) {
                 if (!newInvokers.contains(entry.getValue())) {
                     if (deleted == null) {
@@ -644,6 +708,32 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
         return methodInvokerMap;
     }
 
+    public long getRefreshCount() {
+        return refreshCount;
+    }
+
+    /**
+     * @return total time spent refreshing invokers, in milliseconds
+     */
+    public long getRefreshElapsed() {
+        return refreshElapsed;
+    }
+
+    /**
+     * @return time spent by the last refresh, in milliseconds
+     */
+    public long getLastRefreshElapsed() {
+        return lastRefreshElapsed;
+    }
+
+    public int getLastRefreshAdded() {
+        return lastRefreshAdded;
+    }
+
+    public int getLastRefreshRemoved() {
+        return lastRefreshRemoved;
+    }
+
     private static class InvokerComparator implements Comparator<Invoker<?>> {
 
         private static final InvokerComparator comparator = new InvokerComparator();
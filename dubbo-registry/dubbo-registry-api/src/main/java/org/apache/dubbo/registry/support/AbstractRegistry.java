@@ -46,6 +46,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -67,6 +68,10 @@ public abstract class AbstractRegistry implements Registry {
     private final ExecutorService registryCacheExecutor = Executors.newFixedThreadPool(1, new NamedThreadFactory("DubboSaveRegistryCache", true));
     // Is it synchronized to save the file
     private final boolean syncSaveFile;
+    // Is the file saved in the binary format, see BinaryRegistryCache
+    private final boolean binaryFile;
+    // Whether an asynchronous save is queued, the changes made before it runs are all written by it
+    private final AtomicBoolean savePending = new AtomicBoolean();
     private final AtomicLong lastCacheChanged = new AtomicLong();
     private final Set<URL> registered = new ConcurrentHashSet<URL>();
     private final ConcurrentMap<URL, Set<NotifyListener>> subscribed = new ConcurrentHashMap<URL, Set<NotifyListener>>();
@@ -79,6 +84,7 @@ public abstract class AbstractRegistry implements Registry {
         setUrl(url);
         // Start file save timer
         syncSaveFile = url.getParameter(Constants.REGISTRY_FILESAVE_SYNC_KEY, false);
+        binaryFile = Constants.REGISTRY_FILE_FORMAT_BINARY.equals(url.getParameter(Constants.REGISTRY_FILE_FORMAT_KEY, Constants.REGISTRY_FILE_FORMAT_PROPERTIES));
         String filename = url.getParameter(Constants.FILE_KEY, System.getProperty("user.home") + "/.dubbo/dubbo-registry-" + url.getParameter(Constants.APPLICATION_KEY) + "-" + url.getAddress() + ".cache");
         File file = null;
         if (ConfigUtils.isNotEmpty(filename)) {
@@ -162,14 +168,18 @@ public abstract class AbstractRegistry implements Registry {
                     }
                     // Save
                     try {
-                        if (!file.exists()) {
-                            file.createNewFile();
-                        }
-                        FileOutputStream outputFile = new FileOutputStream(file);
-                        try {
-                            properties.store(outputFile, "Dubbo Registry Cache");
-                        } finally {
-                            outputFile.close();
+                        if (binaryFile) {
+                            BinaryRegistryCache.write(snapshotProperties(), file);
+                        } else {
+                            if (!file.exists()) {
+                                file.createNewFile();
+                            }
+                            FileOutputStream outputFile = new FileOutputStream(file);
+                            try {
+                                properties.store(outputFile, "Dubbo Registry Cache");
+                            } finally {
+                                outputFile.close();
+                            }
                         }
                     } finally {
                         lock.release();
@@ -184,16 +194,33 @@ public abstract class AbstractRegistry implements Registry {
             if (version < lastCacheChanged.get()) {
                 return;
             } else {
-                registryCacheExecutor.execute(new SaveProperties(lastCacheChanged.incrementAndGet()));
+                lastCacheChanged.incrementAndGet();
+                scheduleSaveProperties();
             }
             logger.warn("Failed to save registry store file, cause: " + e.getMessage(), e);
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private Map<String, String> snapshotProperties() {
+        Map<String, String> snapshot = new HashMap<String, String>();
+        for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) properties.clone()).entrySet()) {
+            snapshot.put((String) entry.getKey(), (String) entry.getValue());
+        }
+        return snapshot;
+    }
+
     private void loadProperties() {
         if (file != null && file.exists()) {
             InputStream in = null;
             try {
+                if (BinaryRegistryCache.isBinary(file)) {
+                    properties.putAll(BinaryRegistryCache.read(file));
+                    if (logger.isInfoEnabled()) {
+                        logger.info("Load registry store file " + file + ", entries: " + properties.size());
+                    }
+                    return;
+                }
                 in = new FileInputStream(file);
                 properties.load(in);
                 if (logger.isInfoEnabled()) {
@@ -214,19 +241,18 @@ public abstract class AbstractRegistry implements Registry {
     }
 
     public List<URL> getCacheUrls(URL url) {
-        for (Map.Entry<Object, Object> entry : properties.entrySet()) {
-            String key = (String) entry.getKey();
-            String value = (String) entry.getValue();
-            if (key != null && key.length() > 0 && key.equals(url.getServiceKey())
-                    && (Character.isLetter(key.charAt(0)) || key.charAt(0) == '_')
-                    && value != null && value.length() > 0) {
-                String[] arr = value.trim().split(URL_SPLIT);
-                List<URL> urls = new ArrayList<URL>();
-                for (String u : arr) {
-                    urls.add(URL.valueOf(u));
-                }
-                return urls;
+        String key = url.getServiceKey();
+        if (key == null || key.length() == 0 || !(Character.isLetter(key.charAt(0)) || key.charAt(0) == '_')) {
+            return null;
+        }
+        String value = properties.getProperty(key);
+        if (value != null && value.length() > 0) {
+            String[] arr = value.trim().split(URL_SPLIT);
+            List<URL> urls = new ArrayList<URL>();
+            for (String u : arr) {
+                urls.add(URL.valueOf(u));
             }
+            return urls;
         }
         return null;
     }
@@ -440,13 +466,22 @@ public abstract class AbstractRegistry implements Registry {
             if (syncSaveFile) {
                 doSaveProperties(version);
             } else {
-                registryCacheExecutor.execute(new SaveProperties(version));
+                scheduleSaveProperties();
             }
         } catch (Throwable t) {
             logger.warn(t.getMessage(), t);
         }
     }
 
+    /**
+     * Queues a save unless one is queued already, so a burst of changes is written by a single save.
+     */
+    private void scheduleSaveProperties() {
+        if (savePending.compareAndSet(false, true)) {
+            registryCacheExecutor.execute(new SaveProperties());
+        }
+    }
+
     @Override
     public void destroy() {
         if (logger.isInfoEnabled()) {
@@ -491,15 +526,11 @@ public abstract class AbstractRegistry implements Registry {
     }
 
     private class SaveProperties implements Runnable {
-        private long version;
-
-        private SaveProperties(long version) {
-            this.version = version;
-        }
 
         @Override
         public void run() {
-            doSaveProperties(version);
+            savePending.set(false);
+            doSaveProperties(lastCacheChanged.get());
         }
     }
 
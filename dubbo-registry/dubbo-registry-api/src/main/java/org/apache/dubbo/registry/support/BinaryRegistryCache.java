@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.registry.support;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot of the registry cache.
+ * <p>
+ * Layout: magic (int), format version (byte), entry count (int), then for every entry the length prefixed UTF-8
+ * bytes of its key and value, followed by the CRC32 of everything before it (long). A snapshot is written to a
+ * temporary file which then replaces the cache file, so a reader never sees half of a snapshot, and a snapshot which
+ * does not pass the checksum is rejected as a whole.
+ *
+ * @see AbstractRegistry
+ */
+final class BinaryRegistryCache {
+
+    static final int MAGIC = 0xDB0CAC4E;
+
+    static final byte VERSION = 1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private BinaryRegistryCache() {
+    }
+
+    /**
+     * Whether the file starts with the magic of the binary format, files of the properties format never do
+     */
+    static boolean isBinary(File file) throws IOException {
+        if (file.length() < 4) {
+            return false;
+        }
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] header = new byte[4];
+            int read = 0;
+            while (read < header.length) {
+                int n = in.read(header, read, header.length - read);
+                if (n < 0) {
+                    return false;
+                }
+                read += n;
+            }
+            return ByteBuffer.wrap(header).getInt() == MAGIC;
+        } finally {
+            in.close();
+        }
+    }
+
+    static Map<String, String> read(File file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        if (bytes.length < 4 + 1 + 4 + 8) {
+            throw new IOException("Truncated registry cache file " + file);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getLong(bytes.length - 8) != crc.getValue()) {
+            throw new IOException("Checksum mismatch of registry cache file " + file);
+        }
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a binary registry cache file " + file);
+            }
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version " + version + " of registry cache file " + file);
+            }
+            int count = buffer.getInt();
+            if (count < 0) {
+                throw new IOException("Corrupted registry cache file " + file);
+            }
+            Map<String, String> entries = new LinkedHashMap<String, String>(Math.min(count, 1 << 16) * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                String key = readString(buffer);
+                entries.put(key, readString(buffer));
+            }
+            return entries;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Corrupted registry cache file " + file, e);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Corrupted registry cache file " + file, e);
+        }
+    }
+
+    static void write(Map<String, String> entries, File file) throws IOException {
+        File tmp = new File(file.getAbsolutePath() + ".tmp");
+        CRC32 crc = new CRC32();
+        CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(new FileOutputStream(tmp), 64 * 1024), crc);
+        DataOutputStream out = new DataOutputStream(checked);
+        try {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+            out.writeLong(crc.getValue());
+        } finally {
+            out.close();
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Invalid string length " + length);
+        }
+        String value = new String(buffer.array(), buffer.position(), length, UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value == null ? "" : value).getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+}
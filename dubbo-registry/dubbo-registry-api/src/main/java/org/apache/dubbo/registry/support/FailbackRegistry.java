@@ -23,8 +23,10 @@ import org.apache.dubbo.common.utils.ExecutorUtil;
 import org.apache.dubbo.common.utils.NamedThreadFactory;
 import org.apache.dubbo.registry.NotifyListener;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -34,7 +36,9 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * FailbackRegistry. (SPI, Prototype, ThreadSafe)
@@ -63,6 +67,24 @@ public abstract class FailbackRegistry extends AbstractRegistry {
      */
     private final int retryPeriod;
 
+    /**
+     * The window and the longest delay in milliseconds of merged notifications, notifications are not merged if 0
+     */
+    private final int notifyDelay;
+
+    private final int notifyMaxDelay;
+
+    // Scheduled executor service of the merged notifications, null if notifications are not merged
+    private final ScheduledExecutorService notifyExecutor;
+
+    private final ConcurrentMap<URL, ConcurrentMap<NotifyListener, NotifyState>> notifyStates = new ConcurrentHashMap<URL, ConcurrentMap<NotifyListener, NotifyState>>();
+
+    // Notifications merged into a later one
+    private final AtomicLong coalescedNotifications = new AtomicLong();
+
+    // Notifications delivered after a delay, each one carrying one or more merged notifications
+    private final AtomicLong delayedNotifications = new AtomicLong();
+
     public FailbackRegistry(URL url) {
         super(url);
         this.retryPeriod = url.getParameter(Constants.REGISTRY_RETRY_PERIOD_KEY, Constants.DEFAULT_REGISTRY_RETRY_PERIOD);
@@ -77,6 +99,15 @@ public abstract class FailbackRegistry extends AbstractRegistry {
                 }
             }
         }, retryPeriod, retryPeriod, TimeUnit.MILLISECONDS);
+        this.notifyDelay = url.getParameter(Constants.REGISTRY_NOTIFY_DELAY_KEY, 0);
+        this.notifyMaxDelay = Math.max(notifyDelay, url.getParameter(Constants.REGISTRY_NOTIFY_MAX_DELAY_KEY, Constants.DEFAULT_REGISTRY_NOTIFY_MAX_DELAY));
+        if (notifyDelay > 0) {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("DubboRegistryNotifyTimer", true));
+            executor.setRemoveOnCancelPolicy(true);
+            this.notifyExecutor = executor;
+        } else {
+            this.notifyExecutor = null;
+        }
     }
 
     public Future<?> getRetryFuture() {
@@ -103,6 +134,14 @@ public abstract class FailbackRegistry extends AbstractRegistry {
         return failedNotified;
     }
 
+    public long getCoalescedNotifications() {
+        return coalescedNotifications.get();
+    }
+
+    public long getDelayedNotifications() {
+        return delayedNotifications.get();
+    }
+
     private void addFailedSubscribed(URL url, NotifyListener listener) {
         Set<NotifyListener> listeners = failedSubscribed.get(url);
         if (listeners == null) {
@@ -225,6 +264,7 @@ public abstract class FailbackRegistry extends AbstractRegistry {
     public void unsubscribe(URL url, NotifyListener listener) {
         super.unsubscribe(url, listener);
         removeFailedSubscribed(url, listener);
+        removeNotifyState(url, listener);
         try {
             // Sending a canceling subscription request to the server side
             doUnsubscribe(url, listener);
@@ -262,6 +302,133 @@ public abstract class FailbackRegistry extends AbstractRegistry {
         if (listener == null) {
             throw new IllegalArgumentException("notify listener == null");
         }
+        if (notifyExecutor == null) {
+            notifyNow(url, listener, urls);
+            return;
+        }
+        NotifyState state = getNotifyState(url, listener);
+        synchronized (state) {
+            long now = System.currentTimeMillis();
+            // The first change after a quiet period is notified right away, the following ones are merged
+            boolean quiet = state.pending == null && !state.notifying && now - state.lastNotified >= notifyDelay;
+            if (!quiet) {
+                mergePending(url, listener, state, urls, now);
+                return;
+            }
+            state.lastNotified = now;
+            state.notifying = true;
+        }
+        notifyOutsideLock(url, listener, state, urls);
+    }
+
+    /**
+     * Merges a notification into the pending one of the subscription and schedules it, under the lock of the state.
+     */
+    private void mergePending(URL url, NotifyListener listener, NotifyState state, List<URL> urls, long now) {
+        if (state.pending == null) {
+            state.pending = new LinkedHashMap<String, List<URL>>();
+            state.firstPending = now;
+        } else {
+            coalescedNotifications.incrementAndGet();
+            state.future.cancel(false);
+        }
+        // Every notification carries the whole list of its categories, the latest list of a category wins
+        Map<String, List<URL>> categories = new LinkedHashMap<String, List<URL>>();
+        for (URL u : urls) {
+            String category = u.getParameter(Constants.CATEGORY_KEY, Constants.DEFAULT_CATEGORY);
+            List<URL> categoryList = categories.get(category);
+            if (categoryList == null) {
+                categoryList = new ArrayList<URL>();
+                categories.put(category, categoryList);
+            }
+            categoryList.add(u);
+        }
+        state.pending.putAll(categories);
+        long delay = Math.min(now + notifyDelay, state.firstPending + notifyMaxDelay) - now;
+        schedulePending(url, listener, state, Math.max(delay, 0));
+    }
+
+    private void schedulePending(final URL url, final NotifyListener listener, final NotifyState state, long delay) {
+        state.future = notifyExecutor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                notifyPending(url, listener, state);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void notifyPending(URL url, NotifyListener listener, NotifyState state) {
+        List<URL> urls = new ArrayList<URL>();
+        synchronized (state) {
+            if (state.pending == null) {
+                return;
+            }
+            if (state.notifying) {
+                // the listener is still busy with the previous notification, which must not be overtaken
+                schedulePending(url, listener, state, notifyDelay);
+                return;
+            }
+            for (List<URL> categoryList : state.pending.values()) {
+                urls.addAll(categoryList);
+            }
+            state.pending = null;
+            state.lastNotified = System.currentTimeMillis();
+            state.notifying = true;
+        }
+        delayedNotifications.incrementAndGet();
+        notifyOutsideLock(url, listener, state, urls);
+    }
+
+    /**
+     * Notifies without holding the lock of the state, so that the registry keeps merging changes meanwhile and a
+     * listener calling back into the registry cannot deadlock with it.
+     */
+    private void notifyOutsideLock(URL url, NotifyListener listener, NotifyState state, List<URL> urls) {
+        try {
+            notifyNow(url, listener, urls);
+        } finally {
+            synchronized (state) {
+                state.notifying = false;
+            }
+        }
+    }
+
+    private NotifyState getNotifyState(URL url, NotifyListener listener) {
+        for (; ; ) {
+            ConcurrentMap<NotifyListener, NotifyState> states = notifyStates.get(url);
+            if (states == null) {
+                notifyStates.putIfAbsent(url, new ConcurrentHashMap<NotifyListener, NotifyState>());
+                states = notifyStates.get(url);
+            }
+            NotifyState state = states.get(listener);
+            if (state == null) {
+                states.putIfAbsent(listener, new NotifyState());
+                state = states.get(listener);
+            }
+            // the map may have been removed as empty meanwhile
+            if (notifyStates.get(url) == states) {
+                return state;
+            }
+        }
+    }
+
+    private void removeNotifyState(URL url, NotifyListener listener) {
+        Map<NotifyListener, NotifyState> states = notifyStates.get(url);
+        NotifyState state = states == null ? null : states.remove(listener);
+        if (states != null && states.isEmpty()) {
+            notifyStates.remove(url, states);
+        }
+        if (state != null) {
+            synchronized (state) {
+                if (state.future != null) {
+                    state.future.cancel(false);
+                }
+                state.pending = null;
+            }
+        }
+    }
+
+    private void notifyNow(URL url, NotifyListener listener, List<URL> urls) {
         try {
             doNotify(url, listener, urls);
         } catch (Exception t) {
@@ -447,6 +614,9 @@ public abstract class FailbackRegistry extends AbstractRegistry {
             logger.warn(t.getMessage(), t);
         }
         ExecutorUtil.gracefulShutdown(retryExecutor, retryPeriod);
+        if (notifyExecutor != null) {
+            notifyExecutor.shutdownNow();
+        }
     }
 
     // ==== Template method ====
@@ -459,4 +629,21 @@ public abstract class FailbackRegistry extends AbstractRegistry {
 
     protected abstract void doUnsubscribe(URL url, NotifyListener listener);
 
+    /**
+     * The notifications of one subscription waiting to be merged.
+     */
+    private static final class NotifyState {
+
+        private long lastNotified;
+
+        private long firstPending;
+
+        // category -> urls, null if nothing is waiting
+        private Map<String, List<URL>> pending;
+
+        private ScheduledFuture<?> future;
+
+        // whether a notification is being delivered to the listener
+        private boolean notifying;
+    }
 }
@@ -26,6 +26,8 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.RandomAccessFile;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -533,4 +535,52 @@ public class AbstractRegistryTest {
         cacheUrl = abstractRegistry.getCacheUrls(nullUrl);
         Assert.assertTrue(Objects.isNull(cacheUrl));
     }
+
+    @Test
+    public void testBinaryCacheFile() throws Exception {
+        File file = File.createTempFile("dubbo-registry", ".cache");
+        try {
+            URL registryUrl = URL.valueOf("dubbo://192.168.0.2:2233?save.file=true&file.format=binary")
+                    .addParameter(Constants.FILE_KEY, file.getAbsolutePath());
+            AbstractRegistry registry = newRegistry(registryUrl);
+            List<URL> urls = new ArrayList<>();
+            urls.add(testUrl);
+            registry.notify(testUrl, listener, urls);
+            Assert.assertTrue(BinaryRegistryCache.isBinary(file));
+
+            // a new registry loads the snapshot
+            List<URL> cacheUrls = newRegistry(registryUrl).getCacheUrls(testUrl);
+            Assert.assertEquals(urls, cacheUrls);
+
+            // a snapshot failing the checksum is not loaded at all
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                raf.seek(raf.length() / 2);
+                int b = raf.read();
+                raf.seek(raf.length() / 2);
+                raf.write(b ^ 0xFF);
+            } finally {
+                raf.close();
+            }
+            Assert.assertTrue(newRegistry(registryUrl).getCacheProperties().isEmpty());
+
+            // a file of the properties format is still loaded
+            URL propertiesUrl = registryUrl.removeParameter(Constants.REGISTRY_FILE_FORMAT_KEY);
+            newRegistry(propertiesUrl).notify(testUrl, listener, urls);
+            Assert.assertFalse(BinaryRegistryCache.isBinary(file));
+            Assert.assertEquals(urls, newRegistry(registryUrl).getCacheUrls(testUrl));
+        } finally {
+            file.delete();
+            new File(file.getAbsolutePath() + ".lock").delete();
+        }
+    }
+
+    private AbstractRegistry newRegistry(URL url) {
+        return new AbstractRegistry(url) {
+            @Override
+            public boolean isAvailable() {
+                return false;
+            }
+        };
+    }
 }
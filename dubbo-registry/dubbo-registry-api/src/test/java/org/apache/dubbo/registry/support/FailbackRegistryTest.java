@@ -24,13 +24,18 @@ import org.apache.dubbo.registry.NotifyListener;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.lang.reflect.Field;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class FailbackRegistryTest {
     static String service;
@@ -181,6 +186,81 @@ public class FailbackRegistryTest {
     }
 
 
+    @Test
+    public void testNotifyCoalesced() throws Exception {
+        final List<List<URL>> notified = new CopyOnWriteArrayList<List<URL>>();
+        NotifyListener listener = new NotifyListener() {
+            @Override
+            public void notify(List<URL> urls) {
+                notified.add(urls);
+            }
+        };
+        URL subscribeUrl = serviceUrl.setProtocol(Constants.CONSUMER_PROTOCOL).addParameters(CollectionUtils.toStringMap("check", "false"));
+        registry = new MockRegistry(registryUrl.addParameter(Constants.REGISTRY_NOTIFY_DELAY_KEY, 200), new CountDownLatch(1));
+        registry.subscribe(subscribeUrl, listener);
+        // the first notification is not delayed
+        assertEquals(1, notified.size());
+
+        for (int i = 1; i <= 5; i++) {
+            registry.notify(subscribeUrl, listener, Arrays.asList(serviceUrl.addParameter("weight", i)));
+        }
+        assertEquals(1, notified.size());
+        for (int i = 0; i < trytimes * 10 && notified.size() < 2; i++) {
+            Thread.sleep(sleeptime);
+        }
+        assertEquals(2, notified.size());
+        assertEquals("5", notified.get(1).get(0).getParameter("weight"));
+        assertEquals(4, registry.getCoalescedNotifications());
+        assertEquals(1, registry.getDelayedNotifications());
+        registry.destroy();
+    }
+
+    @Test
+    public void testNotifyOutsideLock() throws Exception {
+        final AtomicInteger notified = new AtomicInteger();
+        final CountDownLatch other = new CountDownLatch(1);
+        final URL subscribeUrl = serviceUrl.setProtocol(Constants.CONSUMER_PROTOCOL).addParameters(CollectionUtils.toStringMap("check", "false"));
+        registry = new MockRegistry(registryUrl.addParameter(Constants.REGISTRY_NOTIFY_DELAY_KEY, 100), new CountDownLatch(1));
+        final NotifyListener listener = new NotifyListener() {
+            @Override
+            public void notify(List<URL> urls) {
+                if (notified.incrementAndGet() != 2) {
+                    return;
+                }
+                // the delayed notification waits for a change notified by another thread meanwhile
+                final NotifyListener self = this;
+                new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        registry.notify(subscribeUrl, self, Arrays.asList(serviceUrl.addParameter("weight", 3)));
+                        other.countDown();
+                    }
+                }).start();
+                try {
+                    other.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        registry.subscribe(subscribeUrl, listener);
+        registry.notify(subscribeUrl, listener, Arrays.asList(serviceUrl.addParameter("weight", 2)));
+        for (int i = 0; i < trytimes * 10 && other.getCount() > 0; i++) {
+            Thread.sleep(sleeptime);
+        }
+        assertEquals(0, other.getCount());
+        for (int i = 0; i < trytimes * 10 && notified.get() < 3; i++) {
+            Thread.sleep(sleeptime);
+        }
+        assertEquals(3, notified.get());
+
+        registry.unsubscribe(subscribeUrl, listener);
+        Field notifyStates = FailbackRegistry.class.getDeclaredField("notifyStates");
+        notifyStates.setAccessible(true);
+        assertTrue(((Map<?, ?>) notifyStates.get(registry)).isEmpty());
+        registry.destroy();
+    }
+
     private static class MockRegistry extends FailbackRegistry {
         CountDownLatch latch;
         private boolean bad = false;
@@ -42,6 +42,7 @@ import org.junit.Test;
 import javax.script.ScriptEngineManager;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
@@ -125,6 +126,51 @@ public class RegistryDirectoryTest {
         testforbid(registryDirectory);
     }
 
+    @Test
+    public void testNotified_IncrementalRefresh() {
+        RegistryDirectory registryDirectory = getRegistryDirectory(URL.valueOf("notsupport:/" + service + "?refer="
+                + URL.encode("interface=" + service + "&" + Constants.INCREMENTAL_REFRESH_KEY + "=true")));
+        test_Notified2invokers(registryDirectory);
+        test_Notified1invokers(registryDirectory);
+        test_Notified3invokers(registryDirectory);
+
+        Map<String, Invoker<?>> urlInvokerMap = new HashMap<String, Invoker<?>>(registryDirectory.getUrlInvokerMap());
+        List<URL> serviceUrls = new ArrayList<URL>();
+        serviceUrls.add(SERVICEURL.addParameter("methods", "getXXX1"));
+        serviceUrls.add(SERVICEURL2.addParameter("methods", "getXXX1,getXXX2"));
+        serviceUrls.add(URL.valueOf("dubbo://127.0.0.1:9094/" + service + "?lazy=true&side=consumer&methods=getXXX1,getXXX2"));
+        registryDirectory.notify(serviceUrls);
+        Assert.assertEquals(1, registryDirectory.getLastRefreshAdded());
+        Assert.assertEquals(1, registryDirectory.getLastRefreshRemoved());
+        Assert.assertEquals(4, registryDirectory.getRefreshCount());
+        Map<String, Invoker<?>> refreshed = registryDirectory.getUrlInvokerMap();
+        Assert.assertEquals(3, refreshed.size());
+        int retained = 0;
+        for (Map.Entry<String, Invoker<?>> entry : refreshed.entrySet()) {
+            if (entry.getValue() == urlInvokerMap.get(entry.getKey())) {
+                retained++;
+            }
+        }
+        Assert.assertEquals(2, retained);
+        // the parameters of the reused providers are still merged into the directory url, in notified order
+        Assert.assertEquals("getXXX1", registryDirectory.getUrl().getParameter("methods"));
+
+        invocation = new RpcInvocation();
+        invocation.setMethodName("getXXX2");
+        Assert.assertEquals(2, registryDirectory.list(invocation).size());
+        invocation.setMethodName("getXXX3");
+        Assert.assertEquals(3, registryDirectory.list(invocation).size());
+
+        // a configurator change merges all provider urls again
+        List<URL> overrideUrls = new ArrayList<URL>();
+        overrideUrls.add(URL.valueOf("override://0.0.0.0?timeout=1000"));
+        registryDirectory.notify(overrideUrls);
+        refreshed = registryDirectory.getUrlInvokerMap();
+        for (Invoker<?> invoker : refreshed.values()) {
+            Assert.assertEquals("1000", invoker.getUrl().getParameter("timeout"));
+        }
+    }
+
     /**
      * Test push only router
      */
@@ -491,6 +537,36 @@ public class RegistryDirectoryTest {
         Assert.assertEquals(1, invokers.size());
     }
 
+    /**
+     * Each method lists its own invoker list, alternating the methods keeps the route results of both.
+     */
+    @Test
+    public void testRouteCacheAlternatingMethods() {
+        RegistryDirectory registryDirectory = getRegistryDirectory();
+        List<URL> serviceUrls = new ArrayList<URL>();
+        serviceUrls.add(SERVICEURL.addParameter("methods", "getXXX1,getXXX2"));
+        serviceUrls.add(SERVICEURL2.addParameter("methods", "getXXX2"));
+        serviceUrls.add(SERVICEURL3.addParameter("methods", "getXXX2"));
+        serviceUrls.add(URL.valueOf("condition://0.0.0.0/?category=routers&runtime=true&rule="
+                + URL.encode("method = getXXX2 => port = 9092")));
+        registryDirectory.notify(serviceUrls);
+
+        RpcInvocation invocation1 = new RpcInvocation();
+        invocation1.setMethodName("getXXX1");
+        RpcInvocation invocation2 = new RpcInvocation();
+        invocation2.setMethodName("getXXX2");
+        List<Invoker<?>> routed1 = registryDirectory.list(invocation1);
+        List<Invoker<?>> routed2 = registryDirectory.list(invocation2);
+        Assert.assertEquals(1, routed1.size());
+        Assert.assertEquals(9091, routed1.get(0).getUrl().getPort());
+        Assert.assertEquals(1, routed2.size());
+        Assert.assertEquals(9092, routed2.get(0).getUrl().getPort());
+        for (int i = 0; i < 10; i++) {
+            Assert.assertSame(routed1, registryDirectory.list(invocation1));
+            Assert.assertSame(routed2, registryDirectory.list(invocation2));
+        }
+    }
+
     /**
      * Empty notify cause forbidden, non-empty notify cancels forbidden state
      */
@@ -32,6 +32,10 @@ import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -63,6 +67,12 @@ public class RedisRegistry extends FailbackRegistry {
 
     private final static String DEFAULT_ROOT = "dubbo";
 
+    // Number of commands sent in one pipeline before reading their replies
+    private static final int PIPELINE_BATCH_SIZE = 1000;
+
+    // Number of keys a SCAN call is asked to walk through
+    private static final int SCAN_COUNT = 1000;
+
     private final ScheduledExecutorService expireExecutor = Executors.newScheduledThreadPool(1, new NamedThreadFactory("DubboRegistryExpireTimer", true));
 
     private final ScheduledFuture<?> expireFuture;
@@ -81,6 +91,14 @@ public class RedisRegistry extends FailbackRegistry {
 
     private boolean replicate;
 
+    private volatile int lastDeferExpiredCount;
+
+    private volatile long lastDeferExpiredElapsed;
+
+    private volatile int lastCleanDeleted;
+
+    private volatile long lastCleanElapsed;
+
     public RedisRegistry(URL url) {
         super(url);
         if (url.isAnyHost()) {
@@ -173,13 +191,11 @@ public class RedisRegistry extends FailbackRegistry {
             try {
                 Jedis jedis = jedisPool.getResource();
                 try {
-                    for (URL url : new HashSet<URL>(getRegistered())) {
-                        if (url.getParameter(Constants.DYNAMIC_KEY, true)) {
-                            String key = toCategoryPath(url);
-                            if (jedis.hset(key, url.toFullString(), String.valueOf(System.currentTimeMillis() + expirePeriod)) == 1) {
-                                jedis.publish(key, Constants.REGISTER);
-                            }
-                        }
+                    long start = System.currentTimeMillis();
+                    lastDeferExpiredCount = renew(jedis);
+                    lastDeferExpiredElapsed = System.currentTimeMillis() - start;
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Renewed " + lastDeferExpiredCount + " urls in redis registry " + entry.getKey() + ", elapsed: " + lastDeferExpiredElapsed + "ms");
                     }
                     if (admin) {
                         clean(jedis);
@@ -196,34 +212,144 @@ public class RedisRegistry extends FailbackRegistry {
         }
     }
 
+    // Extend the expiration time of the registered urls, the writes are pipelined and a key is published once if any of its urls was missing
+    private int renew(Jedis jedis) {
+        List<URL> urls = new ArrayList<URL>();
+        for (URL url : new HashSet<URL>(getRegistered())) {
+            if (url.getParameter(Constants.DYNAMIC_KEY, true)) {
+                urls.add(url);
+            }
+        }
+        String expire = String.valueOf(System.currentTimeMillis() + expirePeriod);
+        Set<String> registeredKeys = new HashSet<String>();
+        for (int from = 0; from < urls.size(); from += PIPELINE_BATCH_SIZE) {
+            List<URL> batch = urls.subList(from, Math.min(from + PIPELINE_BATCH_SIZE, urls.size()));
+            List<String> keys = new ArrayList<String>(batch.size());
+            List<Response<Long>> responses = new ArrayList<Response<Long>>(batch.size());
+            Pipeline pipeline = jedis.pipelined();
+            for (URL url : batch) {
+                String key = toCategoryPath(url);
+                keys.add(key);
+                responses.add(pipeline.hset(key, url.toFullString(), expire));
+            }
+            pipeline.sync();
+            for (int i = 0; i < responses.size(); i++) {
+                if (responses.get(i).get() == 1) {
+                    registeredKeys.add(keys.get(i));
+                }
+            }
+        }
+        publish(jedis, registeredKeys, Constants.REGISTER);
+        return urls.size();
+    }
+
     // The monitoring center is responsible for deleting outdated dirty data
     private void clean(Jedis jedis) {
-        Set<String> keys = jedis.keys(root + Constants.ANY_VALUE);
-        if (keys != null && !keys.isEmpty()) {
-            for (String key : keys) {
-                Map<String, String> values = jedis.hgetAll(key);
-                if (values != null && values.size() > 0) {
-                    boolean delete = false;
-                    long now = System.currentTimeMillis();
-                    for (Map.Entry<String, String> entry : values.entrySet()) {
-                        URL url = URL.valueOf(entry.getKey());
-                        if (url.getParameter(Constants.DYNAMIC_KEY, true)) {
-                            long expire = Long.parseLong(entry.getValue());
-                            if (expire < now) {
-                                jedis.hdel(key, entry.getKey());
-                                delete = true;
-                                if (logger.isWarnEnabled()) {
-                                    logger.warn("Delete expired key: " + key + " -> value: " + entry.getKey() + ", expire: " + new Date(expire) + ", now: " + new Date(now));
-                                }
+        long start = System.currentTimeMillis();
+        int deleted = 0;
+        ScanParams params = new ScanParams().match(root + Constants.ANY_VALUE).count(SCAN_COUNT);
+        String cursor = ScanParams.SCAN_POINTER_START;
+        do {
+            ScanResult<String> result = jedis.scan(cursor, params);
+            cursor = result.getStringCursor();
+            deleted += clean(jedis, result.getResult());
+        } while (!ScanParams.SCAN_POINTER_START.equals(cursor));
+        lastCleanDeleted = deleted;
+        lastCleanElapsed = System.currentTimeMillis() - start;
+        if (logger.isDebugEnabled()) {
+            logger.debug("Cleaned " + deleted + " expired urls from redis registry, elapsed: " + lastCleanElapsed + "ms");
+        }
+    }
+
+    private int clean(Jedis jedis, List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return 0;
+        }
+        Pipeline pipeline = jedis.pipelined();
+        List<Response<Map<String, String>>> responses = new ArrayList<Response<Map<String, String>>>(keys.size());
+        for (String key : keys) {
+            responses.add(pipeline.hgetAll(key));
+        }
+        pipeline.sync();
+        int deleted = 0;
+        Set<String> unregisteredKeys = new HashSet<String>();
+        pipeline = jedis.pipelined();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            Map<String, String> values = responses.get(i).get();
+            if (values != null && values.size() > 0) {
+                for (Map.Entry<String, String> entry : values.entrySet()) {
+                    URL url = URL.valueOf(entry.getKey());
+                    if (url.getParameter(Constants.DYNAMIC_KEY, true)) {
+                        long expire = Long.parseLong(entry.getValue());
+                        if (expire < now) {
+                            pipeline.hdel(key, entry.getKey());
+                            unregisteredKeys.add(key);
+                            deleted++;
+                            if (logger.isWarnEnabled()) {
+                                logger.warn("Delete expired key: " + key + " -> value: " + entry.getKey() + ", expire: " + new Date(expire) + ", now: " + new Date(now));
                             }
                         }
                     }
-                    if (delete) {
-                        jedis.publish(key, Constants.UNREGISTER);
-                    }
                 }
             }
         }
+        pipeline.sync();
+        publish(jedis, unregisteredKeys, Constants.UNREGISTER);
+        return deleted;
+    }
+
+    private void publish(Jedis jedis, Collection<String> keys, String message) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        Pipeline pipeline = jedis.pipelined();
+        for (String key : keys) {
+            pipeline.publish(key, message);
+        }
+        pipeline.sync();
+    }
+
+    // Keys matching the pattern, walked with SCAN so that redis is not blocked the way KEYS does
+    private Set<String> scanKeys(Jedis jedis, String pattern) {
+        Set<String> keys = new HashSet<String>();
+        ScanParams params = new ScanParams().match(pattern).count(SCAN_COUNT);
+        String cursor = ScanParams.SCAN_POINTER_START;
+        do {
+            ScanResult<String> result = jedis.scan(cursor, params);
+            cursor = result.getStringCursor();
+            keys.addAll(result.getResult());
+        } while (!ScanParams.SCAN_POINTER_START.equals(cursor));
+        return keys;
+    }
+
+    /**
+     * Number of urls renewed by the last expiration renewal
+     */
+    public int getLastDeferExpiredCount() {
+        return lastDeferExpiredCount;
+    }
+
+    /**
+     * Milliseconds spent by the last expiration renewal
+     */
+    public long getLastDeferExpiredElapsed() {
+        return lastDeferExpiredElapsed;
+    }
+
+    /**
+     * Number of expired urls deleted by the last clean, only an admin registry cleans
+     */
+    public int getLastCleanDeleted() {
+        return lastCleanDeleted;
+    }
+
+    /**
+     * Milliseconds spent by the last clean, only an admin registry cleans
+     */
+    public long getLastCleanElapsed() {
+        return lastCleanElapsed;
     }
 
     @Override
@@ -358,7 +484,7 @@ public class RedisRegistry extends FailbackRegistry {
                 try {
                     if (service.endsWith(Constants.ANY_VALUE)) {
                         admin = true;
-                        Set<String> keys = jedis.keys(service);
+                        Set<String> keys = scanKeys(jedis, service);
                         if (keys != null && !keys.isEmpty()) {
                             Map<String, Set<String>> serviceKeys = new HashMap<String, Set<String>>();
                             for (String key : keys) {
@@ -375,7 +501,7 @@ public class RedisRegistry extends FailbackRegistry {
                             }
                         }
                     } else {
-                        doNotify(jedis, jedis.keys(service + Constants.PATH_SEPARATOR + Constants.ANY_VALUE), url, Arrays.asList(listener));
+                        doNotify(jedis, scanKeys(jedis, service + Constants.PATH_SEPARATOR + Constants.ANY_VALUE), url, Arrays.asList(listener));
                     }
                     success = true;
                     break; // Just read one server's data
@@ -590,7 +716,7 @@ public class RedisRegistry extends FailbackRegistry {
                                         if (service.endsWith(Constants.ANY_VALUE)) {
                                             if (!first) {
                                                 first = false;
-                                                Set<String> keys = jedis.keys(service);
+                                                Set<String> keys = scanKeys(jedis, service);
                                                 if (keys != null && !keys.isEmpty()) {
                                                     for (String s : keys) {
                                                         doNotify(jedis, s);
@@ -23,6 +23,7 @@ import org.apache.dubbo.registry.Registry;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import redis.clients.jedis.Jedis;
 import redis.embedded.RedisServer;
 
 import java.util.List;
@@ -30,6 +31,7 @@ import java.util.Map;
 import java.util.Set;
 
 import static org.apache.dubbo.common.Constants.BACKUP_KEY;
+import static org.apache.dubbo.common.Constants.SESSION_TIMEOUT_KEY;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
@@ -117,4 +119,37 @@ public class RedisRegistryTest {
 
         assertThat(registry.isAvailable(), is(true));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testDeferExpiredAndClean() throws Exception {
+        RedisRegistry registry = (RedisRegistry) new RedisRegistryFactory().createRegistry(registryUrl.addParameter(SESSION_TIMEOUT_KEY, 1000));
+        Jedis jedis = new Jedis(registryUrl.getHost(), registryUrl.getPort());
+        try {
+            for (int i = 0; i < 50; i++) {
+                registry.register(URL.valueOf("dubbo://10.0.0." + i + ":20880/" + service));
+            }
+            // an admin subscription makes the registry clean expired urls
+            registry.subscribe(URL.valueOf("admin://" + NetUtils.getLocalHost() + "/*?category=providers&check=false"), urls -> {
+            });
+            String key = "/dubbo/" + service + "/providers";
+            String expired = "dubbo://10.0.1.1:20880/" + service;
+            jedis.hset(key, expired, "1");
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while ((registry.getLastDeferExpiredCount() != 50 || jedis.hexists(key, expired))
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertThat(registry.getLastDeferExpiredCount(), is(50));
+            assertThat(jedis.hlen(key), is(50L));
+            assertThat(jedis.hexists(key, expired), is(false));
+            long now = System.currentTimeMillis();
+            for (String expire : jedis.hvals(key)) {
+                assertThat(Long.parseLong(expire) > now, is(true));
+            }
+        } finally {
+            jedis.close();
+            registry.destroy();
+        }
+    }
+}
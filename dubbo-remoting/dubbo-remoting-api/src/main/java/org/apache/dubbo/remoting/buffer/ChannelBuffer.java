@@ -17,6 +17,9 @@
 
 package org.apache.dubbo.remoting.buffer;
 
+import org.apache.dubbo.common.serialize.ByteInput;
+import org.apache.dubbo.common.serialize.ByteOutput;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -197,11 +200,12 @@ import java.nio.ByteBuffer;
  * <h4>I/O Streams</h4>
  * <p/>
  * Please refer to {@link ChannelBufferInputStream} and {@link
- * ChannelBufferOutputStream}.
+ * ChannelBufferOutputStream}. A {@link org.apache.dubbo.common.serialize.BufferSerialization}
+ * writes to and reads from the buffer directly.
  *
  *
  */
-public interface ChannelBuffer extends Comparable<ChannelBuffer> {
+public interface ChannelBuffer extends Comparable<ChannelBuffer>, ByteOutput, ByteInput {
 
     /**
      * Returns the number of bytes (octets) this buffer can contain.
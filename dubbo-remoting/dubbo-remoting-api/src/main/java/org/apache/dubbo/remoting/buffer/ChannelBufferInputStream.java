@@ -17,10 +17,16 @@
 
 package org.apache.dubbo.remoting.buffer;
 
+import org.apache.dubbo.common.serialize.ByteInput;
+
 import java.io.IOException;
 import java.io.InputStream;
 
-public class ChannelBufferInputStream extends InputStream {
+/**
+ * Reads the next {@code length} bytes of a buffer, either as a stream or, for a
+ * {@link org.apache.dubbo.common.serialize.BufferSerialization}, as a {@link ByteInput}.
+ */
+public class ChannelBufferInputStream extends InputStream implements ByteInput {
 
     private final ChannelBuffer buffer;
     private final int startIndex;
@@ -56,6 +62,29 @@ public class ChannelBufferInputStream extends InputStream {
         return endIndex - buffer.readerIndex();
     }
 
+    @Override
+    public int readableBytes() {
+        return endIndex - buffer.readerIndex();
+    }
+
+    @Override
+    public byte readByte() {
+        checkReadableBytes(1);
+        return buffer.readByte();
+    }
+
+    @Override
+    public void readBytes(byte[] dst, int dstIndex, int length) {
+        checkReadableBytes(length);
+        buffer.readBytes(dst, dstIndex, length);
+    }
+
+    private void checkReadableBytes(int length) {
+        if (length > readableBytes()) {
+            throw new IndexOutOfBoundsException("length: " + length + ", readable: " + readableBytes());
+        }
+    }
+
     @Override
     public void mark(int readlimit) {
         buffer.markReaderIndex();
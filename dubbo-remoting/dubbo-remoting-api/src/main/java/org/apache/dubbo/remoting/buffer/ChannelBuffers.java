@@ -90,6 +90,56 @@ public final class ChannelBuffers {
         return buffer;
     }
 
+    /**
+     * Get a big-endian short at the specified absolute index without modifying the indexes of the buffer.
+     */
+    public static short getShort(ChannelBuffer buffer, int index) {
+        return (short) (((buffer.getByte(index) & 0xFF) << 8) | (buffer.getByte(index + 1) & 0xFF));
+    }
+
+    /**
+     * Get a big-endian int at the specified absolute index without modifying the indexes of the buffer.
+     */
+    public static int getInt(ChannelBuffer buffer, int index) {
+        return ((buffer.getByte(index) & 0xFF) << 24)
+                | ((buffer.getByte(index + 1) & 0xFF) << 16)
+                | ((buffer.getByte(index + 2) & 0xFF) << 8)
+                | (buffer.getByte(index + 3) & 0xFF);
+    }
+
+    /**
+     * Get a big-endian long at the specified absolute index without modifying the indexes of the buffer.
+     */
+    public static long getLong(ChannelBuffer buffer, int index) {
+        return ((long) getInt(buffer, index) << 32) | (getInt(buffer, index + 4) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Set a big-endian short at the specified absolute index without modifying the indexes of the buffer.
+     */
+    public static void setShort(ChannelBuffer buffer, int index, int value) {
+        buffer.setByte(index, value >>> 8);
+        buffer.setByte(index + 1, value);
+    }
+
+    /**
+     * Set a big-endian int at the specified absolute index without modifying the indexes of the buffer.
+     */
+    public static void setInt(ChannelBuffer buffer, int index, int value) {
+        buffer.setByte(index, value >>> 24);
+        buffer.setByte(index + 1, value >>> 16);
+        buffer.setByte(index + 2, value >>> 8);
+        buffer.setByte(index + 3, value);
+    }
+
+    /**
+     * Set a big-endian long at the specified absolute index without modifying the indexes of the buffer.
+     */
+    public static void setLong(ChannelBuffer buffer, int index, long value) {
+        setInt(buffer, index, (int) (value >>> 32));
+        setInt(buffer, index + 4, (int) value);
+    }
+
     public static boolean equals(ChannelBuffer bufferA, ChannelBuffer bufferB) {
         final int aLen = bufferA.readableBytes();
         if (aLen != bufferB.readableBytes()) {
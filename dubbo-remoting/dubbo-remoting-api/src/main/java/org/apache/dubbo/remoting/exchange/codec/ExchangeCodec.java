@@ -30,7 +30,7 @@ import org.apache.dubbo.remoting.Channel;
 import org.apache.dubbo.remoting.RemotingException;
 import org.apache.dubbo.remoting.buffer.ChannelBuffer;
 import org.apache.dubbo.remoting.buffer.ChannelBufferInputStream;
-import org.apache.dubbo.remoting.buffer.ChannelBufferOutputStream;
+import org.apache.dubbo.remoting.buffer.ChannelBuffers;
 import org.apache.dubbo.remoting.exchange.Request;
 import org.apache.dubbo.remoting.exchange.Response;
 import org.apache.dubbo.remoting.exchange.support.DefaultFuture;
@@ -80,6 +80,26 @@ public class ExchangeCodec extends TelnetCodec {
     @Override
     public Object decode(Channel channel, ChannelBuffer buffer) throws IOException {
         int readable = buffer.readableBytes();
+        int readerIndex = buffer.readerIndex();
+        // dubbo frames are decoded from the buffer in place, only other protocols (e.g. telnet) need a header copy.
+        if ((readable < 1 || buffer.getByte(readerIndex) == MAGIC_HIGH)
+                && (readable < 2 || buffer.getByte(readerIndex + 1) == MAGIC_LOW)) {
+            // check length.
+            if (readable < HEADER_LENGTH) {
+                return DecodeResult.NEED_MORE_INPUT;
+            }
+            // get data length.
+            int len = ChannelBuffers.getInt(buffer, readerIndex + 12);
+            checkPayload(channel, len);
+            if (readable < len + HEADER_LENGTH) {
+                return DecodeResult.NEED_MORE_INPUT;
+            }
+            byte flag = buffer.getByte(readerIndex + 2);
+            byte status = buffer.getByte(readerIndex + 3);
+            long id = ChannelBuffers.getLong(buffer, readerIndex + 4);
+            buffer.readerIndex(readerIndex + HEADER_LENGTH);
+            return decodeFrame(channel, buffer, len, flag, status, id);
+        }
         byte[] header = new byte[Math.min(readable, HEADER_LENGTH)];
         buffer.readBytes(header);
         return decode(channel, buffer, readable, header);
@@ -118,11 +138,15 @@ public class ExchangeCodec extends TelnetCodec {
             return DecodeResult.NEED_MORE_INPUT;
         }
 
+        return decodeFrame(channel, buffer, len, header[2], header[3], Bytes.bytes2long(header, 4));
+    }
+
+    private Object decodeFrame(Channel channel, ChannelBuffer buffer, int len, byte flag, byte status, long id) throws IOException {
         // limit input stream.
         ChannelBufferInputStream is = new ChannelBufferInputStream(buffer, len);
 
         try {
-            return decodeBody(channel, is, header);
+            return decodeBody(channel, is, flag, status, id);
         } finally {
             if (is.available() > 0) {
                 try {
@@ -137,18 +161,15 @@ public class ExchangeCodec extends TelnetCodec {
         }
     }
 
-    protected Object decodeBody(Channel channel, InputStream is, byte[] header) throws IOException {
-        byte flag = header[2], proto = (byte) (flag & SERIALIZATION_MASK);
-        // get request id.
-        long id = Bytes.bytes2long(header, 4);
+    protected Object decodeBody(Channel channel, InputStream is, byte flag, byte status, long id) throws IOException {
+        byte proto = (byte) (flag & SERIALIZATION_MASK);
         if ((flag & FLAG_REQUEST) == 0) {
             // decode response.
             Response res = new Response(id);
             if ((flag & FLAG_EVENT) != 0) {
                 res.setEvent(Response.HEARTBEAT_EVENT);
             }
-            // get status.
-            byte status = header[3];
+            // set status.
             res.setStatus(status);
             try {
                 ObjectInput in = CodecSupport.deserialize(channel.getUrl(), is, proto);
@@ -210,31 +231,29 @@ public class ExchangeCodec extends TelnetCodec {
         return req.getData();
     }
 
+    /**
+     * @return whether the caller of the request waits for its response in threadless mode
+     */
+    protected boolean isWaitedThreadless(long id) {
+        DefaultFuture future = DefaultFuture.getFuture(id);
+        return future != null && future.getExecutor() != null;
+    }
+
     protected void encodeRequest(Channel channel, ChannelBuffer buffer, Request req) throws IOException {
         Serialization serialization = getSerialization(channel);
-        // header.
-        byte[] header = new byte[HEADER_LENGTH];
-        // set magic number.
-        Bytes.short2bytes(MAGIC, header);
-
         // set request and serialization flag.
-        header[2] = (byte) (FLAG_REQUEST | serialization.getContentTypeId());
-
+        byte flag = (byte) (FLAG_REQUEST | serialization.getContentTypeId());
         if (req.isTwoWay()) {
-            header[2] |= FLAG_TWOWAY;
+            flag |= FLAG_TWOWAY;
         }
         if (req.isEvent()) {
-            header[2] |= FLAG_EVENT;
+            flag |= FLAG_EVENT;
         }
 
-        // set request id.
-        Bytes.long2bytes(req.getId(), header, 4);
-
         // encode request data.
         int savedWriteIndex = buffer.writerIndex();
         buffer.writerIndex(savedWriteIndex + HEADER_LENGTH);
-        ChannelBufferOutputStream bos = new ChannelBufferOutputStream(buffer);
-        ObjectOutput out = serialization.serialize(channel.getUrl(), bos);
+        ObjectOutput out = CodecSupport.serialize(channel.getUrl(), serialization, buffer);
         if (req.isEvent()) {
             encodeEventData(channel, out, req.getData());
         } else {
@@ -244,40 +263,27 @@ public class ExchangeCodec extends TelnetCodec {
         if (out instanceof Cleanable) {
             ((Cleanable) out).cleanup();
         }
-        bos.flush();
-        bos.close();
-        int len = bos.writtenBytes();
+        int len = buffer.writerIndex() - savedWriteIndex - HEADER_LENGTH;
         checkPayload(channel, len);
-        Bytes.int2bytes(len, header, 12);
 
-        // write
-        buffer.writerIndex(savedWriteIndex);
-        buffer.writeBytes(header); // write header.
-        buffer.writerIndex(savedWriteIndex + HEADER_LENGTH + len);
+        // write header in place.
+        encodeHeader(buffer, savedWriteIndex, flag, (byte) 0, req.getId(), len);
     }
 
     protected void encodeResponse(Channel channel, ChannelBuffer buffer, Response res) throws IOException {
         int savedWriteIndex = buffer.writerIndex();
         try {
             Serialization serialization = getSerialization(channel);
-            // header.
-            byte[] header = new byte[HEADER_LENGTH];
-            // set magic number.
-            Bytes.short2bytes(MAGIC, header);
             // set request and serialization flag.
-            header[2] = serialization.getContentTypeId();
+            byte flag = serialization.getContentTypeId();
             if (res.isHeartbeat()) {
-                header[2] |= FLAG_EVENT;
+                flag |= FLAG_EVENT;
             }
             // set response status.
             byte status = res.getStatus();
-            header[3] = status;
-            // set request id.
-            Bytes.long2bytes(res.getId(), header, 4);
 
             buffer.writerIndex(savedWriteIndex + HEADER_LENGTH);
-            ChannelBufferOutputStream bos = new ChannelBufferOutputStream(buffer);
-            ObjectOutput out = serialization.serialize(channel.getUrl(), bos);
+            ObjectOutput out = CodecSupport.serialize(channel.getUrl(), serialization, buffer);
             // encode response data or error message.
             if (status == Response.OK) {
                 if (res.isHeartbeat()) {
@@ -292,16 +298,12 @@ public class ExchangeCodec extends TelnetCodec {
             if (out instanceof Cleanable) {
                 ((Cleanable) out).cleanup();
             }
-            bos.flush();
-            bos.close();
 
-            int len = bos.writtenBytes();
+            int len = buffer.writerIndex() - savedWriteIndex - HEADER_LENGTH;
             checkPayload(channel, len);
-            Bytes.int2bytes(len, header, 12);
-            // write
-            buffer.writerIndex(savedWriteIndex);
-            buffer.writeBytes(header); // write header.
-            buffer.writerIndex(savedWriteIndex + HEADER_LENGTH + len);
+
+            // write header in place.
+            encodeHeader(buffer, savedWriteIndex, flag, status, res.getId(), len);
         } catch (Throwable t) {
             // clear buffer
             buffer.writerIndex(savedWriteIndex);
@@ -345,6 +347,21 @@ public class ExchangeCodec extends TelnetCodec {
         }
     }
 
+    /**
+     * Write the header of a frame whose body has already been written after <code>index + HEADER_LENGTH</code>,
+     * setting the header fields directly on the buffer instead of copying them from a temporary array.
+     */
+    private void encodeHeader(ChannelBuffer buffer, int index, byte flag, byte status, long id, int len) {
+        // set magic number.
+        ChannelBuffers.setShort(buffer, index, MAGIC);
+        buffer.setByte(index + 2, flag);
+        buffer.setByte(index + 3, status);
+        // set request id.
+        ChannelBuffers.setLong(buffer, index + 4, id);
+        // set data length.
+        ChannelBuffers.setInt(buffer, index + 12, len);
+    }
+
     @Override
     protected Object decodeData(ObjectInput in) throws IOException {
         return decodeRequestData(in);
@@ -19,10 +19,9 @@ package org.apache.dubbo.remoting.exchange.support;
 import org.apache.dubbo.common.Constants;
 import org.apache.dubbo.common.logger.Logger;
 import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.threadpool.ThreadlessExecutor;
 import org.apache.dubbo.common.timer.HashedWheelTimer;
-import org.apache.dubbo.common.timer.Timeout;
 import org.apache.dubbo.common.timer.Timer;
-import org.apache.dubbo.common.timer.TimerTask;
 import org.apache.dubbo.common.utils.NamedThreadFactory;
 import org.apache.dubbo.remoting.Channel;
 import org.apache.dubbo.remoting.RemotingException;
@@ -33,9 +32,11 @@ import org.apache.dubbo.remoting.exchange.ResponseCallback;
 import org.apache.dubbo.remoting.exchange.ResponseFuture;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
@@ -48,49 +49,55 @@ public class DefaultFuture implements ResponseFuture {
 
     private static final Logger logger = LoggerFactory.getLogger(DefaultFuture.class);
 
-    private static final Map<Long, Channel> CHANNELS = new ConcurrentHashMap<>();
+    private static final long TIMEOUT_CHECK_INTERVAL = 30;
 
-    private static final Map<Long, DefaultFuture> FUTURES = new ConcurrentHashMap<>();
+    private static final InFlightRequestTable FUTURES = new InFlightRequestTable(Runtime.getRuntime().availableProcessors() * 4);
 
+    /**
+     * @deprecated the futures no longer time out through this timer, they are expired by a scan of the in-flight
+     * table. It is kept for code scheduling its own timeouts on it, and starts its thread on first use only.
+     */
+    @Deprecated
     public static final Timer TIME_OUT_TIMER = new HashedWheelTimer(
             new NamedThreadFactory("dubbo-future-timeout", true),
             30,
             TimeUnit.MILLISECONDS);
 
+    private static final ScheduledExecutorService TIMEOUT_CHECKER = Executors.newSingleThreadScheduledExecutor(
+            new NamedThreadFactory("dubbo-future-timeout", true));
+
+    static {
+        TIMEOUT_CHECKER.scheduleWithFixedDelay(new TimeoutCheckTask(),
+                TIMEOUT_CHECK_INTERVAL, TIMEOUT_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
     // invoke id.
     private final long id;
     private final Channel channel;
     private final Request request;
     private final int timeout;
+    private final long deadline;
     private final Lock lock = new ReentrantLock();
     private final Condition done = lock.newCondition();
     private final long start = System.currentTimeMillis();
     private volatile long sent;
     private volatile Response response;
     private volatile ResponseCallback callback;
+    // set while the caller waits for the response in threadless mode
+    private volatile ThreadlessExecutor executor;
 
     private DefaultFuture(Channel channel, Request request, int timeout) {
         this.channel = channel;
         this.request = request;
         this.id = request.getId();
         this.timeout = timeout > 0 ? timeout : channel.getUrl().getPositiveParameter(Constants.TIMEOUT_KEY, Constants.DEFAULT_TIMEOUT);
-        // put into waiting map.
-        FUTURES.put(id, this);
-        CHANNELS.put(id, channel);
-    }
-
-    /**
-     * check time out of the future
-     */
-    private static void timeoutCheck(DefaultFuture future) {
-        TimeoutCheckTask task = new TimeoutCheckTask(future);
-        TIME_OUT_TIMER.newTimeout(task, future.getTimeout(), TimeUnit.MILLISECONDS);
+        this.deadline = start + this.timeout;
     }
 
     /**
      * init a DefaultFuture
      * 1.init a DefaultFuture
-     * 2.timeout check
+     * 2.put it into the in-flight table, which is scanned for timeouts
      *
      * @param channel channel
      * @param request the request
@@ -99,8 +106,8 @@ public class DefaultFuture implements ResponseFuture {
      */
     public static DefaultFuture newFuture(Channel channel, Request request, int timeout) {
         final DefaultFuture future = new DefaultFuture(channel, request, timeout);
-        // timeout check
-        timeoutCheck(future);
+        // put into waiting table, timeout is checked by the scan task.
+        FUTURES.put(future.getId(), future);
         return future;
     }
 
@@ -109,7 +116,21 @@ public class DefaultFuture implements ResponseFuture {
     }
 
     public static boolean hasFuture(Channel channel) {
-        return CHANNELS.containsValue(channel);
+        return FUTURES.count(channel) > 0;
+    }
+
+    /**
+     * @return the number of requests sent through the channel and still waiting for their response
+     */
+    public static int getInFlightCount(Channel channel) {
+        return FUTURES.count(channel);
+    }
+
+    /**
+     * @return the number of requests still waiting for their response, over all channels
+     */
+    public static int getInFlightCount() {
+        return FUTURES.size();
     }
 
     public static void sent(Channel channel, Request request) {
@@ -126,36 +147,31 @@ public class DefaultFuture implements ResponseFuture {
      * @param channel channel to close
      */
     public static void closeChannel(Channel channel) {
-        for (long id : CHANNELS.keySet()) {
-            if (channel.equals(CHANNELS.get(id))) {
-                DefaultFuture future = getFuture(id);
-                if (future != null && !future.isDone()) {
-                    Response disconnectResponse = new Response(future.getId());
-                    disconnectResponse.setStatus(Response.CHANNEL_INACTIVE);
-                    disconnectResponse.setErrorMessage("Channel " +
-                            channel +
-                            " is inactive. Directly return the unFinished request : " +
-                            future.getRequest());
-                    DefaultFuture.received(channel, disconnectResponse);
-                }
+        List<DefaultFuture> futures = new ArrayList<>();
+        FUTURES.collect(channel, futures);
+        for (DefaultFuture future : futures) {
+            if (!future.isDone()) {
+                Response disconnectResponse = new Response(future.getId());
+                disconnectResponse.setStatus(Response.CHANNEL_INACTIVE);
+                disconnectResponse.setErrorMessage("Channel " +
+                        channel +
+                        " is inactive. Directly return the unFinished request : " +
+                        future.getRequest());
+                DefaultFuture.received(channel, disconnectResponse);
             }
         }
     }
 
     public static void received(Channel channel, Response response) {
-        try {
-            DefaultFuture future = FUTURES.remove(response.getId());
-            if (future != null) {
-                future.doReceived(response);
-            } else {
-                logger.warn("The timeout response finally returned at "
-                        + (new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date()))
-                        + ", response " + response
-                        + (channel == null ? "" : ", channel: " + channel.getLocalAddress()
-                        + " -> " + channel.getRemoteAddress()));
-            }
-        } finally {
-            CHANNELS.remove(response.getId());
+        DefaultFuture future = FUTURES.remove(response.getId());
+        if (future != null) {
+            future.doReceived(response);
+        } else {
+            logger.warn("The timeout response finally returned at "
+                    + (new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date()))
+                    + ", response " + response
+                    + (channel == null ? "" : ", channel: " + channel.getLocalAddress()
+                    + " -> " + channel.getRemoteAddress()));
         }
     }
 
@@ -191,12 +207,44 @@ public class DefaultFuture implements ResponseFuture {
         return returnFromResponse();
     }
 
+    /**
+     * Waits for the response like {@link #get(int)}, in threadless mode: the received response is handed over to the
+     * calling thread, which decodes and delivers it itself instead of a thread of the consumer pool waking it up.
+     */
+    public Object getThreadless(int timeout) throws RemotingException {
+        if (timeout <= 0) {
+            timeout = Constants.DEFAULT_TIMEOUT;
+        }
+        if (!isDone()) {
+            ThreadlessExecutor threadlessExecutor = new ThreadlessExecutor();
+            executor = threadlessExecutor;
+            try {
+                // a response completing the future from now on wakes the executor up
+                threadlessExecutor.waitAndDrain(this::isDone, System.currentTimeMillis() + timeout);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } finally {
+                executor = null;
+            }
+            if (!isDone()) {
+                throw new TimeoutException(sent > 0, channel, getTimeoutMessage(false));
+            }
+        }
+        return returnFromResponse();
+    }
+
+    /**
+     * @return the executor of the caller waiting for the response in threadless mode, null if there is none
+     */
+    public ThreadlessExecutor getExecutor() {
+        return executor;
+    }
+
     public void cancel() {
         Response errorResult = new Response(id);
         errorResult.setErrorMessage("request future has been canceled.");
         response = errorResult;
         FUTURES.remove(id);
-        CHANNELS.remove(id);
     }
 
     @Override
@@ -226,27 +274,31 @@ public class DefaultFuture implements ResponseFuture {
         }
     }
 
-    private static class TimeoutCheckTask implements TimerTask {
+    private static class TimeoutCheckTask implements Runnable {
 
-        private DefaultFuture future;
-
-        TimeoutCheckTask(DefaultFuture future) {
-            this.future = future;
-        }
+        private final List<DefaultFuture> expired = new ArrayList<>();
 
         @Override
-        public void run(Timeout timeout) {
-            if (future == null || future.isDone()) {
-                return;
+        public void run() {
+            try {
+                FUTURES.collectExpired(System.currentTimeMillis(), expired);
+                for (DefaultFuture future : expired) {
+                    if (future.isDone()) {
+                        continue;
+                    }
+                    // create exception response.
+                    Response timeoutResponse = new Response(future.getId());
+                    // set timeout status.
+                    timeoutResponse.setStatus(future.isSent() ? Response.SERVER_TIMEOUT : Response.CLIENT_TIMEOUT);
+                    timeoutResponse.setErrorMessage(future.getTimeoutMessage(true));
+                    // handle response.
+                    DefaultFuture.received(future.getChannel(), timeoutResponse);
+                }
+            } catch (Throwable t) {
+                logger.warn("Exception when scan the timeout futures: " + t.getMessage(), t);
+            } finally {
+                expired.clear();
             }
-            // create exception response.
-            Response timeoutResponse = new Response(future.getId());
-            // set timeout status.
-            timeoutResponse.setStatus(future.isSent() ? Response.SERVER_TIMEOUT : Response.CLIENT_TIMEOUT);
-            timeoutResponse.setErrorMessage(future.getTimeoutMessage(true));
-            // handle response.
-            DefaultFuture.received(future.getChannel(), timeoutResponse);
-
         }
     }
 
@@ -302,7 +354,7 @@ public class DefaultFuture implements ResponseFuture {
         return id;
     }
 
-    private Channel getChannel() {
+    Channel getChannel() {
         return channel;
     }
 
@@ -322,6 +374,10 @@ public class DefaultFuture implements ResponseFuture {
         return start;
     }
 
+    long getDeadline() {
+        return deadline;
+    }
+
     private void doSent() {
         sent = System.currentTimeMillis();
     }
@@ -336,6 +392,10 @@ public class DefaultFuture implements ResponseFuture {
         } finally {
             lock.unlock();
         }
+        ThreadlessExecutor threadlessExecutor = executor;
+        if (threadlessExecutor != null) {
+            threadlessExecutor.wakeUp();
+        }
         if (callback != null) {
             invokeCallback(callback);
         }
@@ -0,0 +1,297 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.exchange.support;
+
+import org.apache.dubbo.remoting.Channel;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Striped table of the outstanding {@link DefaultFuture}s, keyed by request id.
+ * <p>
+ * Each stripe is a small open addressing <code>long</code> keyed hash table guarded by its own monitor,
+ * so registering, completing and looking up a request only contends with requests of the same stripe.
+ * Every stripe also tracks its earliest deadline, which lets the timeout scan skip stripes with nothing to expire.
+ * <p>
+ * The futures are also indexed per channel, so a disconnect or a graceful close only visits the requests of its own
+ * channel. The index of a channel is dropped once its last request completes.
+ */
+final class InFlightRequestTable {
+
+    private static final int INITIAL_STRIPE_CAPACITY = 16;
+
+    private final Stripe[] stripes;
+
+    private final int stripeMask;
+
+    private final ConcurrentMap<Channel, ChannelRequests> channels = new ConcurrentHashMap<Channel, ChannelRequests>();
+
+    InFlightRequestTable(int concurrency) {
+        int size = 1;
+        while (size < concurrency) {
+            size <<= 1;
+        }
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = size - 1;
+    }
+
+    void put(long id, DefaultFuture future) {
+        stripeFor(id).put(id, future);
+        Channel channel = future.getChannel();
+        ChannelRequests requests = channels.get(channel);
+        while (requests == null || !requests.add(id, future)) {
+            // none yet, or the one found was just dropped
+            ChannelRequests created = new ChannelRequests();
+            requests = channels.putIfAbsent(channel, created);
+            if (requests == null) {
+                requests = created;
+            } else if (requests.isRetired()) {
+                channels.remove(channel, requests);
+                requests = null;
+            }
+        }
+    }
+
+    DefaultFuture get(long id) {
+        return stripeFor(id).get(id);
+    }
+
+    DefaultFuture remove(long id) {
+        DefaultFuture future = stripeFor(id).remove(id);
+        if (future != null) {
+            Channel channel = future.getChannel();
+            ChannelRequests requests = channels.get(channel);
+            if (requests != null && requests.remove(id)) {
+                channels.remove(channel, requests);
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Collect the futures whose deadline is not later than <code>now</code>, the futures stay in the table.
+     */
+    void collectExpired(long now, List<DefaultFuture> expired) {
+        for (Stripe stripe : stripes) {
+            stripe.collectExpired(now, expired);
+        }
+    }
+
+    void collect(Channel channel, List<DefaultFuture> futures) {
+        ChannelRequests requests = channels.get(channel);
+        if (requests != null) {
+            futures.addAll(requests.futures.values());
+        }
+    }
+
+    int count(Channel channel) {
+        ChannelRequests requests = channels.get(channel);
+        return requests == null ? 0 : requests.count();
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(long id) {
+        // request ids are sequential, so the low bits spread them evenly over the stripes.
+        return stripes[(int) id & stripeMask];
+    }
+
+    private static final class Stripe {
+
+        private long[] ids = new long[INITIAL_STRIPE_CAPACITY];
+
+        private DefaultFuture[] futures = new DefaultFuture[INITIAL_STRIPE_CAPACITY];
+
+        private int size;
+
+        private long earliestDeadline = Long.MAX_VALUE;
+
+        synchronized void put(long id, DefaultFuture future) {
+            if ((size + 1) << 2 > futures.length * 3) {
+                resize(futures.length << 1);
+            }
+            int mask = futures.length - 1;
+            int i = slot(id, mask);
+            while (futures[i] != null && ids[i] != id) {
+                i = (i + 1) & mask;
+            }
+            if (futures[i] == null) {
+                size++;
+            }
+            ids[i] = id;
+            futures[i] = future;
+            earliestDeadline = Math.min(earliestDeadline, future.getDeadline());
+        }
+
+        synchronized DefaultFuture get(long id) {
+            int i = indexOf(id);
+            return i < 0 ? null : futures[i];
+        }
+
+        synchronized DefaultFuture remove(long id) {
+            int i = indexOf(id);
+            if (i < 0) {
+                return null;
+            }
+            DefaultFuture future = futures[i];
+            delete(i);
+            if (size == 0) {
+                earliestDeadline = Long.MAX_VALUE;
+            }
+            if (futures.length > INITIAL_STRIPE_CAPACITY && size << 3 < futures.length) {
+                resize(futures.length >>> 1);
+            }
+            return future;
+        }
+
+        synchronized void collectExpired(long now, List<DefaultFuture> expired) {
+            if (earliestDeadline > now) {
+                return;
+            }
+            long earliest = Long.MAX_VALUE;
+            for (DefaultFuture future : futures) {
+                if (future == null) {
+                    continue;
+                }
+                long deadline = future.getDeadline();
+                if (deadline <= now) {
+                    expired.add(future);
+                } else if (deadline < earliest) {
+                    earliest = deadline;
+                }
+            }
+            earliestDeadline = earliest;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private int indexOf(long id) {
+            int mask = futures.length - 1;
+            int i = slot(id, mask);
+            while (futures[i] != null) {
+                if (ids[i] == id) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Backward shift deletion, keeps every probe sequence free of holes without tombstones.
+         */
+        private void delete(int i) {
+            int mask = futures.length - 1;
+            futures[i] = null;
+            size--;
+            int j = i;
+            while (true) {
+                j = (j + 1) & mask;
+                if (futures[j] == null) {
+                    return;
+                }
+                int k = slot(ids[j], mask);
+                if (i <= j ? (i < k && k <= j) : (i < k || k <= j)) {
+                    continue;
+                }
+                ids[i] = ids[j];
+                futures[i] = futures[j];
+                futures[j] = null;
+                i = j;
+            }
+        }
+
+        private void resize(int capacity) {
+            long[] oldIds = ids;
+            DefaultFuture[] oldFutures = futures;
+            ids = new long[capacity];
+            futures = new DefaultFuture[capacity];
+            int mask = capacity - 1;
+            for (int i = 0; i < oldFutures.length; i++) {
+                if (oldFutures[i] != null) {
+                    int j = slot(oldIds[i], mask);
+                    while (futures[j] != null) {
+                        j = (j + 1) & mask;
+                    }
+                    ids[j] = oldIds[i];
+                    futures[j] = oldFutures[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * The requests of one channel. The count goes to -1 when the last request completes, after which no request is
+     * added any more and the channel gets a new instance, so dropping it never loses a request.
+     */
+    private static final class ChannelRequests {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        private final ConcurrentMap<Long, DefaultFuture> futures = new ConcurrentHashMap<Long, DefaultFuture>();
+
+        boolean add(long id, DefaultFuture future) {
+            for (; ; ) {
+                int current = count.get();
+                if (current < 0) {
+                    return false;
+                }
+                if (count.compareAndSet(current, current + 1)) {
+                    futures.put(id, future);
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * @return whether it was the last request, the instance is retired then
+         */
+        boolean remove(long id) {
+            if (futures.remove(id) == null) {
+                return false;
+            }
+            return count.decrementAndGet() == 0 && count.compareAndSet(0, -1);
+        }
+
+        boolean isRetired() {
+            return count.get() < 0;
+        }
+
+        int count() {
+            return Math.max(0, count.get());
+        }
+    }
+
+    private static int slot(long id, int mask) {
+        // fibonacci hashing, the ids of one stripe share their low bits so those must not pick the slot.
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
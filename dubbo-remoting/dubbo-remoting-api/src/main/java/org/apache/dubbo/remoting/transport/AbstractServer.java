@@ -28,6 +28,7 @@ import org.apache.dubbo.remoting.Channel;
 import org.apache.dubbo.remoting.ChannelHandler;
 import org.apache.dubbo.remoting.RemotingException;
 import org.apache.dubbo.remoting.Server;
+import org.apache.dubbo.remoting.transport.dispatcher.IsolatedExecutors;
 
 import java.net.InetSocketAddress;
 import java.util.Collection;
@@ -42,6 +43,7 @@ public abstract class AbstractServer extends AbstractEndpoint implements Server
     protected static final String SERVER_THREAD_POOL_NAME = "DubboServerHandler";
     private static final Logger logger = LoggerFactory.getLogger(AbstractServer.class);
     ExecutorService executor;
+    private IsolatedExecutors isolatedExecutors;
     private InetSocketAddress localAddress;
     private InetSocketAddress bindAddress;
     private int accepts;
@@ -71,6 +73,7 @@ public abstract class AbstractServer extends AbstractEndpoint implements Server
         //fixme replace this with better method
         DataStore dataStore = ExtensionLoader.getExtensionLoader(DataStore.class).getDefaultExtension();
         executor = (ExecutorService) dataStore.get(Constants.EXECUTOR_SERVICE_COMPONENT_KEY, Integer.toString(url.getPort()));
+        isolatedExecutors = (IsolatedExecutors) dataStore.get(IsolatedExecutors.COMPONENT_KEY, Integer.toString(url.getPort()));
     }
 
     protected abstract void doOpen() throws Throwable;
@@ -126,6 +129,13 @@ public abstract class AbstractServer extends AbstractEndpoint implements Server
         } catch (Throwable t) {
             logger.error(t.getMessage(), t);
         }
+        try {
+            if (isolatedExecutors != null) {
+                isolatedExecutors.register(url);
+            }
+        } catch (Throwable t) {
+            logger.error(t.getMessage(), t);
+        }
         super.setUrl(getUrl().addParameters(url.getParameters()));
     }
 
@@ -145,6 +155,9 @@ public abstract class AbstractServer extends AbstractEndpoint implements Server
             logger.info("Close " + getClass().getSimpleName() + " bind " + getBindAddress() + ", export " + getLocalAddress());
         }
         ExecutorUtil.shutdownNow(executor, 100);
+        if (isolatedExecutors != null) {
+            isolatedExecutors.shutdownNow(100);
+        }
         try {
             super.close();
         } catch (Throwable e) {
@@ -160,6 +173,9 @@ public abstract class AbstractServer extends AbstractEndpoint implements Server
     @Override
     public void close(int timeout) {
         ExecutorUtil.gracefulShutdown(executor, timeout);
+        if (isolatedExecutors != null) {
+            isolatedExecutors.gracefulShutdown(timeout);
+        }
         close();
     }
 
@@ -22,8 +22,13 @@ import org.apache.dubbo.common.URL;
 import org.apache.dubbo.common.extension.ExtensionLoader;
 import org.apache.dubbo.common.logger.Logger;
 import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.serialize.BufferSerialization;
+import org.apache.dubbo.common.serialize.ByteInput;
 import org.apache.dubbo.common.serialize.ObjectInput;
+import org.apache.dubbo.common.serialize.ObjectOutput;
 import org.apache.dubbo.common.serialize.Serialization;
+import org.apache.dubbo.remoting.buffer.ChannelBuffer;
+import org.apache.dubbo.remoting.buffer.ChannelBufferOutputStream;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -79,6 +84,26 @@ public class CodecSupport {
 
     public static ObjectInput deserialize(URL url, InputStream is, byte proto) throws IOException {
         Serialization s = getSerialization(url, proto);
-        return s.deserialize(url, is);
+        return deserialize(url, s, is);
+    }
+
+    /**
+     * Serializes straight into the buffer when the serialization supports it, through a stream otherwise.
+     */
+    public static ObjectOutput serialize(URL url, Serialization serialization, ChannelBuffer buffer) throws IOException {
+        if (serialization instanceof BufferSerialization) {
+            return ((BufferSerialization) serialization).serialize(url, buffer);
+        }
+        return serialization.serialize(url, new ChannelBufferOutputStream(buffer));
+    }
+
+    /**
+     * Deserializes straight from the buffer behind the stream when both sides support it.
+     */
+    public static ObjectInput deserialize(URL url, Serialization serialization, InputStream is) throws IOException {
+        if (serialization instanceof BufferSerialization && is instanceof ByteInput) {
+            return ((BufferSerialization) serialization).deserialize(url, (ByteInput) is);
+        }
+        return serialization.deserialize(url, is);
     }
 }
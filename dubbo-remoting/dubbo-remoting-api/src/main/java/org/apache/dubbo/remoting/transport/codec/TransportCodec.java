@@ -23,12 +23,11 @@ import org.apache.dubbo.common.utils.StringUtils;
 import org.apache.dubbo.remoting.Channel;
 import org.apache.dubbo.remoting.buffer.ChannelBuffer;
 import org.apache.dubbo.remoting.buffer.ChannelBufferInputStream;
-import org.apache.dubbo.remoting.buffer.ChannelBufferOutputStream;
 import org.apache.dubbo.remoting.transport.AbstractCodec;
+import org.apache.dubbo.remoting.transport.CodecSupport;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 
 /**
  * TransportCodec
@@ -37,8 +36,7 @@ public class TransportCodec extends AbstractCodec {
 
     @Override
     public void encode(Channel channel, ChannelBuffer buffer, Object message) throws IOException {
-        OutputStream output = new ChannelBufferOutputStream(buffer);
-        ObjectOutput objectOutput = getSerialization(channel).serialize(channel.getUrl(), output);
+        ObjectOutput objectOutput = CodecSupport.serialize(channel.getUrl(), getSerialization(channel), buffer);
         encodeData(channel, objectOutput, message);
         objectOutput.flushBuffer();
         if (objectOutput instanceof Cleanable) {
@@ -49,7 +47,7 @@ public class TransportCodec extends AbstractCodec {
     @Override
     public Object decode(Channel channel, ChannelBuffer buffer) throws IOException {
         InputStream input = new ChannelBufferInputStream(buffer);
-        ObjectInput objectInput = getSerialization(channel).deserialize(channel.getUrl(), input);
+        ObjectInput objectInput = CodecSupport.deserialize(channel.getUrl(), getSerialization(channel), input);
         Object object = decodeData(channel, objectInput);
         if (objectInput instanceof Cleanable) {
             ((Cleanable) objectInput).cleanup();
@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.transport.dispatcher;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.threadpool.ThreadPool;
+import org.apache.dubbo.common.utils.ExecutorUtil;
+import org.apache.dubbo.common.utils.StringUtils;
+import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.exchange.RequestTarget;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * The dedicated thread pools of the services and methods of one server, so a slow service can only exhaust its own
+ * pool. A service gets a pool of <code>isolated.threads</code> threads set on its url, a method one of
+ * <code>&lt;method&gt;.isolated.threads</code> threads, the requests for anything else run in the shared pool.
+ * <p>
+ * The pool is chosen from the {@link RequestTarget} of a request, so only requests decoded on the io thread, which is
+ * the default, are isolated. Pools are resized when a service is exported again, a pool the new url no longer configures
+ * is shut down, as are the pools of an unexported service. All of them are shut down with the server.
+ */
+public class IsolatedExecutors {
+
+    /**
+     * key of the isolated executors of a server in the {@link org.apache.dubbo.common.store.DataStore}
+     */
+    public static final String COMPONENT_KEY = IsolatedExecutors.class.getName();
+
+    private static final Logger logger = LoggerFactory.getLogger(IsolatedExecutors.class);
+
+    private static final String POOL_THREAD_POOL = "fixed";
+
+    private final String threadName;
+
+    /**
+     * service path -> pools of the service and its methods
+     */
+    private final ConcurrentMap<String, ServiceExecutors> services = new ConcurrentHashMap<String, ServiceExecutors>();
+
+    private volatile boolean closed;
+
+    public IsolatedExecutors(URL url) {
+        this.threadName = url.getParameter(Constants.THREAD_NAME_KEY, Constants.DEFAULT_THREAD_NAME);
+    }
+
+    /**
+     * Creates or resizes the pools configured on the url of an exported service, and shuts down those it no longer
+     * configures.
+     */
+    public synchronized void register(URL url) {
+        String path = url.getPath();
+        if (closed || StringUtils.isEmpty(path)) {
+            return;
+        }
+        ServiceExecutors executors = services.get(path);
+        if (executors == null) {
+            executors = new ServiceExecutors();
+        }
+        int queues = url.getParameter(Constants.ISOLATED_QUEUES_KEY, Constants.DEFAULT_QUEUES);
+        executors.executor = update(executors.executor, url, path,
+                url.getParameter(Constants.ISOLATED_THREADS_KEY, 0), queues);
+        String suffix = "." + Constants.ISOLATED_THREADS_KEY;
+        Set<String> configured = new HashSet<String>();
+        for (Map.Entry<String, String> entry : url.getParameters().entrySet()) {
+            String key = entry.getKey();
+            if (key.endsWith(suffix) && key.length() > suffix.length()) {
+                String method = key.substring(0, key.length() - suffix.length());
+                int threads = url.getParameter(key, 0);
+                ExecutorService executor = update(executors.methods.get(method), url, path + "#" + method, threads,
+                        url.getMethodParameter(method, Constants.ISOLATED_QUEUES_KEY, queues));
+                if (executor != null) {
+                    executors.methods.put(method, executor);
+                    configured.add(method);
+                }
+            }
+        }
+        for (Iterator<Map.Entry<String, ExecutorService>> iterator = executors.methods.entrySet().iterator();
+             iterator.hasNext(); ) {
+            Map.Entry<String, ExecutorService> entry = iterator.next();
+            if (!configured.contains(entry.getKey())) {
+                iterator.remove();
+                release(path + "#" + entry.getKey(), entry.getValue());
+            }
+        }
+        if (executors.executor != null || !executors.methods.isEmpty()) {
+            services.put(path, executors);
+        } else {
+            services.remove(path);
+        }
+    }
+
+    /**
+     * Shuts down the pools of an unexported service, the requests already queued in them still run.
+     */
+    public synchronized void unregister(String path) {
+        ServiceExecutors executors = path == null ? null : services.remove(path);
+        if (executors == null) {
+            return;
+        }
+        if (executors.executor != null) {
+            release(path, executors.executor);
+        }
+        for (Map.Entry<String, ExecutorService> entry : executors.methods.entrySet()) {
+            release(path + "#" + entry.getKey(), entry.getValue());
+        }
+    }
+
+    private ExecutorService update(ExecutorService executor, URL url, String name, int threads, int queues) {
+        if (threads <= 0) {
+            if (executor != null) {
+                release(name, executor);
+            }
+            return null;
+        }
+        if (executor == null) {
+            URL poolUrl = url.addParameter(Constants.THREAD_NAME_KEY, threadName + "-" + name)
+                    .addParameter(Constants.THREADS_KEY, threads)
+                    .addParameter(Constants.QUEUES_KEY, queues);
+            if (logger.isInfoEnabled()) {
+                logger.info("Isolate " + name + " in a thread pool of " + threads + " threads");
+            }
+            return (ExecutorService) ExtensionLoader.getExtensionLoader(ThreadPool.class)
+                    .getExtension(POOL_THREAD_POOL).getExecutor(poolUrl);
+        }
+        if (executor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+            if (threads > pool.getMaximumPoolSize()) {
+                pool.setMaximumPoolSize(threads);
+                pool.setCorePoolSize(threads);
+            } else if (threads < pool.getMaximumPoolSize()) {
+                pool.setCorePoolSize(threads);
+                pool.setMaximumPoolSize(threads);
+            }
+        }
+        return executor;
+    }
+
+    private void release(String name, ExecutorService executor) {
+        if (logger.isInfoEnabled()) {
+            logger.info("Release the thread pool isolating " + name);
+        }
+        // the dispatcher falls back to the shared pool once a pool is shut down
+        executor.shutdown();
+    }
+
+    /**
+     * @return the isolated pool of the service or method a message requests, null to run it in the shared pool
+     */
+    public ExecutorService select(Object message) {
+        if (!(message instanceof Request) || services.isEmpty()) {
+            return null;
+        }
+        Object data = ((Request) message).getData();
+        if (!(data instanceof RequestTarget)) {
+            return null;
+        }
+        RequestTarget target = (RequestTarget) data;
+        String path = target.getServicePath();
+        ServiceExecutors executors = path == null ? null : services.get(path);
+        if (executors == null) {
+            return null;
+        }
+        String method = target.getMethodName();
+        ExecutorService executor = method == null ? null : executors.methods.get(method);
+        return executor != null ? executor : executors.executor;
+    }
+
+    /**
+     * @return the pools by the service path, or the service path and method name joined by '#'
+     */
+    public Map<String, ExecutorService> getExecutors() {
+        Map<String, ExecutorService> all = new LinkedHashMap<String, ExecutorService>();
+        for (Map.Entry<String, ServiceExecutors> entry : services.entrySet()) {
+            ServiceExecutors executors = entry.getValue();
+            if (executors.executor != null) {
+                all.put(entry.getKey(), executors.executor);
+            }
+            for (Map.Entry<String, ExecutorService> method : executors.methods.entrySet()) {
+                all.put(entry.getKey() + "#" + method.getKey(), method.getValue());
+            }
+        }
+        return all;
+    }
+
+    public void gracefulShutdown(int timeout) {
+        closed = true;
+        for (ExecutorService executor : getExecutors().values()) {
+            ExecutorUtil.gracefulShutdown(executor, timeout);
+        }
+    }
+
+    public void shutdownNow(int timeout) {
+        closed = true;
+        for (ExecutorService executor : getExecutors().values()) {
+            ExecutorUtil.shutdownNow(executor, timeout);
+        }
+    }
+
+    private static final class ServiceExecutors {
+
+        private volatile ExecutorService executor;
+
+        private final ConcurrentMap<String, ExecutorService> methods = new ConcurrentHashMap<String, ExecutorService>();
+    }
+}
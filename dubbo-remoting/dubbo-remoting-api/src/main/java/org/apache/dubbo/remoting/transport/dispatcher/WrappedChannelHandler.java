@@ -23,14 +23,18 @@ import org.apache.dubbo.common.logger.Logger;
 import org.apache.dubbo.common.logger.LoggerFactory;
 import org.apache.dubbo.common.store.DataStore;
 import org.apache.dubbo.common.threadpool.ThreadPool;
+import org.apache.dubbo.common.threadpool.ThreadlessExecutor;
 import org.apache.dubbo.common.utils.NamedThreadFactory;
 import org.apache.dubbo.remoting.Channel;
 import org.apache.dubbo.remoting.ChannelHandler;
 import org.apache.dubbo.remoting.RemotingException;
+import org.apache.dubbo.remoting.exchange.Response;
+import org.apache.dubbo.remoting.exchange.support.DefaultFuture;
 import org.apache.dubbo.remoting.transport.ChannelHandlerDelegate;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 public class WrappedChannelHandler implements ChannelHandlerDelegate {
 
@@ -44,17 +48,30 @@ public class WrappedChannelHandler implements ChannelHandlerDelegate {
 
     protected final URL url;
 
+    /**
+     * the pools of isolated services and methods, null on the consumer side
+     */
+    protected final IsolatedExecutors isolatedExecutors;
+
     public WrappedChannelHandler(ChannelHandler handler, URL url) {
         this.handler = handler;
         this.url = url;
         executor = (ExecutorService) ExtensionLoader.getExtensionLoader(ThreadPool.class).getAdaptiveExtension().getExecutor(url);
 
         String componentKey = Constants.EXECUTOR_SERVICE_COMPONENT_KEY;
-        if (Constants.CONSUMER_SIDE.equalsIgnoreCase(url.getParameter(Constants.SIDE_KEY))) {
+        boolean consumer = Constants.CONSUMER_SIDE.equalsIgnoreCase(url.getParameter(Constants.SIDE_KEY));
+        if (consumer) {
             componentKey = Constants.CONSUMER_SIDE;
         }
         DataStore dataStore = ExtensionLoader.getExtensionLoader(DataStore.class).getDefaultExtension();
         dataStore.put(componentKey, Integer.toString(url.getPort()), executor);
+        if (consumer) {
+            isolatedExecutors = null;
+        } else {
+            isolatedExecutors = new IsolatedExecutors(url);
+            isolatedExecutors.register(url);
+            dataStore.put(IsolatedExecutors.COMPONENT_KEY, Integer.toString(url.getPort()), isolatedExecutors);
+        }
     }
 
     public void close() {
@@ -62,6 +79,9 @@ public class WrappedChannelHandler implements ChannelHandlerDelegate {
             if (executor != null) {
                 executor.shutdown();
             }
+            if (isolatedExecutors != null) {
+                isolatedExecutors.shutdownNow(100);
+            }
         } catch (Throwable t) {
             logger.warn("fail to destroy thread pool of server: " + t.getMessage(), t);
         }
@@ -109,6 +129,42 @@ public class WrappedChannelHandler implements ChannelHandlerDelegate {
         return url;
     }
 
+    /**
+     * Hands a received response over to the caller waiting for it in threadless mode, which then runs the task
+     * on its own thread.
+     *
+     * @return false if no caller waits for the response that way, the task is to be run as usual then
+     */
+    protected boolean executeOnWaitingThread(Object message, Runnable task) {
+        if (!(message instanceof Response)) {
+            return false;
+        }
+        DefaultFuture future = DefaultFuture.getFuture(((Response) message).getId());
+        ThreadlessExecutor threadlessExecutor = future == null ? null : future.getExecutor();
+        if (threadlessExecutor == null) {
+            return false;
+        }
+        try {
+            threadlessExecutor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            // the caller stopped waiting meanwhile
+            return false;
+        }
+    }
+
+    /**
+     * @return the isolated pool of the service or method a received message requests if there is one, the shared
+     * pool otherwise
+     */
+    public ExecutorService getExecutorService(Object message) {
+        ExecutorService cexecutor = isolatedExecutors == null ? null : isolatedExecutors.select(message);
+        if (cexecutor == null || cexecutor.isShutdown()) {
+            cexecutor = getExecutorService();
+        }
+        return cexecutor;
+    }
+
     public ExecutorService getExecutorService() {
         ExecutorService cexecutor = executor;
         if (cexecutor == null || cexecutor.isShutdown()) {
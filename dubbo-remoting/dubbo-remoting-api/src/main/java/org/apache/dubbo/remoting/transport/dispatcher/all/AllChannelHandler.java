@@ -58,9 +58,13 @@ public class AllChannelHandler extends WrappedChannelHandler {
 
     @Override
     public void received(Channel channel, Object message) throws RemotingException {
-        ExecutorService cexecutor = getExecutorService();
+        ChannelEventRunnable runnable = new ChannelEventRunnable(channel, handler, ChannelState.RECEIVED, message);
+        if (executeOnWaitingThread(message, runnable)) {
+            return;
+        }
+        ExecutorService cexecutor = getExecutorService(message);
         try {
-            cexecutor.execute(new ChannelEventRunnable(channel, handler, ChannelState.RECEIVED, message));
+            cexecutor.execute(runnable);
         } catch (Throwable t) {
             //TODO A temporary solution to the problem that the exception information can not be sent to the opposite end after the thread pool is full. Need a refactoring
             //fix The thread pool is full, refuses to call, does not return, and causes the consumer to wait for time out
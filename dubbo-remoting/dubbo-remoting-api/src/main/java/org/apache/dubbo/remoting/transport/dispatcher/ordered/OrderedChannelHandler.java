@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.transport.dispatcher.ordered;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.remoting.Channel;
+import org.apache.dubbo.remoting.ChannelHandler;
+import org.apache.dubbo.remoting.ExecutionException;
+import org.apache.dubbo.remoting.RemotingException;
+import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.exchange.Response;
+import org.apache.dubbo.remoting.transport.dispatcher.ChannelEventRunnable;
+import org.apache.dubbo.remoting.transport.dispatcher.ChannelEventRunnable.ChannelState;
+import org.apache.dubbo.remoting.transport.dispatcher.WrappedChannelHandler;
+
+import java.net.InetSocketAddress;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs all events of a channel one after another in the order they arrive, while different channels run in parallel.
+ * Every channel is pinned by its remote address to one of a fixed number of serial queues, a queue with events runs as
+ * a single task on the thread pool and hands a batch of them to one thread before it lets other queues go first.
+ * <p>
+ * The requests of one connection are thus never handled concurrently, which suits many connections or handlers
+ * relying on the order, not a few connections multiplexing slow requests.
+ * <p>
+ * When the pool rejects a queue, its events are rejected as well, they never run outside the pool.
+ */
+public class OrderedChannelHandler extends WrappedChannelHandler {
+
+    private static final int BATCH_SIZE = 16;
+
+    private final SerialQueue[] queues;
+
+    public OrderedChannelHandler(ChannelHandler handler, URL url) {
+        super(handler, url);
+        int size = url.getPositiveParameter(Constants.DISPATCHER_QUEUES_KEY,
+                url.getPositiveParameter(Constants.THREADS_KEY, Constants.DEFAULT_THREADS));
+        queues = new SerialQueue[size];
+        for (int i = 0; i < size; i++) {
+            queues[i] = new SerialQueue();
+        }
+    }
+
+    @Override
+    public void connected(Channel channel) throws RemotingException {
+        try {
+            queueOf(channel).execute(channel, null, new ChannelEventRunnable(channel, handler, ChannelState.CONNECTED));
+        } catch (Throwable t) {
+            throw new ExecutionException("connect event", channel, getClass() + " error when process connected event .", t);
+        }
+    }
+
+    @Override
+    public void disconnected(Channel channel) throws RemotingException {
+        try {
+            queueOf(channel).execute(channel, null, new ChannelEventRunnable(channel, handler, ChannelState.DISCONNECTED));
+        } catch (Throwable t) {
+            throw new ExecutionException("disconnect event", channel, getClass() + " error when process disconnected event .", t);
+        }
+    }
+
+    @Override
+    public void received(Channel channel, Object message) throws RemotingException {
+        ChannelEventRunnable runnable = new ChannelEventRunnable(channel, handler, ChannelState.RECEIVED, message);
+        if (executeOnWaitingThread(message, runnable)) {
+            return;
+        }
+        try {
+            queueOf(channel).execute(channel, message, runnable);
+        } catch (Throwable t) {
+            if (t instanceof RejectedExecutionException && replyExhausted(channel, message, t)) {
+                return;
+            }
+            throw new ExecutionException(message, channel, getClass() + " error when process received event .", t);
+        }
+    }
+
+    /**
+     * Answers a rejected two way request with {@link Response#SERVER_THREADPOOL_EXHAUSTED_ERROR}.
+     *
+     * @return whether the message was such a request
+     */
+    private boolean replyExhausted(Channel channel, Object message, Throwable t) throws RemotingException {
+        if (message instanceof Request) {
+            Request request = (Request) message;
+            if (request.isTwoWay()) {
+                String msg = "Server side(" + url.getIp() + "," + url.getPort() + ") threadpool is exhausted ,detail msg:" + t.getMessage();
+                Response response = new Response(request.getId(), request.getVersion());
+                response.setStatus(Response.SERVER_THREADPOOL_EXHAUSTED_ERROR);
+                response.setErrorMessage(msg);
+                channel.send(response);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void caught(Channel channel, Throwable exception) throws RemotingException {
+        try {
+            queueOf(channel).execute(channel, null, new ChannelEventRunnable(channel, handler, ChannelState.CAUGHT, exception));
+        } catch (Throwable t) {
+            throw new ExecutionException("caught event", channel, getClass() + " error when process caught event .", t);
+        }
+    }
+
+    private SerialQueue queueOf(Channel channel) {
+        InetSocketAddress address = channel.getRemoteAddress();
+        int hash = address == null ? System.identityHashCode(channel) : address.hashCode();
+        hash ^= hash >>> 16;
+        return queues[(hash & Integer.MAX_VALUE) % queues.length];
+    }
+
+    /**
+     * Events waiting to run one after another, counted by <code>size</code>: the event turning it from 0 to 1
+     * schedules the queue on the pool, which keeps running until it counts the last one down. Every event is added
+     * in its own {@link Event} slot, so the caller of a rejected one takes exactly that one back out.
+     */
+    private final class SerialQueue implements Runnable {
+
+        private final Queue<Event> events = new ConcurrentLinkedQueue<Event>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        void execute(Channel channel, Object message, Runnable task) {
+            Event event = new Event(channel, message, task);
+            events.add(event);
+            if (size.getAndIncrement() == 0) {
+                try {
+                    getExecutorService().execute(this);
+                } catch (RejectedExecutionException e) {
+                    events.remove(event);
+                    // the events queued up behind this one meanwhile will not run either, their callers returned already
+                    while (size.decrementAndGet() != 0) {
+                        reject(events.poll(), e);
+                    }
+                    throw e;
+                }
+            }
+        }
+
+        private void reject(Event event, RejectedExecutionException e) {
+            try {
+                if (!replyExhausted(event.channel, event.message, e)) {
+                    logger.warn("Rejected event of channel " + event.channel + " in " + url + ": " + e.getMessage(), e);
+                }
+            } catch (Throwable t) {
+                logger.warn("Failed to reject event of channel " + event.channel + " in " + url + ": " + t.getMessage(), t);
+            }
+        }
+
+        @Override
+        public void run() {
+            for (; ; ) {
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    Event event = events.poll();
+                    try {
+                        event.task.run();
+                    } catch (Throwable t) {
+                        logger.warn("Failed to run event of " + url + ": " + t.getMessage(), t);
+                    }
+                    if (size.decrementAndGet() == 0) {
+                        return;
+                    }
+                }
+                try {
+                    getExecutorService().execute(this);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // no other thread of the pool is free to take over, go on with the next batch on this one
+                }
+            }
+        }
+    }
+
+    private static final class Event {
+
+        private final Channel channel;
+
+        private final Object message;
+
+        private final Runnable task;
+
+        Event(Channel channel, Object message, Runnable task) {
+            this.channel = channel;
+            this.message = message;
+            this.task = task;
+        }
+    }
+}
@@ -101,4 +101,27 @@ public class ChannelBufferStreamTest {
 
         assertEquals(buf.readerIndex(), in.readBytes());
     }
+
+    @Test
+    public void testInputStreamAsByteInput() throws Exception {
+        ChannelBuffer buf = ChannelBuffers.dynamicBuffer();
+        buf.writeBytes(new byte[]{1, 2, 3, 4, 5});
+
+        ChannelBufferInputStream in = new ChannelBufferInputStream(buf, 3);
+        assertEquals(3, in.readableBytes());
+        assertEquals(1, in.readByte());
+        byte[] tmp = new byte[2];
+        in.readBytes(tmp, 0, 2);
+        assertEquals(2, tmp[0]);
+        assertEquals(3, tmp[1]);
+        assertEquals(0, in.readableBytes());
+
+        try {
+            in.readByte();
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            // Expected: the next frame is not part of this stream
+        }
+        assertEquals(2, buf.readableBytes());
+    }
 }
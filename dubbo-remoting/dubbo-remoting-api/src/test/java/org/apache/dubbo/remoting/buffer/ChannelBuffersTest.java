@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.buffer;
+
+import org.apache.dubbo.common.io.Bytes;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ChannelBuffersTest {
+
+    @Test
+    public void testSetAndGetInPlace() {
+        ChannelBuffer buffer = ChannelBuffers.buffer(16);
+        buffer.writerIndex(16);
+        ChannelBuffers.setShort(buffer, 0, (short) 0xdabb);
+        ChannelBuffers.setInt(buffer, 2, -2);
+        ChannelBuffers.setLong(buffer, 6, Long.MIN_VALUE + 1);
+
+        Assert.assertEquals((short) 0xdabb, ChannelBuffers.getShort(buffer, 0));
+        Assert.assertEquals(-2, ChannelBuffers.getInt(buffer, 2));
+        Assert.assertEquals(Long.MIN_VALUE + 1, ChannelBuffers.getLong(buffer, 6));
+        Assert.assertEquals(0, buffer.readerIndex());
+        Assert.assertEquals(16, buffer.writerIndex());
+
+        byte[] bytes = buffer.array();
+        Assert.assertEquals((short) 0xdabb, Bytes.bytes2short(bytes, 0));
+        Assert.assertEquals(-2, Bytes.bytes2int(bytes, 2));
+        Assert.assertEquals(Long.MIN_VALUE + 1, Bytes.bytes2long(bytes, 6));
+    }
+}
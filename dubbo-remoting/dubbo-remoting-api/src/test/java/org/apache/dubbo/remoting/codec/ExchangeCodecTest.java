@@ -402,6 +402,32 @@ public class ExchangeCodecTest extends TelnetCodecTest {
 //        Assert.assertEquals(response.getProtocolVersion(), obj.getVersion());
     }
 
+    @Test
+    public void test_Encode_Header_In_Place() throws IOException {
+        Channel channel = getCliendSideChannel(url);
+        Request request = new Request(Long.MAX_VALUE - 1);
+        request.setTwoWay(true);
+        request.setData("hello");
+        ChannelBuffer encodeBuffer = ChannelBuffers.dynamicBuffer(1024);
+        encodeBuffer.writeBytes(new byte[]{1, 2, 3});
+        codec.encode(channel, encodeBuffer, request);
+
+        byte[] bytes = new byte[encodeBuffer.writerIndex()];
+        encodeBuffer.getBytes(0, bytes);
+        Assert.assertEquals(1, bytes[0]);
+        Assert.assertEquals(MAGIC_HIGH, bytes[3]);
+        Assert.assertEquals(MAGIC_LOW, bytes[4]);
+        Assert.assertEquals(Long.MAX_VALUE - 1, Bytes.bytes2long(bytes, 7));
+        Assert.assertEquals(bytes.length - 3 - 16, Bytes.bytes2int(bytes, 15));
+
+        encodeBuffer.readerIndex(3);
+        Request obj = (Request) codec.decode(channel, encodeBuffer);
+        Assert.assertEquals(request.getId(), obj.getId());
+        Assert.assertTrue(obj.isTwoWay());
+        Assert.assertEquals("hello", obj.getData());
+        Assert.assertEquals(encodeBuffer.writerIndex(), encodeBuffer.readerIndex());
+    }
+
     // http://code.alibabatech.com/jira/browse/DUBBO-392
     @Test
     public void testMessageLengthGreaterThanMessageActualLength() throws Exception {
@@ -18,8 +18,10 @@
 package org.apache.dubbo.remoting.exchange.support;
 
 import org.apache.dubbo.remoting.Channel;
+import org.apache.dubbo.remoting.RemotingException;
 import org.apache.dubbo.remoting.TimeoutException;
 import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.exchange.Response;
 import org.apache.dubbo.remoting.handler.MockedChannel;
 import org.junit.Assert;
 import org.junit.Test;
@@ -27,6 +29,7 @@ import org.junit.Test;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class DefaultFutureTest {
 
@@ -112,6 +115,79 @@ public class DefaultFutureTest {
         }
     }
 
+    @Test
+    public void inFlightCount() throws Exception {
+        Channel channel = new MockedChannel();
+        Request first = new Request(index.getAndIncrement());
+        Request second = new Request(index.getAndIncrement());
+        DefaultFuture f1 = DefaultFuture.newFuture(channel, first, 3000);
+        DefaultFuture f2 = DefaultFuture.newFuture(channel, second, 3000);
+        Assert.assertEquals(2, DefaultFuture.getInFlightCount(channel));
+        Assert.assertTrue(DefaultFuture.hasFuture(channel));
+        Assert.assertSame(f1, DefaultFuture.getFuture(first.getId()));
+
+        Response response = new Response(first.getId());
+        response.setResult("ok");
+        DefaultFuture.received(channel, response);
+        Assert.assertEquals("ok", f1.get());
+        Assert.assertNull(DefaultFuture.getFuture(first.getId()));
+        Assert.assertEquals(1, DefaultFuture.getInFlightCount(channel));
+
+        DefaultFuture.closeChannel(channel);
+        Assert.assertTrue(f2.isDone());
+        Assert.assertEquals(0, DefaultFuture.getInFlightCount(channel));
+        Assert.assertFalse(DefaultFuture.hasFuture(channel));
+    }
+
+    @Test
+    public void getThreadless() throws Exception {
+        final Channel channel = new MockedChannel();
+        final Request request = new Request(index.getAndIncrement());
+        final DefaultFuture future = DefaultFuture.newFuture(channel, request, 3000);
+        final AtomicReference<Thread> deliveredOn = new AtomicReference<>();
+        new Thread(() -> {
+            while (future.getExecutor() == null) {
+                Thread.yield();
+            }
+            // what a dispatcher does with the response of a threadless call
+            future.getExecutor().execute(() -> {
+                deliveredOn.set(Thread.currentThread());
+                Response response = new Response(request.getId());
+                response.setResult("ok");
+                DefaultFuture.received(channel, response);
+            });
+        }).start();
+        Assert.assertEquals("ok", future.getThreadless(3000));
+        Assert.assertSame(Thread.currentThread(), deliveredOn.get());
+        Assert.assertNull(future.getExecutor());
+    }
+
+    @Test
+    public void getThreadlessCompletedElsewhere() throws Exception {
+        final Channel channel = new MockedChannel();
+        final Request request = new Request(index.getAndIncrement());
+        final DefaultFuture future = DefaultFuture.newFuture(channel, request, 3000);
+        new Thread(() -> {
+            while (future.getExecutor() == null) {
+                Thread.yield();
+            }
+            DefaultFuture.closeChannel(channel);
+        }).start();
+        long start = System.currentTimeMillis();
+        try {
+            future.getThreadless(3000);
+            Assert.fail();
+        } catch (RemotingException e) {
+            Assert.assertTrue(e.getMessage().contains("is inactive"));
+        }
+        Assert.assertTrue(System.currentTimeMillis() - start < 3000);
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void getThreadlessTimeout() throws Exception {
+        defaultFuture(3000).getThreadless(100);
+    }
+
     /**
      * mock a default future
      */
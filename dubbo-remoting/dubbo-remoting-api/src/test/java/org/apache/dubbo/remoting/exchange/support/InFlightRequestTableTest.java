@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.exchange.support;
+
+import org.apache.dubbo.remoting.Channel;
+import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.handler.MockedChannel;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class InFlightRequestTableTest {
+
+    @Test
+    public void testPutGetRemove() {
+        InFlightRequestTable table = new InFlightRequestTable(4);
+        Channel channel = new MockedChannel();
+        List<DefaultFuture> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            // ids close to the overflow boundary as well, see Request#newId
+            long id = i % 2 == 0 ? i : Long.MIN_VALUE + i;
+            DefaultFuture future = DefaultFuture.newFuture(channel, new Request(id), 60000);
+            futures.add(future);
+            table.put(id, future);
+        }
+        Assert.assertEquals(1000, table.size());
+        Assert.assertEquals(1000, table.count(channel));
+        for (DefaultFuture future : futures) {
+            Assert.assertSame(future, table.get(future.getRequest().getId()));
+        }
+        // remove every third future, the remaining must still be reachable after backward shifting and shrinking.
+        for (int i = 0; i < futures.size(); i += 3) {
+            Assert.assertSame(futures.get(i), table.remove(futures.get(i).getRequest().getId()));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            DefaultFuture expected = i % 3 == 0 ? null : futures.get(i);
+            Assert.assertSame(expected, table.get(futures.get(i).getRequest().getId()));
+        }
+        for (DefaultFuture future : futures) {
+            table.remove(future.getRequest().getId());
+            future.cancel();
+        }
+        Assert.assertEquals(0, table.size());
+        Assert.assertNull(table.remove(1L));
+    }
+
+    @Test
+    public void testCollectExpired() {
+        InFlightRequestTable table = new InFlightRequestTable(2);
+        Channel channel = new MockedChannel();
+        DefaultFuture shortFuture = DefaultFuture.newFuture(channel, new Request(Long.MAX_VALUE - 1), 10);
+        DefaultFuture longFuture = DefaultFuture.newFuture(channel, new Request(Long.MAX_VALUE - 2), 60000);
+        table.put(Long.MAX_VALUE - 1, shortFuture);
+        table.put(Long.MAX_VALUE - 2, longFuture);
+
+        List<DefaultFuture> expired = new ArrayList<>();
+        table.collectExpired(shortFuture.getDeadline() - 1, expired);
+        Assert.assertTrue(expired.isEmpty());
+        table.collectExpired(shortFuture.getDeadline(), expired);
+        Assert.assertEquals(1, expired.size());
+        Assert.assertSame(shortFuture, expired.get(0));
+        Assert.assertEquals(2, table.size());
+
+        shortFuture.cancel();
+        longFuture.cancel();
+    }
+
+    @Test
+    public void testChannelIndex() {
+        InFlightRequestTable table = new InFlightRequestTable(4);
+        Channel channel = new MockedChannel();
+        Channel other = new MockedChannel();
+        List<DefaultFuture> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            DefaultFuture future = DefaultFuture.newFuture(i % 2 == 0 ? channel : other, new Request(Long.MAX_VALUE - 10 - i), 60000);
+            futures.add(future);
+            table.put(future.getRequest().getId(), future);
+        }
+        Assert.assertEquals(5, table.count(channel));
+        List<DefaultFuture> collected = new ArrayList<>();
+        table.collect(channel, collected);
+        Assert.assertEquals(5, collected.size());
+        for (DefaultFuture future : collected) {
+            Assert.assertSame(channel, future.getChannel());
+        }
+
+        for (DefaultFuture future : futures) {
+            table.remove(future.getRequest().getId());
+        }
+        Assert.assertEquals(0, table.count(channel));
+        Assert.assertEquals(0, table.count(other));
+
+        // the channel is indexed again after its last request completed
+        DefaultFuture again = futures.get(0);
+        table.put(again.getRequest().getId(), again);
+        Assert.assertEquals(1, table.count(channel));
+        table.remove(again.getRequest().getId());
+
+        for (DefaultFuture future : futures) {
+            future.cancel();
+        }
+    }
+}
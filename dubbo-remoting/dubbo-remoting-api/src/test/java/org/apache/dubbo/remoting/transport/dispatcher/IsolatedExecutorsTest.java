@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.transport.dispatcher;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.threadpool.support.AbortPolicyWithReport;
+import org.apache.dubbo.remoting.Channel;
+import org.apache.dubbo.remoting.RemotingException;
+import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.exchange.RequestTarget;
+import org.apache.dubbo.remoting.exchange.Response;
+import org.apache.dubbo.remoting.handler.MockedChannel;
+import org.apache.dubbo.remoting.transport.ChannelHandlerAdapter;
+import org.apache.dubbo.remoting.transport.dispatcher.all.AllChannelHandler;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class IsolatedExecutorsTest {
+
+    @Test
+    public void testSelect() {
+        IsolatedExecutors executors = new IsolatedExecutors(URL.valueOf("dubbo://127.0.0.1:20880"));
+        executors.register(URL.valueOf("dubbo://127.0.0.1:20880/com.foo.Slow?isolated.threads=2"));
+        executors.register(URL.valueOf("dubbo://127.0.0.1:20880/com.foo.Mixed?slow.isolated.threads=3&slow.isolated.queues=5"));
+        executors.register(URL.valueOf("dubbo://127.0.0.1:20880/com.foo.Shared"));
+        try {
+            ExecutorService slow = executors.select(request("com.foo.Slow", "any"));
+            ExecutorService mixedSlow = executors.select(request("com.foo.Mixed", "slow"));
+            Assert.assertEquals(2, ((ThreadPoolExecutor) slow).getMaximumPoolSize());
+            Assert.assertEquals(3, ((ThreadPoolExecutor) mixedSlow).getMaximumPoolSize());
+            Assert.assertEquals(5, ((ThreadPoolExecutor) mixedSlow).getQueue().remainingCapacity());
+            Assert.assertNull(executors.select(request("com.foo.Mixed", "fast")));
+            Assert.assertNull(executors.select(request("com.foo.Shared", "any")));
+            Assert.assertNull(executors.select(request(null, "any")));
+            Assert.assertNull(executors.select(new Request()));
+            Assert.assertNull(executors.select(new Response()));
+            Assert.assertEquals(2, executors.getExecutors().size());
+            Assert.assertSame(mixedSlow, executors.getExecutors().get("com.foo.Mixed#slow"));
+
+            executors.register(URL.valueOf("dubbo://127.0.0.1:20880/com.foo.Slow?isolated.threads=4"));
+            Assert.assertSame(slow, executors.select(request("com.foo.Slow", "any")));
+            Assert.assertEquals(4, ((ThreadPoolExecutor) slow).getMaximumPoolSize());
+            Assert.assertEquals(4, ((ThreadPoolExecutor) slow).getCorePoolSize());
+        } finally {
+            executors.shutdownNow(100);
+        }
+        Assert.assertTrue(executors.getExecutors().get("com.foo.Slow").isShutdown());
+    }
+
+    @Test
+    public void testRelease() {
+        IsolatedExecutors executors = new IsolatedExecutors(URL.valueOf("dubbo://127.0.0.1:20880"));
+        try {
+            executors.register(URL.valueOf("dubbo://127.0.0.1:20880/com.foo.Slow?isolated.threads=2&slow.isolated.threads=1"));
+            ExecutorService slow = executors.select(request("com.foo.Slow", "any"));
+            ExecutorService method = executors.select(request("com.foo.Slow", "slow"));
+
+            executors.register(URL.valueOf("dubbo://127.0.0.1:20880/com.foo.Slow?slow.isolated.threads=1"));
+            Assert.assertTrue(slow.isShutdown());
+            Assert.assertFalse(method.isShutdown());
+            Assert.assertNull(executors.select(request("com.foo.Slow", "any")));
+            Assert.assertSame(method, executors.select(request("com.foo.Slow", "slow")));
+
+            executors.register(URL.valueOf("dubbo://127.0.0.1:20880/com.foo.Slow"));
+            Assert.assertTrue(method.isShutdown());
+            Assert.assertTrue(executors.getExecutors().isEmpty());
+
+            executors.register(URL.valueOf("dubbo://127.0.0.1:20880/com.foo.Slow?isolated.threads=2&slow.isolated.threads=1"));
+            slow = executors.select(request("com.foo.Slow", "any"));
+            method = executors.select(request("com.foo.Slow", "slow"));
+            executors.unregister("com.foo.Slow");
+            Assert.assertTrue(slow.isShutdown());
+            Assert.assertTrue(method.isShutdown());
+            Assert.assertNull(executors.select(request("com.foo.Slow", "slow")));
+            Assert.assertTrue(executors.getExecutors().isEmpty());
+        } finally {
+            executors.shutdownNow(100);
+        }
+    }
+
+    @Test
+    public void testSlowServiceDoesNotStarveOthers() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch handled = new CountDownLatch(1);
+        final List<Object> sent = new CopyOnWriteArrayList<Object>();
+        URL url = URL.valueOf("dubbo://127.0.0.1:20881/com.foo.Slow?side=provider&threadpool=fixed&threads=2&isolated.threads=1");
+        AllChannelHandler handler = new AllChannelHandler(new ChannelHandlerAdapter() {
+            @Override
+            public void received(Channel channel, Object message) throws RemotingException {
+                RequestTarget target = (RequestTarget) ((Request) message).getData();
+                if ("com.foo.Slow".equals(target.getServicePath())) {
+                    try {
+                        blocked.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                } else {
+                    handled.countDown();
+                }
+            }
+        }, url);
+        Channel channel = new MockedChannel() {
+            @Override
+            public void send(Object message) {
+                sent.add(message);
+            }
+        };
+        try {
+            handler.received(channel, request("com.foo.Slow", "get"));
+            handler.received(channel, request("com.foo.Slow", "get"));
+            Assert.assertEquals(1, sent.size());
+            Assert.assertEquals(Response.SERVER_THREADPOOL_EXHAUSTED_ERROR, ((Response) sent.get(0)).getStatus());
+
+            handler.received(channel, request("com.foo.Other", "get"));
+            Assert.assertTrue(handled.await(5, TimeUnit.SECONDS));
+
+            ThreadPoolExecutor slow = (ThreadPoolExecutor) handler.isolatedExecutors.getExecutors().get("com.foo.Slow");
+            Assert.assertEquals(1, ((AbortPolicyWithReport) slow.getRejectedExecutionHandler()).getRejectedCount());
+            Assert.assertEquals(0, ((AbortPolicyWithReport) ((ThreadPoolExecutor) handler.getExecutor())
+                    .getRejectedExecutionHandler()).getRejectedCount());
+        } finally {
+            blocked.countDown();
+            handler.close();
+        }
+    }
+
+    private static Request request(final String path, final String method) {
+        Request request = new Request();
+        request.setTwoWay(true);
+        request.setData(new RequestTarget() {
+            @Override
+            public String getServicePath() {
+                return path;
+            }
+
+            @Override
+            public String getMethodName() {
+                return method;
+            }
+        });
+        return request;
+    }
+}
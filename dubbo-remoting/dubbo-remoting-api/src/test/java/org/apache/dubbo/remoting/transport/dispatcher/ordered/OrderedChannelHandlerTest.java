@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.transport.dispatcher.ordered;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.remoting.Channel;
+import org.apache.dubbo.remoting.RemotingException;
+import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.exchange.Response;
+import org.apache.dubbo.remoting.handler.MockedChannel;
+import org.apache.dubbo.remoting.transport.ChannelHandlerAdapter;
+import org.apache.dubbo.remoting.transport.dispatcher.WrappedChannelHandler;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class OrderedChannelHandlerTest {
+
+    @Test
+    public void testThreadPool() {
+        WrappedChannelHandler handler = (WrappedChannelHandler) new OrderedDispatcher().dispatch(new ChannelHandlerAdapter(),
+                URL.valueOf("test://127.0.0.1:20890?threads=2"));
+        Assert.assertTrue(handler.getExecutor() instanceof ForkJoinPool);
+        Assert.assertEquals(2, ((ForkJoinPool) handler.getExecutor()).getParallelism());
+        handler.close();
+
+        handler = (WrappedChannelHandler) new OrderedDispatcher().dispatch(new ChannelHandlerAdapter(),
+                URL.valueOf("test://127.0.0.1:20890?threadpool=fixed"));
+        Assert.assertTrue(handler.getExecutor() instanceof ThreadPoolExecutor);
+        handler.close();
+    }
+
+    @Test
+    public void testOrderPerChannel() throws Exception {
+        final int channels = 20;
+        final int messages = 500;
+        final Map<Channel, List<Object>> events = new ConcurrentHashMap<Channel, List<Object>>();
+        final CountDownLatch disconnected = new CountDownLatch(channels);
+        // fewer queues than channels, so channels share them
+        final OrderedChannelHandler handler = new OrderedChannelHandler(new ChannelHandlerAdapter() {
+            @Override
+            public void connected(Channel channel) {
+                events.put(channel, Collections.synchronizedList(new ArrayList<Object>()));
+                events.get(channel).add("connected");
+            }
+
+            @Override
+            public void received(Channel channel, Object message) {
+                events.get(channel).add(message);
+            }
+
+            @Override
+            public void disconnected(Channel channel) {
+                events.get(channel).add("disconnected");
+                disconnected.countDown();
+            }
+        }, URL.valueOf("test://127.0.0.1:20891?threadpool=forkjoin&threads=4&dispatcher.queues=3"));
+        try {
+            List<Thread> threads = new ArrayList<Thread>();
+            for (int i = 0; i < channels; i++) {
+                final Channel channel = newChannel(30000 + i);
+                Thread thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            handler.connected(channel);
+                            for (int j = 0; j < messages; j++) {
+                                handler.received(channel, j);
+                            }
+                            handler.disconnected(channel);
+                        } catch (RemotingException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            Assert.assertTrue(disconnected.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(channels, events.size());
+            for (List<Object> received : events.values()) {
+                Assert.assertEquals(messages + 2, received.size());
+                Assert.assertEquals("connected", received.get(0));
+                for (int j = 0; j < messages; j++) {
+                    Assert.assertEquals(j, received.get(j + 1));
+                }
+                Assert.assertEquals("disconnected", received.get(messages + 1));
+            }
+        } finally {
+            handler.close();
+        }
+    }
+
+    @Test
+    public void testThreadPoolExhausted() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final List<Object> sent = new CopyOnWriteArrayList<Object>();
+        OrderedChannelHandler handler = new OrderedChannelHandler(new ChannelHandlerAdapter() {
+            @Override
+            public void received(Channel channel, Object message) {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, URL.valueOf("test://127.0.0.1:20892?threadpool=fixed&threads=1&queues=0&dispatcher.queues=1024"));
+        try {
+            Request request = new Request();
+            request.setTwoWay(true);
+            handler.received(newChannel(30000), request);
+            Channel other = new MockedChannel() {
+                @Override
+                public InetSocketAddress getRemoteAddress() {
+                    return new InetSocketAddress("127.0.0.1", 30001);
+                }
+
+                @Override
+                public void send(Object message) {
+                    sent.add(message);
+                }
+            };
+            handler.received(other, request);
+            Assert.assertEquals(1, sent.size());
+            Assert.assertEquals(Response.SERVER_THREADPOOL_EXHAUSTED_ERROR, ((Response) sent.get(0)).getStatus());
+        } finally {
+            blocked.countDown();
+            handler.close();
+        }
+    }
+
+    @Test
+    public void testQueueStaysInPoolWhenExhausted() throws Exception {
+        final int messages = 40;
+        final CountDownLatch queued = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(messages);
+        final List<Object> received = new CopyOnWriteArrayList<Object>();
+        final Map<Thread, Boolean> threads = new ConcurrentHashMap<Thread, Boolean>();
+        OrderedChannelHandler handler = new OrderedChannelHandler(new ChannelHandlerAdapter() {
+            @Override
+            public void received(Channel channel, Object message) {
+                try {
+                    queued.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                received.add(message);
+                threads.put(Thread.currentThread(), Boolean.TRUE);
+                done.countDown();
+            }
+        }, URL.valueOf("test://127.0.0.1:20893?threadpool=fixed&threads=1&queues=0&dispatcher.queues=1"));
+        try {
+            Channel channel = newChannel(30002);
+            List<Object> expected = new ArrayList<Object>();
+            for (int i = 0; i < messages; i++) {
+                expected.add(i);
+                handler.received(channel, i);
+            }
+            queued.countDown();
+            Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(expected, received);
+            // the pool has no thread to hand the queue over to after a batch, so its own thread goes on
+            Assert.assertEquals(1, threads.size());
+        } finally {
+            handler.close();
+        }
+    }
+
+    private static Channel newChannel(final int port) {
+        return new MockedChannel() {
+            @Override
+            public InetSocketAddress getRemoteAddress() {
+                return new InetSocketAddress("127.0.0.1", port);
+            }
+        };
+    }
+}
@@ -32,9 +32,7 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.channel.epoll.EpollChannelOption;
 
 import java.util.concurrent.TimeUnit;
 
@@ -45,12 +43,15 @@ public class NettyClient extends AbstractClient {
 
     private static final Logger logger = LoggerFactory.getLogger(NettyClient.class);
 
-    private static final NioEventLoopGroup nioEventLoopGroup = new NioEventLoopGroup(Constants.DEFAULT_IO_THREADS, new DefaultThreadFactory("NettyClientWorker", true));
+    // created in doOpen, which the super constructor calls before the field initializers run
+    private NettyFlushCounter flushCounter;
 
     private Bootstrap bootstrap;
 
     private volatile Channel channel; // volatile, please copy reference to use
 
+    private boolean epoll;
+
     public NettyClient(final URL url, final ChannelHandler handler) throws RemotingException {
         super(url, wrapChannelHandler(url, handler));
     }
@@ -58,13 +59,18 @@ public class NettyClient extends AbstractClient {
     @Override
     protected void doOpen() throws Throwable {
         final NettyClientHandler nettyClientHandler = new NettyClientHandler(getUrl(), this);
+        epoll = NettyEventLoopFactory.shouldEpoll(getUrl());
         bootstrap = new Bootstrap();
-        bootstrap.group(nioEventLoopGroup)
+        flushCounter = new NettyFlushCounter();
+        bootstrap.group(NettyEventLoopManager.getWorkerGroup(epoll))
                 .option(ChannelOption.SO_KEEPALIVE, true)
                 .option(ChannelOption.TCP_NODELAY, true)
                 .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
                 //.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, getTimeout())
-                .channel(NioSocketChannel.class);
+                .channel(NettyEventLoopFactory.socketChannelClass(epoll));
+        if (epoll) {
+            bootstrap.option(EpollChannelOption.TCP_QUICKACK, true);
+        }
 
         if (getConnectTimeout() < 3000) {
             bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 3000);
@@ -77,6 +83,8 @@ public class NettyClient extends AbstractClient {
             @Override
             protected void initChannel(Channel ch) throws Exception {
                 NettyCodecAdapter adapter = new NettyCodecAdapter(getCodec(), getUrl(), NettyClient.this);
+                NettyEventLoopManager.track(ch);
+                flushCounter.install(getUrl(), ch.pipeline());
                 ch.pipeline()//.addLast("logging",new LoggingHandler(LogLevel.INFO))//for debug
                         .addLast("decoder", adapter.getDecoder())
                         .addLast("encoder", adapter.getEncoder())
@@ -149,8 +157,8 @@ public class NettyClient extends AbstractClient {
 
     @Override
     protected void doClose() throws Throwable {
-        //can't shutdown nioEventLoopGroup
-        //nioEventLoopGroup.shutdownGracefully();
+        //can't shutdown the event loop group shared by NettyEventLoopManager
+        //NettyEventLoopManager.getWorkerGroup(epoll).shutdownGracefully();
     }
 
     @Override
@@ -162,4 +170,29 @@ public class NettyClient extends AbstractClient {
         return NettyChannel.getOrAddChannel(c, getUrl(), this);
     }
 
+    /**
+     * @return the messages written, only counted when {@link Constants#FLUSH_CONSOLIDATION_KEY} is enabled
+     */
+    public long getWrittenMessages() {
+        return flushCounter.getMessages();
+    }
+
+    /**
+     * @return the flushes which reached the socket, only counted when {@link Constants#FLUSH_CONSOLIDATION_KEY} is enabled
+     */
+    public long getFlushes() {
+        return flushCounter.getFlushes();
+    }
+
+    public double getMessagesPerFlush() {
+        return flushCounter.getMessagesPerFlush();
+    }
+
+    /**
+     * @return whether the client runs on the native epoll transport
+     */
+    public boolean isEpoll() {
+        return epoll;
+    }
+
 }
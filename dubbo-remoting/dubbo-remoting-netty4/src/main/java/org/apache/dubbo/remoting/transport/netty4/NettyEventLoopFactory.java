@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.transport.netty4;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+/**
+ * Creates the event loops and channel types of the netty4 transport, choosing native epoll when it is asked for
+ * through {@link Constants#NETTY_EPOLL_KEY} and available, nio otherwise.
+ */
+final class NettyEventLoopFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(NettyEventLoopFactory.class);
+
+    private NettyEventLoopFactory() {
+    }
+
+    private static boolean detectEpoll() {
+        try {
+            if (!System.getProperty("os.name", "").toLowerCase().contains("linux")) {
+                return false;
+            }
+            if (Epoll.isAvailable()) {
+                return true;
+            }
+            logger.info("Netty native epoll is unavailable, cause: " + Epoll.unavailabilityCause());
+        } catch (Throwable t) {
+            logger.info("Netty native epoll is unavailable, cause: " + t.getMessage());
+        }
+        return false;
+    }
+
+    static boolean isEpollAvailable() {
+        return EpollHolder.AVAILABLE;
+    }
+
+    static boolean shouldEpoll(URL url) {
+        if (!url.getParameter(Constants.NETTY_EPOLL_KEY, Constants.DEFAULT_NETTY_EPOLL)) {
+            return false;
+        }
+        if (!isEpollAvailable()) {
+            logger.warn("Netty native epoll is enabled by " + Constants.NETTY_EPOLL_KEY
+                    + " but unavailable on this platform, fall back to nio, url: " + url);
+            return false;
+        }
+        return true;
+    }
+
+    static EventLoopGroup eventLoopGroup(boolean epoll, int threads, String threadName) {
+        DefaultThreadFactory threadFactory = new DefaultThreadFactory(threadName, true);
+        return epoll ? new EpollEventLoopGroup(threads, threadFactory) : new NioEventLoopGroup(threads, threadFactory);
+    }
+
+    static Class<? extends ServerSocketChannel> serverSocketChannelClass(boolean epoll) {
+        return epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    static Class<? extends SocketChannel> socketChannelClass(boolean epoll) {
+        return epoll ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    /**
+     * Probes native epoll on first use only, so nio users never load the native transport.
+     */
+    private static class EpollHolder {
+        static final boolean AVAILABLE = detectEpoll();
+    }
+
+}
@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.transport.netty4;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.utils.ConfigUtils;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide event loop groups shared by all netty4 clients, and by the servers exported with
+ * {@link Constants#NETTY_SHARED_EVENT_LOOP_KEY}, so that the number of io threads of the JVM is bounded
+ * by {@link Constants#SHARED_IO_THREADS_KEY} however many ports and protocols are exported.
+ * <p>
+ * The groups are created on first use, one pair for nio and one for epoll, and live as long as the JVM
+ * with daemon threads. Every loop runs on one thread named <code>NettySharedWorker-&lt;pool&gt;-&lt;index&gt;</code>
+ * (or <code>NettySharedBoss</code>) for its whole life, so the io threads can be told apart in a thread dump.
+ */
+public final class NettyEventLoopManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(NettyEventLoopManager.class);
+
+    private static final Object LOCK = new Object();
+
+    private static volatile SharedGroup nioBoss;
+    private static volatile SharedGroup nioWorker;
+    private static volatile SharedGroup epollBoss;
+    private static volatile SharedGroup epollWorker;
+
+    private NettyEventLoopManager() {
+    }
+
+    static EventLoopGroup getBossGroup(boolean epoll) {
+        SharedGroup group = epoll ? epollBoss : nioBoss;
+        if (group == null) {
+            synchronized (LOCK) {
+                group = epoll ? epollBoss : nioBoss;
+                if (group == null) {
+                    group = new SharedGroup(epoll, getBossThreads(), "NettySharedBoss");
+                    if (epoll) {
+                        epollBoss = group;
+                    } else {
+                        nioBoss = group;
+                    }
+                }
+            }
+        }
+        return group.group;
+    }
+
+    static EventLoopGroup getWorkerGroup(boolean epoll) {
+        SharedGroup group = epoll ? epollWorker : nioWorker;
+        if (group == null) {
+            synchronized (LOCK) {
+                group = epoll ? epollWorker : nioWorker;
+                if (group == null) {
+                    group = new SharedGroup(epoll, getIoThreads(), "NettySharedWorker");
+                    if (epoll) {
+                        epollWorker = group;
+                    } else {
+                        nioWorker = group;
+                    }
+                }
+            }
+        }
+        return group.group;
+    }
+
+    /**
+     * Count the channel against its event loop until it is closed, channels of non shared loops are ignored.
+     */
+    static void track(Channel channel) {
+        LongAdder counter = findChannelCounter(channel.eventLoop());
+        if (counter != null) {
+            counter.increment();
+            channel.closeFuture().addListener(future -> counter.decrement());
+        }
+    }
+
+    private static LongAdder findChannelCounter(EventExecutor loop) {
+        for (SharedGroup group : new SharedGroup[]{nioWorker, epollWorker, nioBoss, epollBoss}) {
+            if (group != null) {
+                LongAdder counter = group.channels.get(loop);
+                if (counter != null) {
+                    return counter;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the size of the shared worker groups
+     */
+    public static int getIoThreads() {
+        return getPositiveProperty(Constants.SHARED_IO_THREADS_KEY, Constants.DEFAULT_IO_THREADS);
+    }
+
+    /**
+     * @return the size of the shared boss groups
+     */
+    public static int getBossThreads() {
+        return getPositiveProperty(Constants.SHARED_BOSS_THREADS_KEY, Constants.DEFAULT_BOSS_THREADS);
+    }
+
+    private static int getPositiveProperty(String key, int defaultValue) {
+        String value = ConfigUtils.getProperty(key);
+        if (value != null && value.length() > 0) {
+            try {
+                int i = Integer.parseInt(value.trim());
+                if (i > 0) {
+                    return i;
+                }
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid " + key + " " + value + ", use " + defaultValue + " instead.");
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * @return the load of every loop of the shared groups which were created so far
+     */
+    public static List<LoopStats> getLoopStats() {
+        List<LoopStats> stats = new ArrayList<LoopStats>();
+        for (SharedGroup group : new SharedGroup[]{nioBoss, nioWorker, epollBoss, epollWorker}) {
+            if (group != null) {
+                group.collect(stats);
+            }
+        }
+        return Collections.unmodifiableList(stats);
+    }
+
+    private static final class SharedGroup {
+
+        private final EventLoopGroup group;
+
+        private final String name;
+
+        // every loop of the group in iteration order, immutable once built
+        private final Map<EventExecutor, LongAdder> channels = new IdentityHashMap<EventExecutor, LongAdder>();
+
+        private final List<EventExecutor> loops = new ArrayList<EventExecutor>();
+
+        SharedGroup(boolean epoll, int threads, String threadName) {
+            this.group = NettyEventLoopFactory.eventLoopGroup(epoll, threads, threadName);
+            this.name = (epoll ? "epoll-" : "nio-") + threadName;
+            for (EventExecutor loop : group) {
+                loops.add(loop);
+                channels.put(loop, new LongAdder());
+            }
+            logger.info("Created shared netty event loop group " + name + " with " + threads + " threads");
+        }
+
+        void collect(List<LoopStats> stats) {
+            for (int i = 0; i < loops.size(); i++) {
+                EventExecutor loop = loops.get(i);
+                int pendingTasks = loop instanceof SingleThreadEventExecutor
+                        ? ((SingleThreadEventExecutor) loop).pendingTasks() : 0;
+                stats.add(new LoopStats(name + "-" + i, channels.get(loop).intValue(), pendingTasks));
+            }
+        }
+    }
+
+    /**
+     * Snapshot of the load of one shared event loop.
+     */
+    public static final class LoopStats {
+
+        private final String name;
+
+        private final int channels;
+
+        private final int pendingTasks;
+
+        LoopStats(String name, int channels, int pendingTasks) {
+            this.name = name;
+            this.channels = channels;
+            this.pendingTasks = pendingTasks;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the open channels registered to the loop
+         */
+        public int getChannels() {
+            return channels;
+        }
+
+        /**
+         * @return the tasks queued on the loop and not yet run
+         */
+        public int getPendingTasks() {
+            return pendingTasks;
+        }
+
+        @Override
+        public String toString() {
+            return name + "[channels=" + channels + ", pendingTasks=" + pendingTasks + "]";
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.transport.netty4;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.flush.FlushConsolidationHandler;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the messages written and the flushes which actually reach the socket of the channels it is installed in,
+ * so the messages per flush achieved by the flush consolidation can be observed.
+ */
+@ChannelHandler.Sharable
+final class NettyFlushCounter extends ChannelOutboundHandlerAdapter {
+
+    private final LongAdder messages = new LongAdder();
+
+    private final LongAdder flushes = new LongAdder();
+
+    /**
+     * Install the flush consolidation in front of the pipeline if it is enabled by the url.
+     * The writes and flushes issued within one event loop tick, or up to <code>flush.consolidation</code> writes,
+     * are flushed to the socket at once.
+     */
+    void install(URL url, ChannelPipeline pipeline) {
+        int explicitFlushAfterFlushes = url.getParameter(Constants.FLUSH_CONSOLIDATION_KEY, Constants.DEFAULT_FLUSH_CONSOLIDATION);
+        if (explicitFlushAfterFlushes > 0) {
+            pipeline.addLast("flush-counter", this)
+                    .addLast("flush-consolidation", new FlushConsolidationHandler(explicitFlushAfterFlushes, true));
+        }
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        messages.increment();
+        ctx.write(msg, promise);
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        flushes.increment();
+        ctx.flush();
+    }
+
+    long getMessages() {
+        return messages.sum();
+    }
+
+    long getFlushes() {
+        return flushes.sum();
+    }
+
+    double getMessagesPerFlush() {
+        long flushCount = flushes.sum();
+        return flushCount == 0 ? 0 : (double) messages.sum() / flushCount;
+    }
+}
@@ -35,14 +35,14 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.socket.SocketChannel;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -58,9 +58,19 @@ public class NettyServer extends AbstractServer implements Server {
 
     private io.netty.channel.Channel channel;
 
+    // the extra acceptors bound to the same port through SO_REUSEPORT
+    private List<io.netty.channel.Channel> reusePortChannels;
+
+    private boolean epoll;
+
+    private boolean sharedEventLoop;
+
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
 
+    // created in doOpen, which the super constructor calls before the field initializers run
+    private NettyFlushCounter flushCounter;
+
     public NettyServer(URL url, ChannelHandler handler) throws RemotingException {
         super(url, ChannelHandlers.wrap(handler, ExecutorUtil.setThreadName(url, SERVER_THREAD_POOL_NAME)));
     }
@@ -68,34 +78,61 @@ public class NettyServer extends AbstractServer implements Server {
     @Override
     protected void doOpen() throws Throwable {
         bootstrap = new ServerBootstrap();
+        flushCounter = new NettyFlushCounter();
 
-        bossGroup = new NioEventLoopGroup(1, new DefaultThreadFactory("NettyServerBoss", true));
-        workerGroup = new NioEventLoopGroup(getUrl().getPositiveParameter(Constants.IO_THREADS_KEY, Constants.DEFAULT_IO_THREADS),
-                new DefaultThreadFactory("NettyServerWorker", true));
+        epoll = NettyEventLoopFactory.shouldEpoll(getUrl());
+        int bossThreads = getUrl().getPositiveParameter(Constants.BOSS_THREADS_KEY, Constants.DEFAULT_BOSS_THREADS);
+        if (bossThreads > 1 && !epoll) {
+            logger.warn("Multiple acceptors need SO_REUSEPORT of native epoll, use one acceptor for nio, url: " + getUrl());
+            bossThreads = 1;
+        }
+        sharedEventLoop = getUrl().getParameter(Constants.NETTY_SHARED_EVENT_LOOP_KEY, Constants.DEFAULT_NETTY_SHARED_EVENT_LOOP);
+        if (sharedEventLoop) {
+            bossGroup = NettyEventLoopManager.getBossGroup(epoll);
+            workerGroup = NettyEventLoopManager.getWorkerGroup(epoll);
+        } else {
+            bossGroup = NettyEventLoopFactory.eventLoopGroup(epoll, bossThreads, "NettyServerBoss");
+            workerGroup = NettyEventLoopFactory.eventLoopGroup(epoll,
+                    getUrl().getPositiveParameter(Constants.IO_THREADS_KEY, Constants.DEFAULT_IO_THREADS),
+                    "NettyServerWorker");
+        }
 
         final NettyServerHandler nettyServerHandler = new NettyServerHandler(getUrl(), this);
         channels = nettyServerHandler.getChannels();
 
         bootstrap.group(bossGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
+                .channel(NettyEventLoopFactory.serverSocketChannelClass(epoll))
                 .childOption(ChannelOption.TCP_NODELAY, Boolean.TRUE)
                 .childOption(ChannelOption.SO_REUSEADDR, Boolean.TRUE)
                 .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
-                .childHandler(new ChannelInitializer<NioSocketChannel>() {
+                .childHandler(new ChannelInitializer<SocketChannel>() {
                     @Override
-                    protected void initChannel(NioSocketChannel ch) throws Exception {
+                    protected void initChannel(SocketChannel ch) throws Exception {
                         NettyCodecAdapter adapter = new NettyCodecAdapter(getCodec(), getUrl(), NettyServer.this);
+                        NettyEventLoopManager.track(ch);
+                        flushCounter.install(getUrl(), ch.pipeline());
                         ch.pipeline()//.addLast("logging",new LoggingHandler(LogLevel.INFO))//for debug
                                 .addLast("decoder", adapter.getDecoder())
                                 .addLast("encoder", adapter.getEncoder())
                                 .addLast("handler", nettyServerHandler);
                     }
                 });
-        // bind
+        if (epoll) {
+            bootstrap.childOption(EpollChannelOption.TCP_QUICKACK, Boolean.TRUE);
+            if (bossThreads > 1) {
+                bootstrap.option(EpollChannelOption.SO_REUSEPORT, Boolean.TRUE);
+            }
+        }
+        reusePortChannels = new ArrayList<io.netty.channel.Channel>(bossThreads - 1);
+        // bind, every acceptor gets its own listen socket and boss thread
         ChannelFuture channelFuture = bootstrap.bind(getBindAddress());
         channelFuture.syncUninterruptibly();
         channel = channelFuture.channel();
-
+        for (int i = 1; i < bossThreads; i++) {
+            ChannelFuture reusePortFuture = bootstrap.bind(getBindAddress());
+            reusePortFuture.syncUninterruptibly();
+            reusePortChannels.add(reusePortFuture.channel());
+        }
     }
 
     @Override
@@ -105,6 +142,11 @@ public class NettyServer extends AbstractServer implements Server {
                 // unbind.
                 channel.close();
             }
+            if (reusePortChannels != null) {
+                for (io.netty.channel.Channel reusePortChannel : reusePortChannels) {
+                    reusePortChannel.close();
+                }
+            }
         } catch (Throwable e) {
             logger.warn(e.getMessage(), e);
         }
@@ -123,7 +165,7 @@ public class NettyServer extends AbstractServer implements Server {
             logger.warn(e.getMessage(), e);
         }
         try {
-            if (bootstrap != null) {
+            if (bootstrap != null && !sharedEventLoop) {
                 bossGroup.shutdownGracefully();
                 workerGroup.shutdownGracefully();
             }
@@ -162,4 +204,43 @@ public class NettyServer extends AbstractServer implements Server {
         return channel.isActive();
     }
 
+    /**
+     * @return whether the server runs on the native epoll transport
+     */
+    public boolean isEpoll() {
+        return epoll;
+    }
+
+    /**
+     * @return whether the server runs on the event loops of {@link NettyEventLoopManager}
+     */
+    public boolean isSharedEventLoop() {
+        return sharedEventLoop;
+    }
+
+    /**
+     * @return the number of listen sockets bound to the server port
+     */
+    public int getAcceptors() {
+        return channel == null ? 0 : 1 + reusePortChannels.size();
+    }
+
+    /**
+     * @return the messages written, only counted when {@link Constants#FLUSH_CONSOLIDATION_KEY} is enabled
+     */
+    public long getWrittenMessages() {
+        return flushCounter.getMessages();
+    }
+
+    /**
+     * @return the flushes which reached the socket, only counted when {@link Constants#FLUSH_CONSOLIDATION_KEY} is enabled
+     */
+    public long getFlushes() {
+        return flushCounter.getFlushes();
+    }
+
+    public double getMessagesPerFlush() {
+        return flushCounter.getMessagesPerFlush();
+    }
+
 }
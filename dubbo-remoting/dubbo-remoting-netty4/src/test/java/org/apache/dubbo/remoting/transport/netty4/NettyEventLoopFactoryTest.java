@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.transport.netty4;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.utils.NetUtils;
+import org.apache.dubbo.remoting.transport.ChannelHandlerAdapter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+public class NettyEventLoopFactoryTest {
+
+    @Test
+    public void testNioByDefault() {
+        URL url = URL.valueOf("dubbo://localhost:20880/test");
+        Assert.assertFalse(NettyEventLoopFactory.shouldEpoll(url));
+        Assert.assertEquals(NioServerSocketChannel.class, NettyEventLoopFactory.serverSocketChannelClass(false));
+        Assert.assertEquals(NioSocketChannel.class, NettyEventLoopFactory.socketChannelClass(false));
+    }
+
+    @Test
+    public void testEpollFallsBackWhenUnavailable() {
+        URL url = URL.valueOf("dubbo://localhost:20880/test?" + Constants.NETTY_EPOLL_KEY + "=true");
+        Assert.assertEquals(NettyEventLoopFactory.isEpollAvailable(), NettyEventLoopFactory.shouldEpoll(url));
+        Assert.assertEquals(EpollServerSocketChannel.class, NettyEventLoopFactory.serverSocketChannelClass(true));
+        Assert.assertEquals(EpollSocketChannel.class, NettyEventLoopFactory.socketChannelClass(true));
+    }
+
+    @Test
+    public void testBindMultipleAcceptors() throws Exception {
+        int port = NetUtils.getAvailablePort();
+        URL url = URL.valueOf("dubbo://localhost:" + port + "/test?" + Constants.NETTY_EPOLL_KEY + "=true&"
+                + Constants.BOSS_THREADS_KEY + "=2&" + Constants.BIND_PORT_KEY + "=" + port);
+        NettyServer server = new NettyServer(url, new ChannelHandlerAdapter());
+        try {
+            Assert.assertTrue(server.isBound());
+            Assert.assertEquals(NettyEventLoopFactory.isEpollAvailable(), server.isEpoll());
+            Assert.assertEquals(server.isEpoll() ? 2 : 1, server.getAcceptors());
+        } finally {
+            server.close();
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.transport.netty4;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.utils.NetUtils;
+import org.apache.dubbo.remoting.transport.ChannelHandlerAdapter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import io.netty.channel.EventLoopGroup;
+
+public class NettyEventLoopManagerTest {
+
+    @Test
+    public void testSharedGroups() {
+        EventLoopGroup worker = NettyEventLoopManager.getWorkerGroup(false);
+        Assert.assertSame(worker, NettyEventLoopManager.getWorkerGroup(false));
+        Assert.assertSame(NettyEventLoopManager.getBossGroup(false), NettyEventLoopManager.getBossGroup(false));
+        Assert.assertNotSame(worker, NettyEventLoopManager.getBossGroup(false));
+    }
+
+    @Test
+    public void testServerAndClientShareLoops() throws Exception {
+        int port = NetUtils.getAvailablePort();
+        URL url = URL.valueOf("telnet://127.0.0.1:" + port + "/test?" + Constants.NETTY_SHARED_EVENT_LOOP_KEY + "=true");
+        int before = getSharedWorkerChannels();
+        NettyServer server = new NettyServer(url, new ChannelHandlerAdapter());
+        NettyClient client = null;
+        try {
+            Assert.assertTrue(server.isSharedEventLoop());
+            client = new NettyClient(url, new ChannelHandlerAdapter());
+            Assert.assertTrue(client.isConnected());
+            // the client channel and the accepted server channel
+            for (int i = 0; i < 100 && getSharedWorkerChannels() < before + 2; i++) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(before + 2, getSharedWorkerChannels());
+        } finally {
+            if (client != null) {
+                client.close();
+            }
+            server.close();
+        }
+        Assert.assertFalse(NettyEventLoopManager.getWorkerGroup(false).isShuttingDown());
+    }
+
+    private static int getSharedWorkerChannels() {
+        int channels = 0;
+        for (NettyEventLoopManager.LoopStats stats : NettyEventLoopManager.getLoopStats()) {
+            if (stats.getName().startsWith("nio-NettySharedWorker")) {
+                channels += stats.getChannels();
+            }
+        }
+        return channels;
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.transport.netty4;
+
+import org.apache.dubbo.common.URL;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NettyFlushCounterTest {
+
+    @Test
+    public void testDisabledByDefault() {
+        NettyFlushCounter counter = new NettyFlushCounter();
+        EmbeddedChannel channel = new EmbeddedChannel();
+        counter.install(URL.valueOf("dubbo://127.0.0.1:20880/DemoService"), channel.pipeline());
+        Assert.assertNull(channel.pipeline().get("flush-counter"));
+        Assert.assertNull(channel.pipeline().get("flush-consolidation"));
+        channel.close();
+    }
+
+    @Test
+    public void testConsolidateFlushes() throws Exception {
+        final NettyFlushCounter counter = new NettyFlushCounter();
+        final URL url = URL.valueOf("dubbo://127.0.0.1:20880/DemoService?flush.consolidation=4");
+        DefaultEventLoopGroup group = new DefaultEventLoopGroup(1);
+        try {
+            LocalAddress address = new LocalAddress("NettyFlushCounterTest");
+            new ServerBootstrap().group(group)
+                    .channel(LocalServerChannel.class)
+                    .childHandler(new ChannelInboundHandlerAdapter())
+                    .bind(address).sync();
+            final Channel channel = new Bootstrap().group(group)
+                    .channel(LocalChannel.class)
+                    .handler(new ChannelInitializer<LocalChannel>() {
+                        @Override
+                        protected void initChannel(LocalChannel ch) throws Exception {
+                            counter.install(url, ch.pipeline());
+                        }
+                    })
+                    .connect(address).sync().channel();
+
+            // writes issued within one event loop tick are flushed together, at the latest every 4 writes.
+            channel.eventLoop().submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 10; i++) {
+                        channel.writeAndFlush("message" + i);
+                    }
+                }
+            }).sync();
+            // wait for the scheduled flush of the remaining writes.
+            channel.eventLoop().submit(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }).sync();
+
+            Assert.assertEquals(10, counter.getMessages());
+            Assert.assertEquals(3, counter.getFlushes());
+            Assert.assertEquals(10.0 / 3, counter.getMessagesPerFlush(), 0.001);
+            channel.close().sync();
+        } finally {
+            group.shutdownGracefully();
+        }
+    }
+}
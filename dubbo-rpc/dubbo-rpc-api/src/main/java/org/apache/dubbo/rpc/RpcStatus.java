@@ -18,15 +18,21 @@ package org.apache.dubbo.rpc;
 
 import org.apache.dubbo.common.Constants;
 import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.utils.WeakIdentityMap;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * URL statistics. (API, Cached, ThreadSafe)
+ * <p>
+ * The counters which are only written on the invocation path are striped {@link LongAdder}s, so concurrent
+ * invocations of one method do not contend on the same cache line; {@link #getActive()} stays a single atomic
+ * since the load balancers read it on every selection.
  *
  * @see org.apache.dubbo.rpc.filter.ActiveLimitFilter
  * @see org.apache.dubbo.rpc.filter.ExecuteLimitFilter
@@ -37,15 +43,26 @@ public class RpcStatus {
     private static final ConcurrentMap<String, RpcStatus> SERVICE_STATISTICS = new ConcurrentHashMap<String, RpcStatus>();
 
     private static final ConcurrentMap<String, ConcurrentMap<String, RpcStatus>> METHOD_STATISTICS = new ConcurrentHashMap<String, ConcurrentMap<String, RpcStatus>>();
+
+    /**
+     * The method statuses of the url of an invoker, resolved once instead of building the url key on every call
+     */
+    private static final WeakIdentityMap<Invoker<?>, InvokerStatuses> INVOKER_STATISTICS = new WeakIdentityMap<Invoker<?>, InvokerStatuses>();
+
     private final ConcurrentMap<String, Object> values = new ConcurrentHashMap<String, Object>();
     private final AtomicInteger active = new AtomicInteger();
-    private final AtomicLong total = new AtomicLong();
-    private final AtomicInteger failed = new AtomicInteger();
-    private final AtomicLong totalElapsed = new AtomicLong();
-    private final AtomicLong failedElapsed = new AtomicLong();
-    private final AtomicLong maxElapsed = new AtomicLong();
-    private final AtomicLong failedMaxElapsed = new AtomicLong();
-    private final AtomicLong succeededMaxElapsed = new AtomicLong();
+    private final LongAdder total = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder totalElapsed = new LongAdder();
+    private final LongAdder failedElapsed = new LongAdder();
+    private final LongAccumulator maxElapsed = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator failedMaxElapsed = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator succeededMaxElapsed = new LongAccumulator(Math::max, 0);
+
+    /**
+     * The status of the whole service for a method status, counted together with it
+     */
+    private final RpcStatus serviceStatus;
 
     /**
      * Semaphore used to control concurrency limit set by `executes`
@@ -53,7 +70,8 @@ public class RpcStatus {
     private volatile Semaphore executesLimit;
     private volatile int executesPermits;
 
-    private RpcStatus() {
+    private RpcStatus(RpcStatus serviceStatus) {
+        this.serviceStatus = serviceStatus;
     }
 
     /**
@@ -64,7 +82,7 @@ public class RpcStatus {
         String uri = url.toIdentityString();
         RpcStatus status = SERVICE_STATISTICS.get(uri);
         if (status == null) {
-            SERVICE_STATISTICS.putIfAbsent(uri, new RpcStatus());
+            SERVICE_STATISTICS.putIfAbsent(uri, new RpcStatus(null));
             status = SERVICE_STATISTICS.get(uri);
         }
         return status;
@@ -76,6 +94,9 @@ public class RpcStatus {
     public static void removeStatus(URL url) {
         String uri = url.toIdentityString();
         SERVICE_STATISTICS.remove(uri);
+        // the method statuses count into the removed service status
+        METHOD_STATISTICS.remove(uri);
+        INVOKER_STATISTICS.clear();
     }
 
     /**
@@ -84,15 +105,40 @@ public class RpcStatus {
      * @return status
      */
     public static RpcStatus getStatus(URL url, String methodName) {
+        return getStatus(url, getMethodStatuses(url), methodName);
+    }
+
+    /**
+     * Get the method status of the url of an invoker, which is resolved once per invoker and url.
+     *
+     * @param invoker
+     * @param methodName
+     * @return status
+     */
+    public static RpcStatus getStatus(Invoker<?> invoker, String methodName) {
+        URL url = invoker.getUrl();
+        InvokerStatuses statuses = INVOKER_STATISTICS.get(invoker);
+        if (statuses == null || statuses.url != url) {
+            statuses = new InvokerStatuses(url, getMethodStatuses(url));
+            INVOKER_STATISTICS.put(invoker, statuses);
+        }
+        return getStatus(url, statuses.methods, methodName);
+    }
+
+    private static ConcurrentMap<String, RpcStatus> getMethodStatuses(URL url) {
         String uri = url.toIdentityString();
         ConcurrentMap<String, RpcStatus> map = METHOD_STATISTICS.get(uri);
         if (map == null) {
             METHOD_STATISTICS.putIfAbsent(uri, new ConcurrentHashMap<String, RpcStatus>());
             map = METHOD_STATISTICS.get(uri);
         }
+        return map;
+    }
+
+    private static RpcStatus getStatus(URL url, ConcurrentMap<String, RpcStatus> map, String methodName) {
         RpcStatus status = map.get(methodName);
         if (status == null) {
-            map.putIfAbsent(methodName, new RpcStatus());
+            map.putIfAbsent(methodName, new RpcStatus(getStatus(url)));
             status = map.get(methodName);
         }
         return status;
@@ -113,12 +159,20 @@ public class RpcStatus {
      * @param url
      */
     public static void beginCount(URL url, String methodName) {
-        beginCount(getStatus(url));
         beginCount(getStatus(url, methodName));
     }
 
-    private static void beginCount(RpcStatus status) {
+    /**
+     * Count the beginning of an invocation on a status got by {@link #getStatus(URL, String)}, which saves looking
+     * it up again when the caller already holds it.
+     *
+     * @param status the method status
+     */
+    public static void beginCount(RpcStatus status) {
         status.active.incrementAndGet();
+        if (status.serviceStatus != null) {
+            status.serviceStatus.active.incrementAndGet();
+        }
     }
 
     /**
@@ -127,27 +181,35 @@ public class RpcStatus {
      * @param succeeded
      */
     public static void endCount(URL url, String methodName, long elapsed, boolean succeeded) {
-        endCount(getStatus(url), elapsed, succeeded);
         endCount(getStatus(url, methodName), elapsed, succeeded);
     }
 
-    private static void endCount(RpcStatus status, long elapsed, boolean succeeded) {
-        status.active.decrementAndGet();
-        status.total.incrementAndGet();
-        status.totalElapsed.addAndGet(elapsed);
-        if (status.maxElapsed.get() < elapsed) {
-            status.maxElapsed.set(elapsed);
+    /**
+     * Count the end of an invocation on the status passed to {@link #beginCount(RpcStatus)}.
+     *
+     * @param status    the method status
+     * @param elapsed
+     * @param succeeded
+     */
+    public static void endCount(RpcStatus status, long elapsed, boolean succeeded) {
+        status.end(elapsed, succeeded);
+        if (status.serviceStatus != null) {
+            status.serviceStatus.end(elapsed, succeeded);
         }
+    }
+
+    private void end(long elapsed, boolean succeeded) {
+        active.decrementAndGet();
+        total.increment();
+        totalElapsed.add(elapsed);
+        // an accumulator only writes when the max grows
+        maxElapsed.accumulate(elapsed);
         if (succeeded) {
-            if (status.succeededMaxElapsed.get() < elapsed) {
-                status.succeededMaxElapsed.set(elapsed);
-            }
+            succeededMaxElapsed.accumulate(elapsed);
         } else {
-            status.failed.incrementAndGet();
-            status.failedElapsed.addAndGet(elapsed);
-            if (status.failedMaxElapsed.get() < elapsed) {
-                status.failedMaxElapsed.set(elapsed);
-            }
+            failed.increment();
+            failedElapsed.add(elapsed);
+            failedMaxElapsed.accumulate(elapsed);
         }
     }
 
@@ -195,7 +257,7 @@ public class RpcStatus {
      * @return total elapsed
      */
     public long getTotalElapsed() {
-        return totalElapsed.get();
+        return totalElapsed.sum();
     }
 
     /**
@@ -226,7 +288,7 @@ public class RpcStatus {
      * @return failed
      */
     public int getFailed() {
-        return failed.get();
+        return failed.intValue();
     }
 
     /**
@@ -235,7 +297,7 @@ public class RpcStatus {
      * @return failed elapsed
      */
     public long getFailedElapsed() {
-        return failedElapsed.get();
+        return failedElapsed.sum();
     }
 
     /**
@@ -334,4 +396,20 @@ public class RpcStatus {
 
         return executesLimit;
     }
+
+    /**
+     * The method statuses of one url, held for the invokers of that url.
+     */
+    private static final class InvokerStatuses {
+
+        private final URL url;
+
+        private final ConcurrentMap<String, RpcStatus> methods;
+
+        InvokerStatuses(URL url, ConcurrentMap<String, RpcStatus> methods) {
+            this.url = url;
+            this.methods = methods;
+        }
+    }
+
 }
\ No newline at end of file
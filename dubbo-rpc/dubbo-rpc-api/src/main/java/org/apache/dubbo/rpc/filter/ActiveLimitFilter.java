@@ -37,7 +37,7 @@ public class ActiveLimitFilter implements Filter {
         URL url = invoker.getUrl();
         String methodName = invocation.getMethodName();
         int max = invoker.getUrl().getMethodParameter(methodName, Constants.ACTIVES_KEY, 0);
-        RpcStatus count = RpcStatus.getStatus(invoker.getUrl(), invocation.getMethodName());
+        RpcStatus count = RpcStatus.getStatus(invoker, invocation.getMethodName());
         if (max > 0) {
             long timeout = invoker.getUrl().getMethodParameter(invocation.getMethodName(), Constants.TIMEOUT_KEY, 0);
             long start = System.currentTimeMillis();
@@ -65,13 +65,13 @@ public class ActiveLimitFilter implements Filter {
         }
         try {
             long begin = System.currentTimeMillis();
-            RpcStatus.beginCount(url, methodName);
+            RpcStatus.beginCount(count);
             try {
                 Result result = invoker.invoke(invocation);
-                RpcStatus.endCount(url, methodName, System.currentTimeMillis() - begin, true);
+                RpcStatus.endCount(count, System.currentTimeMillis() - begin, true);
                 return result;
             } catch (RuntimeException t) {
-                RpcStatus.endCount(url, methodName, System.currentTimeMillis() - begin, false);
+                RpcStatus.endCount(count, System.currentTimeMillis() - begin, false);
                 throw t;
             }
         } finally {
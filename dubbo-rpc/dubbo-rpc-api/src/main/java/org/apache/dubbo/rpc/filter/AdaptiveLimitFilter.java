@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.Activate;
+import org.apache.dubbo.rpc.Filter;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.filter.limit.AdaptiveLimit;
+
+/**
+ * Limits the invocations of a provider method in flight like <code>executes</code> does, with a limit adapted to the
+ * measured latency instead of a fixed one: <code>adaptive.limit=gradient</code> or <code>aimd</code>, starting at
+ * <code>adaptive.limit.initial</code> and never exceeding <code>adaptive.limit.max</code>. Invocations over the limit
+ * are rejected at once. Methods without an algorithm are not limited.
+ *
+ * @see AdaptiveLimit
+ */
+@Activate(group = Constants.PROVIDER, value = Constants.ADAPTIVE_LIMIT_KEY)
+public class AdaptiveLimitFilter implements Filter {
+
+    @Override
+    public Result invoke(Invoker<?> invoker, Invocation invocation) throws RpcException {
+        URL url = invoker.getUrl();
+        String methodName = invocation.getMethodName();
+        AdaptiveLimit limit = AdaptiveLimit.getLimit(invoker, methodName);
+        if (limit == null) {
+            return invoker.invoke(invocation);
+        }
+        if (!limit.tryAcquire()) {
+            throw new RpcException("Failed to invoke method " + methodName + " in provider " + url
+                    + ", cause: The service has " + limit.getInFlight() + " invocations in flight, reaching its adaptive limit "
+                    + limit.getLimit() + " of <dubbo:service " + Constants.ADAPTIVE_LIMIT_KEY + "=\""
+                    + url.getMethodParameter(methodName, Constants.ADAPTIVE_LIMIT_KEY) + "\" />.");
+        }
+        long begin = System.nanoTime();
+        boolean dropped = true;
+        try {
+            Result result = invoker.invoke(invocation);
+            dropped = false;
+            return result;
+        } finally {
+            limit.release(System.nanoTime() - begin, dropped);
+        }
+    }
+
+}
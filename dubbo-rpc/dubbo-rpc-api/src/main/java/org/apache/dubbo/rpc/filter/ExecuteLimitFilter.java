@@ -41,8 +41,8 @@ public class ExecuteLimitFilter implements Filter {
         Semaphore executesLimit = null;
         boolean acquireResult = false;
         int max = url.getMethodParameter(methodName, Constants.EXECUTES_KEY, 0);
+        RpcStatus count = RpcStatus.getStatus(invoker, methodName);
         if (max > 0) {
-            RpcStatus count = RpcStatus.getStatus(url, invocation.getMethodName());
 //            if (count.getActive() >= max) {
             /**
              * http://manzhizhen.iteye.com/blog/2386408
@@ -55,7 +55,7 @@ public class ExecuteLimitFilter implements Filter {
         }
         long begin = System.currentTimeMillis();
         boolean isSuccess = true;
-        RpcStatus.beginCount(url, methodName);
+        RpcStatus.beginCount(count);
         try {
             Result result = invoker.invoke(invocation);
             return result;
@@ -67,7 +67,7 @@ public class ExecuteLimitFilter implements Filter {
                 throw new RpcException("unexpected exception when ExecuteLimitFilter", t);
             }
         } finally {
-            RpcStatus.endCount(url, methodName, System.currentTimeMillis() - begin, isSuccess);
+            RpcStatus.endCount(count, System.currentTimeMillis() - begin, isSuccess);
             if(acquireResult) {
                 executesLimit.release();
             }
@@ -18,7 +18,9 @@
 package org.apache.dubbo.rpc.filter;
 
 import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
 import org.apache.dubbo.common.extension.Activate;
+import org.apache.dubbo.common.extension.ExtensionLoader;
 import org.apache.dubbo.rpc.Filter;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
@@ -33,12 +35,15 @@ import org.apache.dubbo.rpc.filter.tps.TPSLimiter;
 @Activate(group = Constants.PROVIDER, value = Constants.TPS_LIMIT_RATE_KEY)
 public class TpsLimitFilter implements Filter {
 
-    private final TPSLimiter tpsLimiter = new DefaultTPSLimiter();
+    private final TPSLimiter defaultTpsLimiter = new DefaultTPSLimiter();
 
     @Override
     public Result invoke(Invoker<?> invoker, Invocation invocation) throws RpcException {
-
-        if (!tpsLimiter.isAllowable(invoker.getUrl(), invocation)) {
+        URL url = invoker.getUrl();
+        String limiter = url.getParameter(Constants.TPS_LIMITER_KEY, Constants.DEFAULT_TPS_LIMITER);
+        TPSLimiter tpsLimiter = Constants.DEFAULT_TPS_LIMITER.equals(limiter) ? defaultTpsLimiter
+                : ExtensionLoader.getExtensionLoader(TPSLimiter.class).getExtension(limiter);
+        if (!tpsLimiter.isAllowable(url, invocation)) {
             throw new RpcException(
                     "Failed to invoke service " +
                             invoker.getInterface().getName() +
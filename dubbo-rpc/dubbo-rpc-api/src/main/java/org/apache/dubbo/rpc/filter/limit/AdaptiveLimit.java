@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter.limit;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.utils.StringUtils;
+import org.apache.dubbo.common.utils.WeakIdentityMap;
+import org.apache.dubbo.rpc.Invoker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit of a provider method which adapts itself to the latency of the method. An invocation is admitted
+ * only while fewer invocations than the limit are in flight, otherwise it is rejected at once. The algorithm of the
+ * subclass moves the limit after every completed invocation, without locking: the limit is a double held as its bits
+ * in an {@link AtomicLong} and the change is applied by compare and set.
+ *
+ * @see org.apache.dubbo.rpc.filter.AdaptiveLimitFilter
+ */
+public abstract class AdaptiveLimit {
+
+    private static final ConcurrentMap<String, ConcurrentMap<String, AdaptiveLimit>> METHOD_LIMITS = new ConcurrentHashMap<String, ConcurrentMap<String, AdaptiveLimit>>();
+
+    /**
+     * The method limits of the url of an invoker, resolved once instead of building the url key on every call
+     */
+    private static final WeakIdentityMap<Invoker<?>, InvokerLimits> INVOKER_LIMITS = new WeakIdentityMap<Invoker<?>, InvokerLimits>();
+
+    /**
+     * Cached for the methods without an algorithm, which are not limited: the filter is activated by the
+     * key of any method of the url
+     */
+    private static final AdaptiveLimit UNLIMITED = new AdaptiveLimit(1, 1) {
+        @Override
+        protected double update(double limit, long rtt, int inFlight, boolean dropped) {
+            return limit;
+        }
+    };
+
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * bits of the limit, a double so that the algorithms may move it by fractions
+     */
+    private final AtomicLong limitBits;
+
+    protected AdaptiveLimit(int initialLimit, int maxLimit) {
+        this.maxLimit = Math.max(1, maxLimit);
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(Math.max(1, Math.min(initialLimit, this.maxLimit))));
+    }
+
+    /**
+     * @return the limit of a method, created with the algorithm configured on the url on first use, or null if
+     * no algorithm is configured for the method
+     * @throws IllegalStateException if the url configures an unknown algorithm
+     */
+    public static AdaptiveLimit getLimit(URL url, String methodName) {
+        return getLimit(url, getMethodLimits(url), methodName);
+    }
+
+    /**
+     * Get the limit of a method of the url of an invoker, which is resolved once per invoker and url.
+     *
+     * @return the limit of a method, created with the algorithm configured on the url on first use, or null if
+     * no algorithm is configured for the method
+     * @throws IllegalStateException if the url configures an unknown algorithm
+     */
+    public static AdaptiveLimit getLimit(Invoker<?> invoker, String methodName) {
+        URL url = invoker.getUrl();
+        InvokerLimits limits = INVOKER_LIMITS.get(invoker);
+        if (limits == null || limits.url != url) {
+            limits = new InvokerLimits(url, getMethodLimits(url));
+            INVOKER_LIMITS.put(invoker, limits);
+        }
+        return getLimit(url, limits.methods, methodName);
+    }
+
+    public static void removeLimits(URL url) {
+        METHOD_LIMITS.remove(url.toIdentityString());
+        INVOKER_LIMITS.clear();
+    }
+
+    private static ConcurrentMap<String, AdaptiveLimit> getMethodLimits(URL url) {
+        String uri = url.toIdentityString();
+        ConcurrentMap<String, AdaptiveLimit> map = METHOD_LIMITS.get(uri);
+        if (map == null) {
+            METHOD_LIMITS.putIfAbsent(uri, new ConcurrentHashMap<String, AdaptiveLimit>());
+            map = METHOD_LIMITS.get(uri);
+        }
+        return map;
+    }
+
+    private static AdaptiveLimit getLimit(URL url, ConcurrentMap<String, AdaptiveLimit> map, String methodName) {
+        AdaptiveLimit limit = map.get(methodName);
+        if (limit == null) {
+            map.putIfAbsent(methodName, newLimit(url, methodName));
+            limit = map.get(methodName);
+        }
+        return limit == UNLIMITED ? null : limit;
+    }
+
+    private static AdaptiveLimit newLimit(URL url, String methodName) {
+        int initial = url.getMethodParameter(methodName, Constants.ADAPTIVE_LIMIT_INITIAL_KEY, Constants.DEFAULT_ADAPTIVE_LIMIT_INITIAL);
+        int max = url.getMethodParameter(methodName, Constants.ADAPTIVE_LIMIT_MAX_KEY, Constants.DEFAULT_ADAPTIVE_LIMIT_MAX);
+        String algorithm = url.getMethodParameter(methodName, Constants.ADAPTIVE_LIMIT_KEY);
+        if (StringUtils.isEmpty(algorithm)) {
+            return UNLIMITED;
+        }
+        if (Constants.ADAPTIVE_LIMIT_AIMD.equals(algorithm)) {
+            int timeout = url.getMethodParameter(methodName, Constants.TIMEOUT_KEY, Constants.DEFAULT_TIMEOUT);
+            return new AimdLimit(initial, max, timeout);
+        }
+        if (Constants.ADAPTIVE_LIMIT_GRADIENT.equals(algorithm)) {
+            return new GradientLimit(initial, max);
+        }
+        throw new IllegalStateException("Unsupported " + Constants.ADAPTIVE_LIMIT_KEY + " \"" + algorithm + "\" of method "
+                + methodName + " in " + url + ", supported: " + Constants.ADAPTIVE_LIMIT_GRADIENT + ", "
+                + Constants.ADAPTIVE_LIMIT_AIMD);
+    }
+
+    /**
+     * Admits an invocation if the limit allows one more in flight, it must be {@link #release released} then.
+     */
+    public boolean tryAcquire() {
+        int limit = getLimit();
+        for (; ; ) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends an admitted invocation and adapts the limit to it.
+     *
+     * @param rtt     nanoseconds the invocation took
+     * @param dropped whether the invocation failed, which is taken as a sign of overload
+     */
+    public void release(long rtt, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        double limit = Double.longBitsToDouble(limitBits.get());
+        double change = update(limit, rtt, current, dropped) - limit;
+        if (change == 0) {
+            return;
+        }
+        for (; ; ) {
+            long bits = limitBits.get();
+            double next = Math.max(1, Math.min(maxLimit, Double.longBitsToDouble(bits) + change));
+            // another invocation may have moved the limit meanwhile, the change applies to its result
+            if (limitBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Called once per completed invocation, possibly concurrently with other invocations.
+     *
+     * @param limit    the current limit
+     * @param rtt      nanoseconds the invocation took
+     * @param inFlight invocations in flight when it completed, itself included
+     * @param dropped  whether it failed
+     * @return the new limit
+     */
+    protected abstract double update(double limit, long rtt, int inFlight, boolean dropped);
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(limit: " + getLimit() + ", in flight: " + inFlight.get()
+                + ", rejected: " + rejected.sum() + ")";
+    }
+
+    private static final class InvokerLimits {
+
+        private final URL url;
+
+        private final ConcurrentMap<String, AdaptiveLimit> methods;
+
+        InvokerLimits(URL url, ConcurrentMap<String, AdaptiveLimit> methods) {
+            this.url = url;
+            this.methods = methods;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter.limit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Additive increase, multiplicative decrease. While the limit is in use, every invocation completing within the
+ * timeout raises it by a limit-th, so by about one per round trip. A failed invocation or one slower than the timeout
+ * cuts it by a tenth.
+ */
+class AimdLimit extends AdaptiveLimit {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final long timeoutNanos;
+
+    AimdLimit(int initialLimit, int maxLimit, int timeout) {
+        super(initialLimit, maxLimit);
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+    }
+
+    @Override
+    protected double update(double limit, long rtt, int inFlight, boolean dropped) {
+        if (dropped || rtt > timeoutNanos) {
+            return limit * BACKOFF_RATIO;
+        }
+        if (inFlight * 2 >= limit) {
+            return limit + 1 / limit;
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter.limit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Follows the gradient of the latency, the ratio of the round trip time without load to the current one. While the
+ * latency stays within the tolerance and the limit is in use, the limit grows by about its square root per round trip.
+ * Once invocations queue up, it shrinks by up to half. Failures count as a gradient of one half.
+ * <p>
+ * The latency without load is only seen below the concurrency the method can serve, so every thirty round trips or so
+ * the limit is halved for one round trip to measure it again. A lasting change of the latency of the method thus
+ * becomes its new normal. The invocations are numbered as they complete, the one reaching the next probe starts it.
+ */
+class GradientLimit extends AdaptiveLimit {
+
+    private static final double TOLERANCE = 1.5;
+
+    private static final double SMOOTHING = 0.2;
+
+    private static final int PROBE_INTERVAL = 30;
+
+    private final AtomicLong minRtt = new AtomicLong(Long.MAX_VALUE);
+
+    private final AtomicLong samples = new AtomicLong();
+
+    /**
+     * number of the invocation starting the next probe
+     */
+    private final AtomicLong nextProbe;
+
+    /**
+     * number of the first invocation after the running probe
+     */
+    private volatile long probeEnd;
+
+    GradientLimit(int initialLimit, int maxLimit) {
+        super(initialLimit, maxLimit);
+        this.nextProbe = new AtomicLong(PROBE_INTERVAL * (long) initialLimit);
+    }
+
+    @Override
+    protected double update(double limit, long rtt, int inFlight, boolean dropped) {
+        // a clock too coarse to see the invocation reports 0, which would make the gradient 0 / 0
+        rtt = Math.max(1, rtt);
+        long min = minRtt.accumulateAndGet(rtt, Math::min);
+        long sample = samples.incrementAndGet();
+        if (sample < probeEnd) {
+            return limit;
+        }
+        long probe = nextProbe.get();
+        if (sample >= probe && nextProbe.compareAndSet(probe, sample + (long) ((PROBE_INTERVAL + 1) * limit))) {
+            probeEnd = sample + 1 + (long) limit;
+            minRtt.set(Long.MAX_VALUE);
+            return limit / 2;
+        }
+        if (!dropped && inFlight * 2 < limit) {
+            // the method is not used up to its limit, its latency tells nothing about the limit
+            return limit;
+        }
+        double gradient = dropped ? 0.5 : Math.max(0.5, Math.min(1.0, TOLERANCE * min / rtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        return limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+    }
+}
@@ -17,8 +17,14 @@
 package org.apache.dubbo.rpc.filter.tps;
 
 import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.SPI;
 import org.apache.dubbo.rpc.Invocation;
 
+/**
+ * TPS limiter used by the TpsLimitFilter, selected by {@link org.apache.dubbo.common.Constants#TPS_LIMITER_KEY}.
+ * The default {@link DefaultTPSLimiter} is not an extension, every TpsLimitFilter holds its own.
+ */
+@SPI
 public interface TPSLimiter {
 
     /**
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter.tps;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.utils.StringUtils;
+import org.apache.dubbo.rpc.Invocation;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket which refills one token every <code>interval / rate</code> instead of all of them at the interval
+ * boundary, so a burst is bounded by <code>rate</code> at any moment. A method which configures its own
+ * <code>tps</code> gets its own bucket, the other methods share the bucket of the service.
+ */
+public class TokenBucketTPSLimiter implements TPSLimiter {
+
+    public static final String NAME = "tokenbucket";
+
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<String, TokenBucket>();
+
+    @Override
+    public boolean isAllowable(URL url, Invocation invocation) {
+        String methodName = invocation.getMethodName();
+        int rate = url.getMethodParameter(methodName, Constants.TPS_LIMIT_RATE_KEY, -1);
+        long interval = url.getMethodParameter(methodName, Constants.TPS_LIMIT_INTERVAL_KEY,
+                Constants.DEFAULT_TPS_LIMIT_INTERVAL);
+        String key = StringUtils.isEmpty(url.getParameter(methodName + "." + Constants.TPS_LIMIT_RATE_KEY))
+                ? url.getServiceKey() : url.getServiceKey() + "#" + methodName;
+        if (rate > 0) {
+            TokenBucket bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(rate, interval));
+            while (!bucket.isConfiguredWith(rate, interval)) {
+                // a changed rate starts over with a full bucket, installed by only one of the racing callers
+                TokenBucket reconfigured = new TokenBucket(rate, interval);
+                bucket = buckets.replace(key, bucket, reconfigured) ? reconfigured
+                        : buckets.computeIfAbsent(key, k -> new TokenBucket(rate, interval));
+            }
+            return bucket.tryAcquire();
+        } else {
+            buckets.remove(key);
+        }
+        return true;
+    }
+
+    /**
+     * Lock free bucket which keeps only the time at which it will be full again: a token is taken by pushing that
+     * time one refill period further, as long as it stays within the capacity worth of periods from now.
+     */
+    static final class TokenBucket {
+
+        private final int rate;
+
+        private final long interval;
+
+        private final long refillNanos;
+
+        private final long capacityNanos;
+
+        private final AtomicLong fullAt;
+
+        TokenBucket(int rate, long interval) {
+            this.rate = rate;
+            this.interval = interval;
+            long intervalNanos = TimeUnit.MILLISECONDS.toNanos(interval);
+            this.refillNanos = Math.max(1L, intervalNanos / rate);
+            this.capacityNanos = refillNanos * rate;
+            this.fullAt = new AtomicLong(System.nanoTime());
+        }
+
+        boolean isConfiguredWith(int rate, long interval) {
+            return this.rate == rate && this.interval == interval;
+        }
+
+        boolean tryAcquire() {
+            return tryAcquire(System.nanoTime());
+        }
+
+        boolean tryAcquire(long now) {
+            for (; ; ) {
+                long current = fullAt.get();
+                // a full bucket does not keep accumulating tokens while idle
+                long base = current - now < 0 ? now : current;
+                long next = base + refillNanos;
+                if (next - now > capacityNanos) {
+                    return false;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * @return the tokens left at the given time
+         */
+        int getTokens(long now) {
+            long used = fullAt.get() - now;
+            return used <= 0 ? rate : (int) ((capacityNanos - used) / refillNanos);
+        }
+    }
+
+}
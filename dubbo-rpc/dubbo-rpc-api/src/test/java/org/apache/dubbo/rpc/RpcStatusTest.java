@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.support.MyInvoker;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+public class RpcStatusTest {
+
+    @Test
+    public void testMethodCountsIntoService() {
+        URL url = URL.valueOf("dubbo://127.0.0.1:20880/org.apache.dubbo.rpc.RpcStatusTest.testMethodCountsIntoService");
+        RpcStatus sayHello = RpcStatus.getStatus(url, "sayHello");
+        RpcStatus.beginCount(sayHello);
+        RpcStatus.beginCount(url, "sayBye");
+        Assert.assertEquals(1, sayHello.getActive());
+        Assert.assertEquals(2, RpcStatus.getStatus(url).getActive());
+
+        RpcStatus.endCount(sayHello, 10, true);
+        RpcStatus.endCount(url, "sayBye", 30, false);
+        RpcStatus service = RpcStatus.getStatus(url);
+        Assert.assertEquals(0, service.getActive());
+        Assert.assertEquals(2, service.getTotal());
+        Assert.assertEquals(1, service.getFailed());
+        Assert.assertEquals(40, service.getTotalElapsed());
+        Assert.assertEquals(30, service.getMaxElapsed());
+        Assert.assertEquals(30, service.getFailedMaxElapsed());
+        Assert.assertEquals(10, service.getSucceededMaxElapsed());
+        Assert.assertEquals(1, sayHello.getTotal());
+        Assert.assertEquals(10, sayHello.getMaxElapsed());
+
+        RpcStatus.removeStatus(url);
+        Assert.assertEquals(0, RpcStatus.getStatus(url).getTotal());
+        Assert.assertEquals(0, RpcStatus.getStatus(url, "sayHello").getTotal());
+    }
+
+    @Test
+    public void testInvokerStatus() {
+        URL url = URL.valueOf("dubbo://127.0.0.1:20880/org.apache.dubbo.rpc.RpcStatusTest.testInvokerStatus");
+        MyInvoker<RpcStatusTest> invoker = new MyInvoker<RpcStatusTest>(url);
+        RpcStatus status = RpcStatus.getStatus(invoker, "sayHello");
+        Assert.assertSame(RpcStatus.getStatus(url, "sayHello"), status);
+        Assert.assertSame(status, RpcStatus.getStatus(invoker, "sayHello"));
+        Assert.assertNotSame(status, RpcStatus.getStatus(invoker, "sayBye"));
+
+        // an invoker of an equal url shares the statuses
+        MyInvoker<RpcStatusTest> other = new MyInvoker<RpcStatusTest>(URL.valueOf(url.toFullString()));
+        Assert.assertSame(status, RpcStatus.getStatus(other, "sayHello"));
+
+        RpcStatus.removeStatus(url);
+        Assert.assertNotSame(status, RpcStatus.getStatus(invoker, "sayHello"));
+        Assert.assertSame(RpcStatus.getStatus(url, "sayHello"), RpcStatus.getStatus(invoker, "sayHello"));
+    }
+
+    @Test
+    public void testContendedCount() throws Exception {
+        final URL url = URL.valueOf("dubbo://127.0.0.1:20880/org.apache.dubbo.rpc.RpcStatusTest.testContendedCount");
+        final int threads = 32;
+        final int invocations = 100000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch end = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            final long elapsed = i;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        RpcStatus status = RpcStatus.getStatus(url, "echo");
+                        for (int j = 0; j < invocations; j++) {
+                            RpcStatus.beginCount(status);
+                            RpcStatus.endCount(status, elapsed, (j & 1) == 0);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        end.countDown();
+                    }
+                }
+            }).start();
+        }
+        start.countDown();
+        end.await();
+
+        for (RpcStatus status : new RpcStatus[]{RpcStatus.getStatus(url), RpcStatus.getStatus(url, "echo")}) {
+            Assert.assertEquals(0, status.getActive());
+            Assert.assertEquals((long) threads * invocations, status.getTotal());
+            Assert.assertEquals(threads * invocations / 2, status.getFailed());
+            Assert.assertEquals((long) invocations * (threads - 1) * threads / 2, status.getTotalElapsed());
+            Assert.assertEquals(threads - 1, status.getMaxElapsed());
+        }
+    }
+
+}
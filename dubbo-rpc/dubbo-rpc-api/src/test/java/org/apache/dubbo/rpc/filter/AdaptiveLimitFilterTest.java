@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.RpcResult;
+import org.apache.dubbo.rpc.filter.limit.AdaptiveLimit;
+import org.apache.dubbo.rpc.support.BlockMyInvoker;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+public class AdaptiveLimitFilterTest {
+
+    private AdaptiveLimitFilter adaptiveLimitFilter = new AdaptiveLimitFilter();
+
+    @Test
+    public void testInvoke() throws Exception {
+        Invoker invoker = Mockito.mock(Invoker.class);
+        when(invoker.invoke(any(Invocation.class))).thenReturn(new RpcResult("result"));
+        URL url = URL.valueOf("test://test:11/test?group=dubbo&version=1.1&adaptive.limit=gradient");
+        when(invoker.getUrl()).thenReturn(url);
+
+        Invocation invocation = Mockito.mock(Invocation.class);
+        when(invocation.getMethodName()).thenReturn("testInvoke");
+
+        Result result = adaptiveLimitFilter.invoke(invoker, invocation);
+        Assert.assertEquals("result", result.getValue());
+        AdaptiveLimit limit = AdaptiveLimit.getLimit(url, "testInvoke");
+        Assert.assertEquals(0, limit.getInFlight());
+        Assert.assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    public void testInvokeMethodWithoutLimit() throws Exception {
+        Invoker invoker = Mockito.mock(Invoker.class);
+        when(invoker.invoke(any(Invocation.class))).thenReturn(new RpcResult("result"));
+        URL url = URL.valueOf("test://test:11/test?group=dubbo&version=1.1&limited.adaptive.limit=gradient");
+        when(invoker.getUrl()).thenReturn(url);
+
+        Invocation limited = Mockito.mock(Invocation.class);
+        when(limited.getMethodName()).thenReturn("limited");
+        Invocation unlimited = Mockito.mock(Invocation.class);
+        when(unlimited.getMethodName()).thenReturn("unlimited");
+
+        Assert.assertEquals("result", adaptiveLimitFilter.invoke(invoker, limited).getValue());
+        Assert.assertEquals("result", adaptiveLimitFilter.invoke(invoker, unlimited).getValue());
+        Assert.assertEquals("result", adaptiveLimitFilter.invoke(invoker, unlimited).getValue());
+        Assert.assertNotNull(AdaptiveLimit.getLimit(url, "limited"));
+        Assert.assertNull(AdaptiveLimit.getLimit(url, "unlimited"));
+    }
+
+    @Test
+    public void testInvokeWithException() throws Exception {
+        Invoker invoker = Mockito.mock(Invoker.class);
+        doThrow(new RpcException()).when(invoker).invoke(any(Invocation.class));
+        URL url = URL.valueOf("test://test:11/test?group=dubbo&version=1.1&adaptive.limit=aimd&adaptive.limit.initial=10");
+        when(invoker.getUrl()).thenReturn(url);
+
+        Invocation invocation = Mockito.mock(Invocation.class);
+        when(invocation.getMethodName()).thenReturn("testInvokeWithException");
+
+        try {
+            adaptiveLimitFilter.invoke(invoker, invocation);
+            Assert.fail();
+        } catch (RpcException expected) {
+            // thrown by the invoker
+        }
+        AdaptiveLimit limit = AdaptiveLimit.getLimit(url, "testInvokeWithException");
+        Assert.assertEquals(0, limit.getInFlight());
+        Assert.assertEquals(9, limit.getLimit());
+    }
+
+    @Test
+    public void testMoreThanLimitInvoke() throws Exception {
+        int totalExecute = 20;
+        final AtomicInteger failed = new AtomicInteger(0);
+
+        final Invocation invocation = Mockito.mock(Invocation.class);
+        when(invocation.getMethodName()).thenReturn("testMoreThanLimitInvoke");
+
+        URL url = URL.valueOf("test://test:11/test?group=dubbo&version=1.1&adaptive.limit=gradient&adaptive.limit.initial=5");
+        final Invoker<AdaptiveLimitFilter> invoker = new BlockMyInvoker<AdaptiveLimitFilter>(url, 1000);
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(totalExecute);
+        for (int i = 0; i < totalExecute; i++) {
+            Thread thread = new Thread(new Runnable() {
+
+                public void run() {
+                    try {
+                        latch.await();
+                    } catch (InterruptedException e) {
+                        e.printStackTrace();
+                    }
+                    try {
+                        adaptiveLimitFilter.invoke(invoker, invocation);
+                    } catch (RpcException expected) {
+                        failed.incrementAndGet();
+                    }
+                    done.countDown();
+                }
+            });
+            thread.start();
+        }
+        latch.countDown();
+        done.await();
+
+        Assert.assertEquals(totalExecute - 5, failed.get());
+        Assert.assertEquals(totalExecute - 5, AdaptiveLimit.getLimit(url, "testMoreThanLimitInvoke").getRejectedCount());
+    }
+}
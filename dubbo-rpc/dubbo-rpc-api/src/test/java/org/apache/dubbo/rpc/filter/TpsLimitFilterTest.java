@@ -21,6 +21,7 @@ import org.apache.dubbo.common.URL;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.filter.tps.TokenBucketTPSLimiter;
 import org.apache.dubbo.rpc.support.MockInvocation;
 import org.apache.dubbo.rpc.support.MyInvoker;
 
@@ -61,4 +62,23 @@ public class TpsLimitFilterTest {
         }
     }
 
+    @Test(expected = RpcException.class)
+    public void testTokenBucketFail() throws Exception {
+        URL url = URL.valueOf("test://test");
+        url = url.addParameter(Constants.INTERFACE_KEY,
+                "org.apache.dubbo.rpc.file.TpsService");
+        url = url.addParameter(Constants.TPS_LIMIT_RATE_KEY, 5);
+        url = url.addParameter(Constants.TPS_LIMITER_KEY, TokenBucketTPSLimiter.NAME);
+        Invoker<TpsLimitFilterTest> invoker = new MyInvoker<TpsLimitFilterTest>(url);
+        Invocation invocation = new MockInvocation();
+        for (int i = 0; i < 10; i++) {
+            try {
+                filter.invoke(invoker, invocation);
+            } catch (Exception e) {
+                assertTrue(i >= 5);
+                throw e;
+            }
+        }
+    }
+
 }
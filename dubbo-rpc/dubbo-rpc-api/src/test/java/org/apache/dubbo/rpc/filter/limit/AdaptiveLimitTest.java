@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter.limit;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.Invoker;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class AdaptiveLimitTest {
+
+    private static final long BASE_RTT = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void testGetLimit() {
+        URL url = URL.valueOf("test://test:11/test?adaptive.limit=gradient&foo.adaptive.limit=aimd&adaptive.limit.initial=30&adaptive.limit.max=40");
+        AdaptiveLimit limit = AdaptiveLimit.getLimit(url, "bar");
+        Assert.assertTrue(limit instanceof GradientLimit);
+        Assert.assertSame(limit, AdaptiveLimit.getLimit(url, "bar"));
+        Assert.assertEquals(30, limit.getLimit());
+        Assert.assertTrue(AdaptiveLimit.getLimit(url, "foo") instanceof AimdLimit);
+        AdaptiveLimit.removeLimits(url);
+        Assert.assertNotSame(limit, AdaptiveLimit.getLimit(url, "bar"));
+    }
+
+    @Test
+    public void testGetLimitOfInvoker() {
+        URL url = URL.valueOf("test://test:11/invoker?adaptive.limit=aimd");
+        Invoker<?> invoker = mock(Invoker.class);
+        given(invoker.getUrl()).willReturn(url);
+        AdaptiveLimit limit = AdaptiveLimit.getLimit(invoker, "bar");
+        Assert.assertSame(limit, AdaptiveLimit.getLimit(url, "bar"));
+        Assert.assertSame(limit, AdaptiveLimit.getLimit(invoker, "bar"));
+
+        // the invoker gets another url
+        URL other = url.setPath("other").addParameter("adaptive.limit", "gradient");
+        given(invoker.getUrl()).willReturn(other);
+        Assert.assertTrue(AdaptiveLimit.getLimit(invoker, "bar") instanceof GradientLimit);
+        AdaptiveLimit.removeLimits(url);
+        AdaptiveLimit.removeLimits(other);
+    }
+
+    @Test
+    public void testMethodWithoutAlgorithm() {
+        URL url = URL.valueOf("test://test:11/method?foo.adaptive.limit=aimd");
+        Assert.assertTrue(AdaptiveLimit.getLimit(url, "foo") instanceof AimdLimit);
+        Assert.assertNull(AdaptiveLimit.getLimit(url, "bar"));
+        Assert.assertNull(AdaptiveLimit.getLimit(url, "bar"));
+        AdaptiveLimit.removeLimits(url);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnknownAlgorithm() {
+        AdaptiveLimit.getLimit(URL.valueOf("test://test:11/unknown?adaptive.limit=vegas"), "bar");
+    }
+
+    @Test
+    public void testConcurrentRelease() throws Exception {
+        final AdaptiveLimit limit = new AimdLimit(100, 1000, 1000);
+        final int threads = 4;
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 1000; i++) {
+                        if (limit.tryAcquire()) {
+                            // every one of them cuts the limit by a tenth
+                            limit.release(BASE_RTT, true);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, limit.getInFlight());
+        Assert.assertEquals(1, limit.getLimit());
+    }
+
+    @Test
+    public void testTryAcquire() {
+        AdaptiveLimit limit = new GradientLimit(2, 10);
+        Assert.assertTrue(limit.tryAcquire());
+        Assert.assertTrue(limit.tryAcquire());
+        Assert.assertFalse(limit.tryAcquire());
+        Assert.assertEquals(1, limit.getRejectedCount());
+        limit.release(BASE_RTT, false);
+        Assert.assertEquals(1, limit.getInFlight());
+        Assert.assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    public void testAimd() {
+        AdaptiveLimit limit = new AimdLimit(10, 1000, 2);
+        // not used up, the limit stays
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(BASE_RTT, false);
+        }
+        Assert.assertEquals(10, limit.getLimit());
+        limit.tryAcquire();
+        limit.release(BASE_RTT, true);
+        Assert.assertEquals(9, limit.getLimit());
+
+        // invocations slower than the timeout of 2ms once more than 100 are in flight
+        int converged = saturate(limit, 50, BASE_RTT, 20000);
+        Assert.assertTrue("limit " + converged, converged >= 80 && converged <= 110);
+    }
+
+    @Test
+    public void testGradient() {
+        AdaptiveLimit limit = new GradientLimit(20, 1000);
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(BASE_RTT, false);
+        }
+        Assert.assertEquals(20, limit.getLimit());
+
+        // the latency rises once more than 50 are in flight
+        int converged = saturate(limit, 50, 20000);
+        Assert.assertTrue("limit " + converged, converged >= 40 && converged <= 100);
+
+        // the method slows down to half its capacity
+        converged = saturate(limit, 25, 20000);
+        Assert.assertTrue("limit " + converged, converged >= 20 && converged <= 50);
+
+        // every invocation takes twice as long, whatever the load
+        converged = saturate(limit, 25, 2 * BASE_RTT, 20000);
+        Assert.assertTrue("limit " + converged, converged >= 20 && converged <= 50);
+    }
+
+    @Test
+    public void testGradientWithZeroRtt() {
+        AdaptiveLimit limit = new GradientLimit(20, 1000);
+        for (int i = 0; i < 1000; i++) {
+            for (int j = 0; j < 20; j++) {
+                limit.tryAcquire();
+            }
+            for (int j = 0; j < 20; j++) {
+                limit.release(0, false);
+            }
+        }
+        Assert.assertTrue("limit " + limit.getLimit(), limit.getLimit() >= 1);
+        int converged = saturate(limit, 50, 20000);
+        Assert.assertTrue("limit " + converged, converged >= 40 && converged <= 100);
+    }
+
+    private static int saturate(AdaptiveLimit limit, int capacity, int rounds) {
+        return saturate(limit, capacity, BASE_RTT, rounds);
+    }
+
+    /**
+     * Keeps the limit used up by a method serving <code>capacity</code> invocations at a time in <code>rtt</code>
+     * nanoseconds, further ones queueing up, and completes one invocation per round.
+     */
+    private static int saturate(AdaptiveLimit limit, int capacity, long rtt, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            while (limit.tryAcquire()) {
+                // fill up to the limit
+            }
+            int inFlight = limit.getInFlight();
+            limit.release(rtt * Math.max(inFlight, capacity) / capacity, false);
+        }
+        return limit.getLimit();
+    }
+}
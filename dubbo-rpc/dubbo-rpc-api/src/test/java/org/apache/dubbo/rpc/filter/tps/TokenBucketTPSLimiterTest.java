@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter.tps;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TokenBucketTPSLimiterTest {
+
+    @Test
+    public void testSmoothRefill() throws Exception {
+        TokenBucketTPSLimiter.TokenBucket bucket = new TokenBucketTPSLimiter.TokenBucket(5, 1000L);
+        long now = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bucket.tryAcquire(now));
+        }
+        assertFalse(bucket.tryAcquire(now));
+        assertEquals(0, bucket.getTokens(now));
+
+        // one token every 200ms, not all of them at the end of the interval
+        long later = now + TimeUnit.MILLISECONDS.toNanos(200);
+        assertEquals(1, bucket.getTokens(later));
+        assertTrue(bucket.tryAcquire(later));
+        assertFalse(bucket.tryAcquire(later));
+
+        // an idle bucket holds no more than rate tokens
+        long idle = now + TimeUnit.SECONDS.toNanos(10);
+        assertEquals(5, bucket.getTokens(idle));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bucket.tryAcquire(idle));
+        }
+        assertFalse(bucket.tryAcquire(idle));
+    }
+
+    @Test
+    public void testMethodKeys() throws Exception {
+        TokenBucketTPSLimiter limiter = new TokenBucketTPSLimiter();
+        URL url = URL.valueOf("test://test/org.apache.dubbo.rpc.file.TpsService?" + Constants.TPS_LIMIT_RATE_KEY + "=2&echo."
+                + Constants.TPS_LIMIT_RATE_KEY + "=1");
+        RpcInvocation echo = new RpcInvocation("echo", new Class<?>[0], new Object[0]);
+        RpcInvocation sayHello = new RpcInvocation("sayHello", new Class<?>[0], new Object[0]);
+        RpcInvocation sayBye = new RpcInvocation("sayBye", new Class<?>[0], new Object[0]);
+
+        assertTrue(limiter.isAllowable(url, echo));
+        assertFalse(limiter.isAllowable(url, echo));
+        // the other methods share the service bucket
+        assertTrue(limiter.isAllowable(url, sayHello));
+        assertTrue(limiter.isAllowable(url, sayBye));
+        assertFalse(limiter.isAllowable(url, sayHello));
+
+        // unlimited once the rate is removed
+        URL unlimited = url.removeParameter(Constants.TPS_LIMIT_RATE_KEY);
+        assertTrue(limiter.isAllowable(unlimited, sayHello));
+    }
+
+    @Test
+    public void testReconfigure() throws Exception {
+        TokenBucketTPSLimiter limiter = new TokenBucketTPSLimiter();
+        URL url = URL.valueOf("test://test/org.apache.dubbo.rpc.file.TpsService?" + Constants.TPS_LIMIT_RATE_KEY + "=1");
+        RpcInvocation echo = new RpcInvocation("echo", new Class<?>[0], new Object[0]);
+        assertTrue(limiter.isAllowable(url, echo));
+        assertFalse(limiter.isAllowable(url, echo));
+
+        // a new rate starts over with a full bucket, which is then kept
+        URL reconfigured = url.addParameter(Constants.TPS_LIMIT_RATE_KEY, 2);
+        assertTrue(limiter.isAllowable(reconfigured, echo));
+        assertTrue(limiter.isAllowable(reconfigured, echo));
+        assertFalse(limiter.isAllowable(reconfigured, echo));
+    }
+
+    @Test
+    public void testConcurrentAcquire() throws Exception {
+        final TokenBucketTPSLimiter limiter = new TokenBucketTPSLimiter();
+        final URL url = URL.valueOf("test://test/org.apache.dubbo.rpc.file.TpsService?" + Constants.TPS_LIMIT_RATE_KEY + "=1000");
+        final RpcInvocation invocation = new RpcInvocation("echo", new Class<?>[0], new Object[0]);
+        final AtomicInteger allowed = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch end = new CountDownLatch(64);
+        long begin = System.nanoTime();
+        for (int i = 0; i < 64; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < 1000; j++) {
+                            if (limiter.isAllowable(url, invocation)) {
+                                allowed.incrementAndGet();
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        end.countDown();
+                    }
+                }
+            }).start();
+        }
+        start.countDown();
+        end.await();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+        // the full bucket plus one token every 60ms while running
+        assertTrue(allowed.get() >= 1000);
+        assertTrue(allowed.get() <= 1000 + elapsed / 60 + 1);
+    }
+
+}
@@ -71,8 +71,7 @@ public class DecodeableRpcResult extends RpcResult implements Codec, Decodeable
 
     @Override
     public Object decode(Channel channel, InputStream input) throws IOException {
-        ObjectInput in = CodecSupport.getSerialization(channel.getUrl(), serializationType)
-                .deserialize(channel.getUrl(), input);
+        ObjectInput in = CodecSupport.deserialize(channel.getUrl(), input, serializationType);
         
         byte flag = in.readByte();
         switch (flag) {
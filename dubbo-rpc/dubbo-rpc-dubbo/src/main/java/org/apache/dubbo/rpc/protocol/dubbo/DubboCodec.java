@@ -18,7 +18,6 @@ package org.apache.dubbo.rpc.protocol.dubbo;
 
 import org.apache.dubbo.common.Constants;
 import org.apache.dubbo.common.Version;
-import org.apache.dubbo.common.io.Bytes;
 import org.apache.dubbo.common.io.UnsafeByteArrayInputStream;
 import org.apache.dubbo.common.logger.Logger;
 import org.apache.dubbo.common.logger.LoggerFactory;
@@ -60,18 +59,15 @@ public class DubboCodec extends ExchangeCodec implements Codec2 {
     private static final Logger log = LoggerFactory.getLogger(DubboCodec.class);
 
     @Override
-    protected Object decodeBody(Channel channel, InputStream is, byte[] header) throws IOException {
-        byte flag = header[2], proto = (byte) (flag & SERIALIZATION_MASK);
-        // get request id.
-        long id = Bytes.bytes2long(header, 4);
+    protected Object decodeBody(Channel channel, InputStream is, byte flag, byte status, long id) throws IOException {
+        byte proto = (byte) (flag & SERIALIZATION_MASK);
         if ((flag & FLAG_REQUEST) == 0) {
             // decode response.
             Response res = new Response(id);
             if ((flag & FLAG_EVENT) != 0) {
                 res.setEvent(Response.HEARTBEAT_EVENT);
             }
-            // get status.
-            byte status = header[3];
+            // set status.
             res.setStatus(status);
             try {
                 ObjectInput in = CodecSupport.deserialize(channel.getUrl(), is, proto);
@@ -83,9 +79,10 @@ public class DubboCodec extends ExchangeCodec implements Codec2 {
                         data = decodeEventData(channel, in);
                     } else {
                         DecodeableRpcResult result;
+                        // a caller waiting in threadless mode decodes the result on its own thread
                         if (channel.getUrl().getParameter(
                                 Constants.DECODE_IN_IO_THREAD_KEY,
-                                Constants.DEFAULT_DECODE_IN_IO_THREAD)) {
+                                Constants.DEFAULT_DECODE_IN_IO_THREAD) && !isWaitedThreadless(id)) {
                             result = new DecodeableRpcResult(channel, res, is,
                                     (Invocation) getRequestData(id), proto);
                             result.decode();
@@ -16,6 +16,10 @@
  */
 package org.apache.dubbo.rpc.protocol.dubbo;
 
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.common.store.DataStore;
+import org.apache.dubbo.remoting.transport.dispatcher.IsolatedExecutors;
 import org.apache.dubbo.rpc.Exporter;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.protocol.AbstractExporter;
@@ -41,6 +45,27 @@ public class DubboExporter<T> extends AbstractExporter<T> {
     public void unexport() {
         super.unexport();
         exporterMap.remove(key);
+        releaseIsolatedExecutors();
+    }
+
+    /**
+     * Shuts down the isolated pools of the service unless another version or group of it is still exported on the
+     * same port.
+     */
+    private void releaseIsolatedExecutors() {
+        URL url = getInvoker().getUrl();
+        for (Exporter<?> exporter : exporterMap.values()) {
+            URL other = exporter.getInvoker().getUrl();
+            if (url.getPort() == other.getPort() && url.getPath().equals(other.getPath())) {
+                return;
+            }
+        }
+        DataStore dataStore = ExtensionLoader.getExtensionLoader(DataStore.class).getDefaultExtension();
+        IsolatedExecutors isolatedExecutors = (IsolatedExecutors) dataStore.get(IsolatedExecutors.COMPONENT_KEY,
+                Integer.toString(url.getPort()));
+        if (isolatedExecutors != null) {
+            isolatedExecutors.unregister(url.getPath());
+        }
     }
 
 }
\ No newline at end of file
@@ -24,6 +24,7 @@ import org.apache.dubbo.remoting.RemotingException;
 import org.apache.dubbo.remoting.TimeoutException;
 import org.apache.dubbo.remoting.exchange.ExchangeClient;
 import org.apache.dubbo.remoting.exchange.ResponseFuture;
+import org.apache.dubbo.remoting.exchange.support.DefaultFuture;
 import org.apache.dubbo.rpc.AsyncRpcResult;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
@@ -46,6 +47,9 @@ public class DubboInvoker<T> extends AbstractInvoker<T> {
 
     private final ExchangeClient[] clients;
 
+    // null unless the connections are pooled
+    private final ExchangeClientPool clientPool;
+
     private final AtomicPositiveInteger index = new AtomicPositiveInteger();
 
     private final String version;
@@ -61,11 +65,20 @@ public class DubboInvoker<T> extends AbstractInvoker<T> {
     public DubboInvoker(Class<T> serviceType, URL url, ExchangeClient[] clients, Set<Invoker<?>> invokers) {
         super(serviceType, url, new String[]{Constants.INTERFACE_KEY, Constants.GROUP_KEY, Constants.TOKEN_KEY, Constants.TIMEOUT_KEY});
         this.clients = clients;
+        this.clientPool = null;
         // get version.
         this.version = url.getParameter(Constants.VERSION_KEY, "0.0.0");
         this.invokers = invokers;
     }
 
+    DubboInvoker(Class<T> serviceType, URL url, ExchangeClientPool clientPool, Set<Invoker<?>> invokers) {
+        super(serviceType, url, new String[]{Constants.INTERFACE_KEY, Constants.GROUP_KEY, Constants.TOKEN_KEY, Constants.TIMEOUT_KEY});
+        this.clients = null;
+        this.clientPool = clientPool;
+        this.version = url.getParameter(Constants.VERSION_KEY, "0.0.0");
+        this.invokers = invokers;
+    }
+
     @Override
     protected Result doInvoke(final Invocation invocation) throws Throwable {
         RpcInvocation inv = (RpcInvocation) invocation;
@@ -74,7 +87,9 @@ public class DubboInvoker<T> extends AbstractInvoker<T> {
         inv.setAttachment(Constants.VERSION_KEY, version);
 
         ExchangeClient currentClient;
-        if (clients.length == 1) {
+        if (clientPool != null) {
+            currentClient = clientPool.select();
+        } else if (clients.length == 1) {
             currentClient = clients[0];
         } else {
             currentClient = clients[index.getAndIncrement() % clients.length];
@@ -105,7 +120,16 @@ public class DubboInvoker<T> extends AbstractInvoker<T> {
                 return result;
             } else {
                 RpcContext.getContext().setFuture(null);
-                return (Result) currentClient.request(inv, timeout).get();
+                ResponseFuture future = currentClient.request(inv, timeout);
+                if (getUrl().getMethodParameter(methodName, Constants.THREADLESS_KEY, false)) {
+                    if (future instanceof DefaultFuture) {
+                        return (Result) ((DefaultFuture) future).getThreadless(timeout);
+                    }
+                    if (future instanceof ExchangeClientPool.PooledExchangeClient.InFlightResponseFuture) {
+                        return (Result) ((ExchangeClientPool.PooledExchangeClient.InFlightResponseFuture) future).getThreadless(timeout);
+                    }
+                }
+                return (Result) future.get();
             }
         } catch (TimeoutException e) {
             throw new RpcException(RpcException.TIMEOUT_EXCEPTION, "Invoke remote method timeout. method: " + invocation.getMethodName() + ", provider: " + getUrl() + ", cause: " + e.getMessage(), e);
@@ -119,7 +143,7 @@ public class DubboInvoker<T> extends AbstractInvoker<T> {
         if (!super.isAvailable()) {
             return false;
         }
-        for (ExchangeClient client : clients) {
+        for (ExchangeClient client : getClients()) {
             if (client.isConnected() && !client.hasAttribute(Constants.CHANNEL_ATTRIBUTE_READONLY_KEY)) {
                 //cannot write == not Available ?
                 return true;
@@ -146,11 +170,15 @@ public class DubboInvoker<T> extends AbstractInvoker<T> {
                 if (invokers != null) {
                     invokers.remove(this);
                 }
-                for (ExchangeClient client : clients) {
-                    try {
-                        client.close(ConfigUtils.getServerShutdownTimeout());
-                    } catch (Throwable t) {
-                        logger.warn(t.getMessage(), t);
+                if (clientPool != null) {
+                    clientPool.close(ConfigUtils.getServerShutdownTimeout());
+                } else {
+                    for (ExchangeClient client : clients) {
+                        try {
+                            client.close(ConfigUtils.getServerShutdownTimeout());
+                        } catch (Throwable t) {
+                            logger.warn(t.getMessage(), t);
+                        }
                     }
                 }
 
@@ -159,4 +187,15 @@ public class DubboInvoker<T> extends AbstractInvoker<T> {
             }
         }
     }
+
+    private ExchangeClient[] getClients() {
+        return clientPool != null ? clientPool.getClients() : clients;
+    }
+
+    /**
+     * @return the requests in flight on every pooled connection, only counted when {@link Constants#CONNECTIONS_MAX_KEY} is set
+     */
+    public int[] getInFlightRequests() {
+        return clientPool != null ? clientPool.getInFlightRequests() : new int[0];
+    }
 }
@@ -357,7 +357,12 @@ public class DubboProtocol extends AbstractProtocol {
     public <T> Invoker<T> refer(Class<T> serviceType, URL url) throws RpcException {
         optimizeSerialization(url);
         // create rpc invoker.
-        DubboInvoker<T> invoker = new DubboInvoker<T>(serviceType, url, getClients(url), invokers);
+        DubboInvoker<T> invoker;
+        if (url.getParameter(Constants.CONNECTIONS_MAX_KEY, 0) > 0) {
+            invoker = new DubboInvoker<T>(serviceType, url, new ExchangeClientPool(url, this::initClient), invokers);
+        } else {
+            invoker = new DubboInvoker<T>(serviceType, url, getClients(url), invokers);
+        }
         invokers.add(invoker);
         return invoker;
     }
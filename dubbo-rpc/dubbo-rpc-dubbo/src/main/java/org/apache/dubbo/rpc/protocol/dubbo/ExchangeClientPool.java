@@ -0,0 +1,430 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.protocol.dubbo;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.Parameters;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.utils.NamedThreadFactory;
+import org.apache.dubbo.remoting.ChannelHandler;
+import org.apache.dubbo.remoting.RemotingException;
+import org.apache.dubbo.remoting.exchange.ExchangeClient;
+import org.apache.dubbo.remoting.exchange.ExchangeHandler;
+import org.apache.dubbo.remoting.exchange.ResponseCallback;
+import org.apache.dubbo.remoting.exchange.ResponseFuture;
+import org.apache.dubbo.remoting.exchange.support.DefaultFuture;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Pool of dedicated connections to one provider, enabled by {@link Constants#CONNECTIONS_MAX_KEY}.
+ * <p>
+ * Every request goes to the connection with the fewest in-flight requests. When even that one has
+ * {@link Constants#CONNECTIONS_GROW_THRESHOLD_KEY} requests in flight, another connection is opened in the
+ * background, up to the max; every {@link Constants#CONNECTIONS_SHRINK_PERIOD_KEY} the newest connection above
+ * {@link Constants#CONNECTIONS_KEY} is closed if the remaining ones would have stayed below half the threshold.
+ * Connecting and closing run on their own threads, so a slow provider never holds up the checks of other pools.
+ */
+final class ExchangeClientPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExchangeClientPool.class);
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            new NamedThreadFactory("DubboClientPool", true));
+
+    private static final ExecutorService CONNECTOR = Executors.newCachedThreadPool(
+            new NamedThreadFactory("DubboClientPoolConnector", true));
+
+    private final URL url;
+
+    private final Function<URL, ExchangeClient> factory;
+
+    private final int minConnections;
+
+    private final int maxConnections;
+
+    private final int growThreshold;
+
+    private final AtomicBoolean growing = new AtomicBoolean();
+
+    private final ScheduledFuture<?> shrinkFuture;
+
+    // copy on write, guarded by this for writes
+    private volatile PooledExchangeClient[] clients;
+
+    // the highest in-flight count of the least loaded connection since the last shrink check, updated racily
+    private volatile int peakInFlight;
+
+    private volatile boolean closed;
+
+    ExchangeClientPool(URL url, Function<URL, ExchangeClient> factory) {
+        this.url = url;
+        this.factory = factory;
+        this.minConnections = Math.max(1, url.getParameter(Constants.CONNECTIONS_KEY, 1));
+        this.maxConnections = Math.max(minConnections, url.getParameter(Constants.CONNECTIONS_MAX_KEY, minConnections));
+        this.growThreshold = url.getPositiveParameter(Constants.CONNECTIONS_GROW_THRESHOLD_KEY, Constants.DEFAULT_CONNECTIONS_GROW_THRESHOLD);
+        PooledExchangeClient[] initial = new PooledExchangeClient[minConnections];
+        try {
+            for (int i = 0; i < initial.length; i++) {
+                initial[i] = new PooledExchangeClient(factory.apply(url));
+            }
+        } catch (RuntimeException e) {
+            // do not leak the connections opened before the failed one
+            for (PooledExchangeClient client : initial) {
+                if (client != null) {
+                    closeQuietly(client);
+                }
+            }
+            throw e;
+        }
+        this.clients = initial;
+        int shrinkPeriod = url.getPositiveParameter(Constants.CONNECTIONS_SHRINK_PERIOD_KEY, Constants.DEFAULT_CONNECTIONS_SHRINK_PERIOD);
+        this.shrinkFuture = maxConnections > minConnections
+                ? SCHEDULER.scheduleWithFixedDelay(this::shrink, shrinkPeriod, shrinkPeriod, TimeUnit.MILLISECONDS)
+                : null;
+    }
+
+    /**
+     * @return the connected client with the fewest requests in flight, or the first one if none is connected
+     */
+    ExchangeClient select() {
+        PooledExchangeClient[] current = clients;
+        PooledExchangeClient selected = current[0];
+        int min = Integer.MAX_VALUE;
+        for (PooledExchangeClient client : current) {
+            int inFlight = client.getInFlight();
+            if (inFlight < min && client.isConnected()) {
+                selected = client;
+                min = inFlight;
+            }
+        }
+        if (min != Integer.MAX_VALUE) {
+            if (min > peakInFlight) {
+                peakInFlight = min;
+            }
+            if (min >= growThreshold && current.length < maxConnections && !closed && growing.compareAndSet(false, true)) {
+                CONNECTOR.execute(this::grow);
+            }
+        }
+        return selected;
+    }
+
+    private void grow() {
+        try {
+            ExchangeClient client = factory.apply(url);
+            synchronized (this) {
+                if (closed || clients.length >= maxConnections) {
+                    client.close();
+                    return;
+                }
+                PooledExchangeClient[] grown = Arrays.copyOf(clients, clients.length + 1);
+                grown[clients.length] = new PooledExchangeClient(client);
+                clients = grown;
+            }
+            if (logger.isInfoEnabled()) {
+                logger.info("Grow the connection pool to " + clients.length + " connections for " + url.getAddress());
+            }
+        } catch (Throwable t) {
+            logger.warn("Failed to grow the connection pool for " + url.getAddress() + ", cause: " + t.getMessage(), t);
+        } finally {
+            growing.set(false);
+        }
+    }
+
+    void shrink() {
+        PooledExchangeClient removed = null;
+        synchronized (this) {
+            int size = clients.length;
+            int peak = peakInFlight;
+            peakInFlight = 0;
+            // the load of the least loaded connection once spread over one connection less
+            if (!closed && size > minConnections && (long) peak * size / (size - 1) < growThreshold / 2) {
+                removed = clients[size - 1];
+                clients = Arrays.copyOf(clients, size - 1);
+            }
+        }
+        if (removed != null) {
+            if (logger.isInfoEnabled()) {
+                logger.info("Shrink the connection pool to " + (clients.length) + " connections for " + url.getAddress());
+            }
+            final PooledExchangeClient client = removed;
+            // graceful, waits for the requests still in flight on it
+            CONNECTOR.execute(() -> client.close(url.getPositiveParameter(Constants.TIMEOUT_KEY, Constants.DEFAULT_TIMEOUT)));
+        }
+    }
+
+    private static void closeQuietly(ExchangeClient client) {
+        try {
+            client.close();
+        } catch (Throwable t) {
+            logger.warn(t.getMessage(), t);
+        }
+    }
+
+    ExchangeClient[] getClients() {
+        return clients;
+    }
+
+    /**
+     * @return the requests in flight on every connection of the pool
+     */
+    int[] getInFlightRequests() {
+        PooledExchangeClient[] current = clients;
+        int[] inFlight = new int[current.length];
+        for (int i = 0; i < current.length; i++) {
+            inFlight[i] = current[i].getInFlight();
+        }
+        return inFlight;
+    }
+
+    void close(int timeout) {
+        PooledExchangeClient[] current;
+        synchronized (this) {
+            closed = true;
+            current = clients;
+        }
+        if (shrinkFuture != null) {
+            shrinkFuture.cancel(false);
+        }
+        for (ExchangeClient client : current) {
+            try {
+                client.close(timeout);
+            } catch (Throwable t) {
+                logger.warn(t.getMessage(), t);
+            }
+        }
+    }
+
+    /**
+     * Counts the requests in flight on one connection, a request is done once its result was got or its callback ran.
+     */
+    @SuppressWarnings("deprecation")
+    static final class PooledExchangeClient implements ExchangeClient {
+
+        private final ExchangeClient client;
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        PooledExchangeClient(ExchangeClient client) {
+            this.client = client;
+        }
+
+        int getInFlight() {
+            return inFlight.get();
+        }
+
+        @Override
+        public ResponseFuture request(Object request) throws RemotingException {
+            inFlight.incrementAndGet();
+            try {
+                return new InFlightResponseFuture(client.request(request));
+            } catch (RemotingException | RuntimeException e) {
+                inFlight.decrementAndGet();
+                throw e;
+            }
+        }
+
+        @Override
+        public ResponseFuture request(Object request, int timeout) throws RemotingException {
+            inFlight.incrementAndGet();
+            try {
+                return new InFlightResponseFuture(client.request(request, timeout));
+            } catch (RemotingException | RuntimeException e) {
+                inFlight.decrementAndGet();
+                throw e;
+            }
+        }
+
+        @Override
+        public void reset(URL url) {
+            client.reset(url);
+        }
+
+        @Override
+        public URL getUrl() {
+            return client.getUrl();
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return client.getRemoteAddress();
+        }
+
+        @Override
+        public ChannelHandler getChannelHandler() {
+            return client.getChannelHandler();
+        }
+
+        @Override
+        public boolean isConnected() {
+            return client.isConnected();
+        }
+
+        @Override
+        public void reconnect() throws RemotingException {
+            client.reconnect();
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return client.getLocalAddress();
+        }
+
+        @Override
+        public boolean hasAttribute(String key) {
+            return client.hasAttribute(key);
+        }
+
+        @Override
+        public void reset(Parameters parameters) {
+            client.reset(parameters);
+        }
+
+        @Override
+        public void send(Object message) throws RemotingException {
+            client.send(message);
+        }
+
+        @Override
+        public ExchangeHandler getExchangeHandler() {
+            return client.getExchangeHandler();
+        }
+
+        @Override
+        public Object getAttribute(String key) {
+            return client.getAttribute(key);
+        }
+
+        @Override
+        public void send(Object message, boolean sent) throws RemotingException {
+            client.send(message, sent);
+        }
+
+        @Override
+        public void setAttribute(String key, Object value) {
+            client.setAttribute(key, value);
+        }
+
+        @Override
+        public void removeAttribute(String key) {
+            client.removeAttribute(key);
+        }
+
+        @Override
+        public void close() {
+            client.close();
+        }
+
+        @Override
+        public void close(int timeout) {
+            client.close(timeout);
+        }
+
+        @Override
+        public void startClose() {
+            client.startClose();
+        }
+
+        @Override
+        public boolean isClosed() {
+            return client.isClosed();
+        }
+
+        final class InFlightResponseFuture implements ResponseFuture {
+
+            private final ResponseFuture future;
+
+            private final AtomicBoolean done = new AtomicBoolean();
+
+            InFlightResponseFuture(ResponseFuture future) {
+                this.future = future;
+            }
+
+            private void done() {
+                if (done.compareAndSet(false, true)) {
+                    inFlight.decrementAndGet();
+                }
+            }
+
+            @Override
+            public Object get() throws RemotingException {
+                try {
+                    return future.get();
+                } finally {
+                    done();
+                }
+            }
+
+            @Override
+            public Object get(int timeoutInMillis) throws RemotingException {
+                try {
+                    return future.get(timeoutInMillis);
+                } finally {
+                    done();
+                }
+            }
+
+            /**
+             * Waits for the result in threadless mode when the pooled connection returned a {@link DefaultFuture}.
+             *
+             * @see DefaultFuture#getThreadless(int)
+             */
+            Object getThreadless(int timeoutInMillis) throws RemotingException {
+                try {
+                    return future instanceof DefaultFuture
+                            ? ((DefaultFuture) future).getThreadless(timeoutInMillis) : future.get(timeoutInMillis);
+                } finally {
+                    done();
+                }
+            }
+
+            @Override
+            public void setCallback(final ResponseCallback callback) {
+                future.setCallback(new ResponseCallback() {
+                    @Override
+                    public void done(Object response) {
+                        InFlightResponseFuture.this.done();
+                        callback.done(response);
+                    }
+
+                    @Override
+                    public void caught(Throwable exception) {
+                        InFlightResponseFuture.this.done();
+                        callback.caught(exception);
+                    }
+                });
+            }
+
+            @Override
+            public boolean isDone() {
+                return future.isDone();
+            }
+        }
+    }
+
+}
@@ -22,9 +22,13 @@ import org.apache.dubbo.common.extension.ExtensionLoader;
 import org.apache.dubbo.common.status.Status;
 import org.apache.dubbo.common.status.StatusChecker;
 import org.apache.dubbo.common.store.DataStore;
+import org.apache.dubbo.common.threadpool.support.AbortPolicyWithReport;
+import org.apache.dubbo.common.threadpool.support.virtual.VirtualThreadExecutor;
+import org.apache.dubbo.remoting.transport.dispatcher.IsolatedExecutors;
 
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadPoolExecutor;
 
 /**
@@ -37,35 +41,101 @@ public class ThreadPoolStatusChecker implements StatusChecker {
     public Status check() {
         DataStore dataStore = ExtensionLoader.getExtensionLoader(DataStore.class).getDefaultExtension();
         Map<String, Object> executors = dataStore.get(Constants.EXECUTOR_SERVICE_COMPONENT_KEY);
+        Map<String, Object> isolated = dataStore.get(IsolatedExecutors.COMPONENT_KEY);
 
         StringBuilder msg = new StringBuilder();
         Status.Level level = Status.Level.OK;
         for (Map.Entry<String, Object> entry : executors.entrySet()) {
             String port = entry.getKey();
-            ExecutorService executor = (ExecutorService) entry.getValue();
-
-            if (executor != null && executor instanceof ThreadPoolExecutor) {
-                ThreadPoolExecutor tp = (ThreadPoolExecutor) executor;
-                boolean ok = tp.getActiveCount() < tp.getMaximumPoolSize() - 1;
-                Status.Level lvl = Status.Level.OK;
-                if (!ok) {
-                    level = Status.Level.WARN;
-                    lvl = Status.Level.WARN;
-                }
-
-                if (msg.length() > 0) {
-                    msg.append(";");
+            if (!append(msg, (ExecutorService) entry.getValue(), port, null)) {
+                level = Status.Level.WARN;
+            }
+            IsolatedExecutors isolatedExecutors = (IsolatedExecutors) isolated.get(port);
+            if (isolatedExecutors != null) {
+                for (Map.Entry<String, ExecutorService> pool : isolatedExecutors.getExecutors().entrySet()) {
+                    if (!append(msg, pool.getValue(), port, pool.getKey())) {
+                        level = Status.Level.WARN;
+                    }
                 }
-                msg.append("Pool status:" + lvl
-                        + ", max:" + tp.getMaximumPoolSize()
-                        + ", core:" + tp.getCorePoolSize()
-                        + ", largest:" + tp.getLargestPoolSize()
-                        + ", active:" + tp.getActiveCount()
-                        + ", task:" + tp.getTaskCount()
-                        + ", service port: " + port);
             }
         }
         return msg.length() == 0 ? new Status(Status.Level.UNKNOWN) : new Status(level, msg.toString());
     }
 
+    /**
+     * @return false if the pool is exhausted
+     */
+    private boolean append(StringBuilder msg, ExecutorService executor, String port, String isolated) {
+        if (executor instanceof VirtualThreadExecutor) {
+            return appendVirtual(msg, (VirtualThreadExecutor) executor, port, isolated);
+        }
+        if (executor instanceof ForkJoinPool) {
+            return appendForkJoin(msg, (ForkJoinPool) executor, port, isolated);
+        }
+        if (!(executor instanceof ThreadPoolExecutor)) {
+            return true;
+        }
+        ThreadPoolExecutor tp = (ThreadPoolExecutor) executor;
+        boolean ok = tp.getActiveCount() < tp.getMaximumPoolSize() - 1;
+        Status.Level lvl = ok ? Status.Level.OK : Status.Level.WARN;
+
+        if (msg.length() > 0) {
+            msg.append(";");
+        }
+        msg.append("Pool status:" + lvl
+                + ", max:" + tp.getMaximumPoolSize()
+                + ", core:" + tp.getCorePoolSize()
+                + ", largest:" + tp.getLargestPoolSize()
+                + ", active:" + tp.getActiveCount()
+                + ", task:" + tp.getTaskCount()
+                + ", queue:" + tp.getQueue().size());
+        if (tp.getRejectedExecutionHandler() instanceof AbortPolicyWithReport) {
+            msg.append(", rejected:" + ((AbortPolicyWithReport) tp.getRejectedExecutionHandler()).getRejectedCount());
+        }
+        msg.append(", service port: " + port);
+        if (isolated != null) {
+            msg.append(", isolated: " + isolated);
+        }
+        return ok;
+    }
+
+    private boolean appendForkJoin(StringBuilder msg, ForkJoinPool pool, String port, String isolated) {
+        boolean ok = pool.getActiveThreadCount() < pool.getParallelism() - 1;
+        Status.Level lvl = ok ? Status.Level.OK : Status.Level.WARN;
+
+        if (msg.length() > 0) {
+            msg.append(";");
+        }
+        msg.append("Pool status:" + lvl
+                + ", work stealing, max:" + pool.getParallelism()
+                + ", size:" + pool.getPoolSize()
+                + ", active:" + pool.getActiveThreadCount()
+                + ", queue:" + (pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount())
+                + ", steal:" + pool.getStealCount()
+                + ", service port: " + port);
+        if (isolated != null) {
+            msg.append(", isolated: " + isolated);
+        }
+        return ok;
+    }
+
+    private boolean appendVirtual(StringBuilder msg, VirtualThreadExecutor executor, String port, String isolated) {
+        boolean ok = executor.getActiveCount() < executor.getLimit() - 1;
+        Status.Level lvl = ok ? Status.Level.OK : Status.Level.WARN;
+
+        if (msg.length() > 0) {
+            msg.append(";");
+        }
+        msg.append("Pool status:" + lvl
+                + ", virtual threads, max:" + executor.getLimit()
+                + ", active:" + executor.getActiveCount()
+                + ", queue:" + executor.getQueueSize()
+                + ", rejected:" + executor.getRejectedCount()
+                + ", service port: " + port);
+        if (isolated != null) {
+            msg.append(", isolated: " + isolated);
+        }
+        return ok;
+    }
+
 }
@@ -20,9 +20,11 @@ package org.apache.dubbo.rpc.protocol.dubbo;
 import org.apache.dubbo.common.Constants;
 import org.apache.dubbo.common.URL;
 import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.rpc.Exporter;
 import org.apache.dubbo.rpc.Protocol;
 import org.apache.dubbo.rpc.ProxyFactory;
 import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.protocol.dubbo.status.ThreadPoolStatusChecker;
 import org.apache.dubbo.rpc.protocol.dubbo.support.DemoService;
 import org.apache.dubbo.rpc.protocol.dubbo.support.DemoServiceImpl;
 import org.apache.dubbo.rpc.protocol.dubbo.support.NonSerialized;
@@ -39,6 +41,8 @@ import java.util.Map;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * <code>ProxiesTest</code>
@@ -156,6 +160,52 @@ public class DubboProtocolTest {
         System.out.println("take:" + (System.currentTimeMillis() - start));
     }
 
+    @Test
+    public void testThreadless() throws Exception {
+        DemoService service = new DemoServiceImpl();
+        URL url = URL.valueOf("dubbo://127.0.0.1:9060/" + DemoService.class.getName()).addParameter("timeout", 3000L);
+        protocol.export(proxy.getInvoker(service, DemoService.class, url));
+        DemoService pooled = proxy.getProxy(protocol.refer(DemoService.class, url));
+        DemoService threadless = proxy.getProxy(protocol.refer(DemoService.class, url.addParameter(Constants.THREADLESS_KEY, true)));
+        for (int i = 0; i < 100; i++) {
+            assertEquals("hello" + i, pooled.echo("hello" + i));
+            assertEquals("hello" + i, threadless.echo("hello" + i));
+        }
+    }
+
+    @Test
+    public void testIsolatedExecutors() throws Exception {
+        DemoService service = new DemoServiceImpl();
+        URL url = URL.valueOf("dubbo://127.0.0.1:9070/" + DemoService.class.getName() + "?getThreadName.isolated.threads=2");
+        protocol.export(proxy.getInvoker(service, DemoService.class, url));
+        service = proxy.getProxy(protocol.refer(DemoService.class, url.addParameter("timeout", 3000L)
+                .addParameter(Constants.SIDE_KEY, Constants.CONSUMER_SIDE)));
+        assertTrue(service.getThreadName().endsWith(DemoService.class.getName() + "#getThreadName-thread-1"));
+
+        RemoteService remote = new RemoteServiceImpl();
+        url = URL.valueOf("dubbo://127.0.0.1:9070/" + RemoteService.class.getName() + "?isolated.threads=1");
+        Exporter<RemoteService> exporter = protocol.export(proxy.getInvoker(remote, RemoteService.class, url));
+        remote = proxy.getProxy(protocol.refer(RemoteService.class, url.addParameter("timeout", 3000L)
+                .addParameter(Constants.SIDE_KEY, Constants.CONSUMER_SIDE)));
+        assertEquals("hello world@" + RemoteServiceImpl.class.getName(), remote.sayHello("world"));
+
+        // the worker may still be finishing its task after the response was sent, wait for the pool to go idle
+        String expected = "max:1, core:1, largest:1, active:0, task:1, queue:0, rejected:0, service port: 9070, isolated: "
+                + RemoteService.class.getName();
+        String status = new ThreadPoolStatusChecker().check().getMessage();
+        for (int i = 0; i < 300 && !status.contains(expected); i++) {
+            Thread.sleep(10);
+            status = new ThreadPoolStatusChecker().check().getMessage();
+        }
+        assertTrue(status, status.contains("isolated: " + DemoService.class.getName() + "#getThreadName"));
+        assertTrue(status, status.contains(expected));
+
+        exporter.unexport();
+        status = new ThreadPoolStatusChecker().check().getMessage();
+        assertFalse(status, status.contains("isolated: " + RemoteService.class.getName()));
+        assertTrue(status, status.contains("isolated: " + DemoService.class.getName() + "#getThreadName"));
+    }
+
     @Test
     public void testNonSerializedParameter() throws Exception {
         DemoService service = new DemoServiceImpl();
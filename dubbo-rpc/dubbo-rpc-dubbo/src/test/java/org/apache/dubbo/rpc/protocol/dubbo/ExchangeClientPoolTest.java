@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.protocol.dubbo;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.common.utils.NetUtils;
+import org.apache.dubbo.remoting.exchange.ExchangeClient;
+import org.apache.dubbo.remoting.exchange.ResponseCallback;
+import org.apache.dubbo.remoting.exchange.ResponseFuture;
+import org.apache.dubbo.rpc.ProxyFactory;
+import org.apache.dubbo.rpc.protocol.dubbo.support.ProtocolUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ExchangeClientPoolTest {
+
+    private final List<ExchangeClient> created = new ArrayList<ExchangeClient>();
+
+    private final List<ResponseFuture> requested = new ArrayList<ResponseFuture>();
+
+    private ExchangeClient newClient(URL url) {
+        ExchangeClient client = mock(ExchangeClient.class);
+        when(client.isConnected()).thenReturn(true);
+        try {
+            when(client.request(any(), anyInt())).thenAnswer(invocation -> {
+                ResponseFuture future = mock(ResponseFuture.class);
+                requested.add(future);
+                return future;
+            });
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        created.add(client);
+        return client;
+    }
+
+    @Test
+    public void testSelectLeastInFlight() throws Exception {
+        URL url = URL.valueOf("dubbo://127.0.0.1:20880/test?" + Constants.CONNECTIONS_KEY + "=3&" + Constants.CONNECTIONS_MAX_KEY + "=3");
+        ExchangeClientPool pool = new ExchangeClientPool(url, this::newClient);
+        Assert.assertEquals(3, pool.getClients().length);
+
+        ResponseFuture first = pool.select().request("a", 1000);
+        ResponseFuture second = pool.select().request("b", 1000);
+        pool.select().request("c", 1000);
+        Assert.assertArrayEquals(new int[]{1, 1, 1}, pool.getInFlightRequests());
+
+        first.get();
+        Assert.assertArrayEquals(new int[]{0, 1, 1}, pool.getInFlightRequests());
+        Assert.assertSame(pool.getClients()[0], pool.select());
+
+        second.setCallback(mock(ResponseCallback.class));
+        ArgumentCaptor<ResponseCallback> callback = ArgumentCaptor.forClass(ResponseCallback.class);
+        verify(requested.get(1)).setCallback(callback.capture());
+        callback.getValue().done(null);
+        Assert.assertArrayEquals(new int[]{0, 0, 1}, pool.getInFlightRequests());
+
+        pool.close(0);
+        for (ExchangeClient client : created) {
+            verify(client).close(0);
+        }
+    }
+
+    @Test
+    public void testGrowAndShrink() throws Exception {
+        URL url = URL.valueOf("dubbo://127.0.0.1:20880/test?" + Constants.CONNECTIONS_MAX_KEY + "=2&"
+                + Constants.CONNECTIONS_GROW_THRESHOLD_KEY + "=2");
+        ExchangeClientPool pool = new ExchangeClientPool(url, this::newClient);
+        Assert.assertEquals(1, pool.getClients().length);
+
+        List<ResponseFuture> futures = new ArrayList<ResponseFuture>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(pool.select().request("a", 1000));
+        }
+        for (int i = 0; i < 100 && pool.getClients().length < 2; i++) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(2, pool.getClients().length);
+        Assert.assertArrayEquals(new int[]{3, 0}, pool.getInFlightRequests());
+
+        // still loaded during the last period
+        pool.shrink();
+        Assert.assertEquals(2, pool.getClients().length);
+
+        for (ResponseFuture future : futures) {
+            future.get();
+        }
+        pool.shrink();
+        Assert.assertEquals(1, pool.getClients().length);
+        // closed in the background
+        verify(created.get(1), timeout(1000)).close(anyInt());
+        pool.close(0);
+    }
+
+    @Test
+    public void testCloseOpenedClientsWhenConnectFails() {
+        URL url = URL.valueOf("dubbo://127.0.0.1:20880/test?" + Constants.CONNECTIONS_KEY + "=3");
+        try {
+            new ExchangeClientPool(url, u -> {
+                if (created.size() == 2) {
+                    throw new IllegalStateException("connect failed");
+                }
+                return newClient(u);
+            });
+            Assert.fail();
+        } catch (IllegalStateException expected) {
+            Assert.assertEquals("connect failed", expected.getMessage());
+        }
+        Assert.assertEquals(2, created.size());
+        for (ExchangeClient client : created) {
+            verify(client).close();
+        }
+    }
+
+    @Test
+    public void testPooledInvoker() {
+        testPooledInvoker("");
+    }
+
+    @Test
+    public void testPooledInvokerThreadless() {
+        testPooledInvoker("&" + Constants.THREADLESS_KEY + "=true");
+    }
+
+    private void testPooledInvoker(String parameters) {
+        int port = NetUtils.getAvailablePort();
+        URL url = URL.valueOf("dubbo://127.0.0.1:" + port + "/org.apache.dubbo.rpc.protocol.dubbo.IDemoService?"
+                + Constants.CONNECTIONS_KEY + "=2&" + Constants.CONNECTIONS_MAX_KEY + "=4" + parameters);
+        ProtocolUtils.export(new DemoServiceImpl(), IDemoService.class, url);
+        DubboInvoker<?> invoker = (DubboInvoker<?>) DubboProtocol.getDubboProtocol().refer(IDemoService.class, url);
+        try {
+            Assert.assertTrue(invoker.isAvailable());
+            IDemoService service = (IDemoService) ExtensionLoader.getExtensionLoader(ProxyFactory.class)
+                    .getAdaptiveExtension().getProxy(invoker);
+            for (int i = 0; i < 10; i++) {
+                Assert.assertEquals("ok", service.get());
+            }
+            Assert.assertArrayEquals(new int[]{0, 0}, invoker.getInFlightRequests());
+        } finally {
+            invoker.destroy();
+            ProtocolUtils.closeAll();
+        }
+        Assert.assertFalse(invoker.isAvailable());
+    }
+
+    public class DemoServiceImpl implements IDemoService {
+        public String get() {
+            return "ok";
+        }
+    }
+
+}
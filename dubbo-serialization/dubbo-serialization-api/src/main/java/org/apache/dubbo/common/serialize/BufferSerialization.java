@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.serialize;
+
+import org.apache.dubbo.common.URL;
+
+import java.io.IOException;
+
+/**
+ * Serialization that also writes to and reads from the transport buffer directly, so that codecs do not have to
+ * wrap the buffer in an {@link java.io.OutputStream} or {@link java.io.InputStream} first. Optional, codecs check
+ * for it and fall back to the stream methods of {@link Serialization}.
+ */
+public interface BufferSerialization extends Serialization {
+
+    /**
+     * create serializer writing to the buffer
+     *
+     * @param url
+     * @param output
+     * @return serializer
+     * @throws IOException
+     */
+    ObjectOutput serialize(URL url, ByteOutput output) throws IOException;
+
+    /**
+     * create deserializer reading the readable bytes of the buffer
+     *
+     * @param url
+     * @param input
+     * @return deserializer
+     * @throws IOException
+     */
+    ObjectInput deserialize(URL url, ByteInput input) throws IOException;
+
+}
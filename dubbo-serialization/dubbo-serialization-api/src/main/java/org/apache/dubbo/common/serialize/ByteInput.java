@@ -0,0 +1,32 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.serialize;
+
+/**
+ * Bytes a {@link BufferSerialization} reads from, typically the transport buffer of a message.
+ */
+public interface ByteInput {
+
+    /**
+     * @return the number of bytes left to read, a read past them fails instead of blocking.
+     */
+    int readableBytes();
+
+    byte readByte();
+
+    void readBytes(byte[] dst, int dstIndex, int length);
+}
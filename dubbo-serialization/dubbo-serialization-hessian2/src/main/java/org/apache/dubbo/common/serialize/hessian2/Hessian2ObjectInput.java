@@ -17,6 +17,7 @@
 package org.apache.dubbo.common.serialize.hessian2;
 
 import com.alibaba.com.caucho.hessian.io.Hessian2Input;
+import org.apache.dubbo.common.serialize.ByteInput;
 import org.apache.dubbo.common.serialize.ObjectInput;
 
 import java.io.IOException;
@@ -34,6 +35,35 @@ public class Hessian2ObjectInput implements ObjectInput {
         mH2i.setSerializerFactory(Hessian2SerializerFactory.SERIALIZER_FACTORY);
     }
 
+    /**
+     * hessian-lite only reads from streams, so its buffer is filled through a thin stream that is bounded by
+     * the readable bytes of the buffer.
+     */
+    public Hessian2ObjectInput(final ByteInput input) {
+        this(new InputStream() {
+            @Override
+            public int available() {
+                return input.readableBytes();
+            }
+
+            @Override
+            public int read() {
+                return input.readableBytes() == 0 ? -1 : input.readByte() & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                int readable = input.readableBytes();
+                if (readable == 0) {
+                    return -1;
+                }
+                len = Math.min(readable, len);
+                input.readBytes(b, off, len);
+                return len;
+            }
+        });
+    }
+
     @Override
     public boolean readBool() throws IOException {
         return mH2i.readBoolean();
@@ -17,6 +17,7 @@
 package org.apache.dubbo.common.serialize.hessian2;
 
 import com.alibaba.com.caucho.hessian.io.Hessian2Output;
+import org.apache.dubbo.common.serialize.ByteOutput;
 import org.apache.dubbo.common.serialize.ObjectOutput;
 
 import java.io.IOException;
@@ -33,6 +34,24 @@ public class Hessian2ObjectOutput implements ObjectOutput {
         mH2o.setSerializerFactory(Hessian2SerializerFactory.SERIALIZER_FACTORY);
     }
 
+    /**
+     * hessian-lite only writes to streams, so its buffer is flushed through a thin stream that hands every
+     * chunk to the buffer as is.
+     */
+    public Hessian2ObjectOutput(final ByteOutput output) {
+        this(new OutputStream() {
+            @Override
+            public void write(int b) {
+                output.writeByte(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                output.writeBytes(b, off, len);
+            }
+        });
+    }
+
     @Override
     public void writeBool(boolean v) throws IOException {
         mH2o.writeBoolean(v);
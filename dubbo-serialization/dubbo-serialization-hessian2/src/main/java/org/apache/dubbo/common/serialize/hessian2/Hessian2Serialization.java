@@ -17,15 +17,17 @@
 package org.apache.dubbo.common.serialize.hessian2;
 
 import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.serialize.BufferSerialization;
+import org.apache.dubbo.common.serialize.ByteInput;
+import org.apache.dubbo.common.serialize.ByteOutput;
 import org.apache.dubbo.common.serialize.ObjectInput;
 import org.apache.dubbo.common.serialize.ObjectOutput;
-import org.apache.dubbo.common.serialize.Serialization;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
-public class Hessian2Serialization implements Serialization {
+public class Hessian2Serialization implements BufferSerialization {
 
     public static final byte ID = 2;
 
@@ -49,4 +51,14 @@ public class Hessian2Serialization implements Serialization {
         return new Hessian2ObjectInput(is);
     }
 
+    @Override
+    public ObjectOutput serialize(URL url, ByteOutput output) throws IOException {
+        return new Hessian2ObjectOutput(output);
+    }
+
+    @Override
+    public ObjectInput deserialize(URL url, ByteInput input) throws IOException {
+        return new Hessian2ObjectInput(input);
+    }
+
 }
@@ -16,6 +16,7 @@
  */
 package org.apache.dubbo.common.serialize.kryo;
 
+import org.apache.dubbo.common.serialize.ByteInput;
 import org.apache.dubbo.common.serialize.Cleanable;
 import org.apache.dubbo.common.serialize.ObjectInput;
 import org.apache.dubbo.common.serialize.kryo.utils.KryoUtils;
@@ -30,14 +31,38 @@ import java.lang.reflect.Type;
 
 public class KryoObjectInput implements ObjectInput, Cleanable {
 
+    /**
+     * An idle input, and so its 4k buffer, kept for the next deserialization on the same thread instead of
+     * allocating one for every message. An input is taken out while a stream uses it and only handed back
+     * by {@link #cleanup()}, so streams that are live at the same time on one thread never share it.
+     */
+    private static final ThreadLocal<BufferInput> IDLE_INPUT = new ThreadLocal<BufferInput>();
+
     private Kryo kryo;
-    private Input input;
+    private BufferInput input;
 
     public KryoObjectInput(InputStream inputStream) {
-        input = new Input(inputStream);
+        input = takeInput();
+        input.setInputStream(inputStream);
         this.kryo = KryoUtils.get();
     }
 
+    public KryoObjectInput(ByteInput byteInput) {
+        input = takeInput();
+        input.setInputStream(null);
+        input.source = byteInput;
+        this.kryo = KryoUtils.get();
+    }
+
+    private static BufferInput takeInput() {
+        BufferInput input = IDLE_INPUT.get();
+        if (input == null) {
+            return new BufferInput();
+        }
+        IDLE_INPUT.remove();
+        return input;
+    }
+
     @Override
     public boolean readBool() throws IOException {
         try {
@@ -155,5 +180,39 @@ public class KryoObjectInput implements ObjectInput, Cleanable {
     public void cleanup() {
         KryoUtils.release(kryo);
         kryo = null;
+        if (input != null) {
+            // do not keep the source stream reachable from the thread.
+            input.setInputStream(null);
+            input.source = null;
+            IDLE_INPUT.set(input);
+            input = null;
+        }
+    }
+
+    /**
+     * Input filling its buffer from a {@link ByteInput} in bulk when one is set, and from its stream otherwise.
+     * The readable bytes of the source bound the message, so no read ever probes past its end.
+     */
+    private static final class BufferInput extends Input {
+
+        private ByteInput source;
+
+        BufferInput() {
+            super(4096);
+        }
+
+        @Override
+        protected int fill(byte[] buffer, int offset, int count) {
+            if (source == null) {
+                return super.fill(buffer, offset, count);
+            }
+            int readable = source.readableBytes();
+            if (readable == 0) {
+                return -1;
+            }
+            count = Math.min(count, readable);
+            source.readBytes(buffer, offset, count);
+            return count;
+        }
     }
 }
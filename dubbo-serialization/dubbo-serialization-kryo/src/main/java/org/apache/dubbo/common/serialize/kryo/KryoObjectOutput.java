@@ -16,6 +16,7 @@
  */
 package org.apache.dubbo.common.serialize.kryo;
 
+import org.apache.dubbo.common.serialize.ByteOutput;
 import org.apache.dubbo.common.serialize.Cleanable;
 import org.apache.dubbo.common.serialize.ObjectOutput;
 import org.apache.dubbo.common.serialize.kryo.utils.KryoUtils;
@@ -28,14 +29,38 @@ import java.io.OutputStream;
 
 public class KryoObjectOutput implements ObjectOutput, Cleanable {
 
-    private Output output;
+    /**
+     * An idle output, and so its 4k buffer, kept for the next serialization on the same thread instead of
+     * allocating one for every message. An output is taken out while a stream uses it and only handed back
+     * by {@link #cleanup()}, so streams that are live at the same time on one thread never share it.
+     */
+    private static final ThreadLocal<BufferOutput> IDLE_OUTPUT = new ThreadLocal<BufferOutput>();
+
+    private BufferOutput output;
     private Kryo kryo;
 
     public KryoObjectOutput(OutputStream outputStream) {
-        output = new Output(outputStream);
+        output = takeOutput();
+        output.setOutputStream(outputStream);
+        this.kryo = KryoUtils.get();
+    }
+
+    public KryoObjectOutput(ByteOutput byteOutput) {
+        output = takeOutput();
+        output.setOutputStream(null);
+        output.target = byteOutput;
         this.kryo = KryoUtils.get();
     }
 
+    private static BufferOutput takeOutput() {
+        BufferOutput output = IDLE_OUTPUT.get();
+        if (output == null) {
+            return new BufferOutput();
+        }
+        IDLE_OUTPUT.remove();
+        return output;
+    }
+
     @Override
     public void writeBool(boolean v) throws IOException {
         output.writeBoolean(v);
@@ -111,5 +136,35 @@ public class KryoObjectOutput implements ObjectOutput, Cleanable {
     public void cleanup() {
         KryoUtils.release(kryo);
         kryo = null;
+        if (output != null) {
+            // do not keep the target stream reachable from the thread.
+            output.setOutputStream(null);
+            output.target = null;
+            IDLE_OUTPUT.set(output);
+            output = null;
+        }
+    }
+
+    /**
+     * Output flushing its buffer to a {@link ByteOutput} in bulk when one is set, and to its stream otherwise.
+     */
+    private static final class BufferOutput extends Output {
+
+        private ByteOutput target;
+
+        BufferOutput() {
+            super(4096, 4096);
+        }
+
+        @Override
+        public void flush() {
+            if (target == null) {
+                super.flush();
+                return;
+            }
+            target.writeBytes(buffer, 0, position);
+            total += position;
+            position = 0;
+        }
     }
 }
@@ -17,9 +17,11 @@
 package org.apache.dubbo.common.serialize.kryo;
 
 import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.serialize.BufferSerialization;
+import org.apache.dubbo.common.serialize.ByteInput;
+import org.apache.dubbo.common.serialize.ByteOutput;
 import org.apache.dubbo.common.serialize.ObjectInput;
 import org.apache.dubbo.common.serialize.ObjectOutput;
-import org.apache.dubbo.common.serialize.Serialization;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -29,7 +31,7 @@ import java.io.OutputStream;
  * TODO for now kryo serialization doesn't deny classes that don't implement the serializable interface
  *
  */
-public class KryoSerialization implements Serialization {
+public class KryoSerialization implements BufferSerialization {
 
     @Override
     public byte getContentTypeId() {
@@ -50,4 +52,14 @@ public class KryoSerialization implements Serialization {
     public ObjectInput deserialize(URL url, InputStream is) throws IOException {
         return new KryoObjectInput(is);
     }
+
+    @Override
+    public ObjectOutput serialize(URL url, ByteOutput output) throws IOException {
+        return new KryoObjectOutput(output);
+    }
+
+    @Override
+    public ObjectInput deserialize(URL url, ByteInput input) throws IOException {
+        return new KryoObjectInput(input);
+    }
 }
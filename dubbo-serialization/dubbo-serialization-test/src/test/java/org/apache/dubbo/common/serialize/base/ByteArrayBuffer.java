@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.serialize.base;
+
+import org.apache.dubbo.common.serialize.ByteInput;
+import org.apache.dubbo.common.serialize.ByteOutput;
+
+import java.util.Arrays;
+
+/**
+ * Growable byte array standing in for a transport buffer in tests of {@link org.apache.dubbo.common.serialize.BufferSerialization}.
+ */
+public class ByteArrayBuffer implements ByteOutput, ByteInput {
+
+    private byte[] bytes = new byte[16];
+    private int readerIndex;
+    private int writerIndex;
+
+    @Override
+    public void writeByte(int value) {
+        ensureWritable(1);
+        bytes[writerIndex++] = (byte) value;
+    }
+
+    @Override
+    public void writeBytes(byte[] src, int index, int length) {
+        ensureWritable(length);
+        System.arraycopy(src, index, bytes, writerIndex, length);
+        writerIndex += length;
+    }
+
+    @Override
+    public int readableBytes() {
+        return writerIndex - readerIndex;
+    }
+
+    @Override
+    public byte readByte() {
+        checkReadable(1);
+        return bytes[readerIndex++];
+    }
+
+    @Override
+    public void readBytes(byte[] dst, int dstIndex, int length) {
+        checkReadable(length);
+        System.arraycopy(bytes, readerIndex, dst, dstIndex, length);
+        readerIndex += length;
+    }
+
+    private void ensureWritable(int length) {
+        if (writerIndex + length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, writerIndex + length));
+        }
+    }
+
+    private void checkReadable(int length) {
+        if (length > readableBytes()) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+}
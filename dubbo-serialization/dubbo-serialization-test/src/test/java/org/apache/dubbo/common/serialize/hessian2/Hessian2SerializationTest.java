@@ -16,9 +16,13 @@
  */
 package org.apache.dubbo.common.serialize.hessian2;
 
+import org.apache.dubbo.common.serialize.BufferSerialization;
+import org.apache.dubbo.common.serialize.Cleanable;
 import org.apache.dubbo.common.serialize.ObjectInput;
 import org.apache.dubbo.common.serialize.ObjectOutput;
 import org.apache.dubbo.common.serialize.base.AbstractSerializationPersonFailTest;
+import org.apache.dubbo.common.serialize.base.ByteArrayBuffer;
+import org.apache.dubbo.common.serialize.model.person.BigPerson;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -26,6 +30,7 @@ import java.io.ByteArrayInputStream;
 import java.util.Arrays;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -207,4 +212,30 @@ public class Hessian2SerializationTest extends AbstractSerializationPersonFailTe
     @Test
     public void test_MediaContent_badStream() throws Exception {
     }
-}
\ No newline at end of file
+
+    @Test
+    public void test_BufferSerialization() throws Exception {
+        BufferSerialization bufferSerialization = (BufferSerialization) serialization;
+        ByteArrayBuffer buffer = new ByteArrayBuffer();
+        byte[] large = new byte[10000];
+        Arrays.fill(large, (byte) 7);
+
+        ObjectOutput objectOutput = bufferSerialization.serialize(url, buffer);
+        objectOutput.writeUTF("message");
+        objectOutput.writeObject(bigPerson);
+        objectOutput.writeBytes(large);
+        objectOutput.flushBuffer();
+        if (objectOutput instanceof Cleanable) {
+            ((Cleanable) objectOutput).cleanup();
+        }
+
+        ObjectInput objectInput = bufferSerialization.deserialize(url, buffer);
+        assertEquals("message", objectInput.readUTF());
+        assertEquals(bigPerson, objectInput.readObject(BigPerson.class));
+        assertArrayEquals(large, objectInput.readBytes());
+        if (objectInput instanceof Cleanable) {
+            ((Cleanable) objectInput).cleanup();
+        }
+        assertEquals(0, buffer.readableBytes());
+    }
+}
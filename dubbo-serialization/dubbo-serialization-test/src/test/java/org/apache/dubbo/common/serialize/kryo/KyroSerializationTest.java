@@ -16,11 +16,92 @@
  */
 package org.apache.dubbo.common.serialize.kryo;
 
+import org.apache.dubbo.common.serialize.BufferSerialization;
+import org.apache.dubbo.common.serialize.Cleanable;
+import org.apache.dubbo.common.serialize.ObjectInput;
+import org.apache.dubbo.common.serialize.ObjectOutput;
 import org.apache.dubbo.common.serialize.base.AbstractSerializationTest;
+import org.apache.dubbo.common.serialize.base.ByteArrayBuffer;
+import org.apache.dubbo.common.serialize.model.person.BigPerson;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 
 public class KyroSerializationTest extends AbstractSerializationTest {
 
     {
         serialization = new KryoSerialization();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void test_ReuseOutputAndInputOnSameThread() throws Exception {
+        byte[] large = new byte[10000];
+        Arrays.fill(large, (byte) 7);
+        for (int i = 0; i < 3; i++) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            ObjectOutput objectOutput = serialization.serialize(url, bos);
+            objectOutput.writeUTF("message" + i);
+            objectOutput.writeBytes(large);
+            objectOutput.flushBuffer();
+            ((Cleanable) objectOutput).cleanup();
+
+            ObjectInput objectInput = serialization.deserialize(url, new ByteArrayInputStream(bos.toByteArray()));
+            assertEquals("message" + i, objectInput.readUTF());
+            assertArrayEquals(large, objectInput.readBytes());
+            ((Cleanable) objectInput).cleanup();
+        }
+    }
+
+    @Test
+    public void test_InterleavedStreamsOnSameThread() throws Exception {
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        ObjectOutput firstOutput = serialization.serialize(url, first);
+        ObjectOutput secondOutput = serialization.serialize(url, second);
+        firstOutput.writeUTF("first");
+        secondOutput.writeUTF("second");
+        firstOutput.flushBuffer();
+        secondOutput.flushBuffer();
+        ((Cleanable) firstOutput).cleanup();
+        ((Cleanable) secondOutput).cleanup();
+
+        ObjectInput firstInput = serialization.deserialize(url, new ByteArrayInputStream(first.toByteArray()));
+        ObjectInput secondInput = serialization.deserialize(url, new ByteArrayInputStream(second.toByteArray()));
+        assertEquals("second", secondInput.readUTF());
+        assertEquals("first", firstInput.readUTF());
+        ((Cleanable) firstInput).cleanup();
+        ((Cleanable) secondInput).cleanup();
+    }
+
+    @Test
+    public void test_BufferSerialization() throws Exception {
+        BufferSerialization bufferSerialization = (BufferSerialization) serialization;
+        ByteArrayBuffer buffer = new ByteArrayBuffer();
+        byte[] large = new byte[10000];
+        Arrays.fill(large, (byte) 7);
+
+        ObjectOutput objectOutput = bufferSerialization.serialize(url, buffer);
+        objectOutput.writeUTF("message");
+        objectOutput.writeObject(bigPerson);
+        objectOutput.writeBytes(large);
+        objectOutput.flushBuffer();
+        if (objectOutput instanceof Cleanable) {
+            ((Cleanable) objectOutput).cleanup();
+        }
+
+        ObjectInput objectInput = bufferSerialization.deserialize(url, buffer);
+        assertEquals("message", objectInput.readUTF());
+        assertEquals(bigPerson, objectInput.readObject(BigPerson.class));
+        assertArrayEquals(large, objectInput.readBytes());
+        if (objectInput instanceof Cleanable) {
+            ((Cleanable) objectInput).cleanup();
+        }
+        assertEquals(0, buffer.readableBytes());
+    }
+}